@@ -0,0 +1,47 @@
+package com.example.weather;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 벤치마크용 애플리케이션 컨텍스트. MySQL 대신 메모리 H2 를 씁니다.
+ * 인자는 커맨드라인 프로퍼티로 넘기므로 application.properties 보다 우선하고, 아래 기본값과 같은 프로퍼티면 기본값을 대신합니다.
+ */
+public final class EmbeddedWeatherContext {
+    private EmbeddedWeatherContext() {
+    }
+
+    // 웹 서버 없이 띄운다.
+    public static ConfigurableApplicationContext start(String database, String... extraArgs) {
+        return run(database, "none", extraArgs);
+    }
+
+    // 임의 포트로 톰캣까지 띄운다. 포트는 local.server.port 프로퍼티로 알 수 있다.
+    public static ConfigurableApplicationContext startWeb(String database, String... extraArgs) {
+        return run(database, "servlet", extraArgs);
+    }
+
+    private static ConfigurableApplicationContext run(String database, String webApplicationType, String... extraArgs) {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.main.web-application-type=" + webApplicationType,
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:" + database + ";MODE=MySQL;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.jpa.database=h2",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.org.hibernate.SQL=INFO",
+                "--logging.level.root=WARN"));
+        // 같은 프로퍼티를 두 번 넘기면 목록으로 합쳐지므로, extraArgs 에 있는 프로퍼티는 기본값을 뺀다.
+        for (String extraArg : extraArgs) {
+            String key = extraArg.substring(0, extraArg.indexOf('=') + 1);
+            args.removeIf(arg -> arg.startsWith(key));
+        }
+        args.addAll(Arrays.asList(extraArgs));
+
+        return new SpringApplicationBuilder(WeatherApplication.class).run(args.toArray(String[]::new));
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.weather.client;
+
+import com.example.weather.domain.GeoCoordinate;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 스트리밍 파서와 기존 json-simple 파싱 경로 비교.
+ * 실제 openweathermap 응답(resources/openweathermap)을 사용합니다.
+ * ./gradlew jmh -Pjmh.includes=WeatherResponseParserBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-XX:+UseParallelGC")
+public class WeatherResponseParserBenchmark {
+    private String geoJson;
+    private String weatherJson;
+    private String historyJson;
+
+    @Setup
+    public void setUp() throws IOException {
+        geoJson = read("/openweathermap/geo.json");
+        weatherJson = read("/openweathermap/weather.json");
+        historyJson = read("/openweathermap/history.json");
+    }
+
+    @Benchmark
+    public WeatherObservation streamingWeather() {
+        return WeatherResponseParser.parseWeather(weatherJson);
+    }
+
+    @Benchmark
+    public WeatherObservation streamingHistoricalWeather() {
+        return WeatherResponseParser.parseHistoricalWeather(historyJson);
+    }
+
+    @Benchmark
+    public Map<String, Object> jsonSimpleWeather() throws ParseException {
+        JSONObject jsonObject = (JSONObject) new JSONParser().parse(weatherJson);
+        Map<String, Object> resultMap = new HashMap<>();
+
+        JSONObject mainData = (JSONObject) jsonObject.get("main");
+        resultMap.put("temp", mainData.get("temp"));
+        JSONArray weatherArray = (JSONArray) jsonObject.get("weather");
+        JSONObject weatherData = (JSONObject) weatherArray.get(0);
+        resultMap.put("main", weatherData.get("main"));
+        resultMap.put("icon", weatherData.get("icon"));
+
+        return resultMap;
+    }
+
+    @Benchmark
+    public GeoCoordinate streamingCoordinate() {
+        return WeatherResponseParser.parseCoordinate(geoJson);
+    }
+
+    @Benchmark
+    public GeoCoordinate jsonSimpleCoordinate() throws ParseException {
+        JSONArray jsonArray = (JSONArray) new JSONParser().parse(geoJson);
+        JSONObject jsonObject = (JSONObject) jsonArray.get(0);
+
+        return GeoCoordinate.builder()
+                .lat((double) jsonObject.get("lat"))
+                .lon((double) jsonObject.get("lon"))
+                .build();
+    }
+
+    private static String read(String resource) throws IOException {
+        try (InputStream in = WeatherResponseParserBenchmark.class.getResourceAsStream(resource)) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.weather.controller;
+
+import com.example.weather.domain.Diary;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 다이어리 목록 응답의 Jackson 직렬화 비용.
+ * array: /read/diaries 처럼 목록 전체를 하나의 JSON 배열로 쓴다.
+ * ndjson: /read/diaries/stream 처럼 SequenceWriter 로 한 줄에 하나씩 쓴다.
+ * ObjectMapper 는 스프링 부트와 같은 설정(Jackson2ObjectMapperBuilder)으로 만듭니다.
+ * ./gradlew jmh -Pjmh.includes=DiarySerializationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DiarySerializationBenchmark {
+    @Param({"10", "1000"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private List<Diary> diaries;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        LocalDate start = LocalDate.of(2023, 10, 1);
+        diaries = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            diaries.add(Diary.builder()
+                    .id(i + 1)
+                    .weather("Clear")
+                    .icon("01d")
+                    .temperature(288.55)
+                    .text("오늘의 일기 " + i)
+                    .date(start.plusDays(i % 31))
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public byte[] array() throws IOException {
+        return objectMapper.writeValueAsBytes(diaries);
+    }
+
+    @Benchmark
+    public void ndjson() throws IOException {
+        try (SequenceWriter writer = objectMapper.writer()
+                .withRootValueSeparator("\n")
+                .writeValues(OutputStream.nullOutputStream())) {
+            for (Diary diary : diaries) {
+                writer.write(diary);
+            }
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.weather.loadtest;
+
+import com.example.weather.client.WeatherHttpClient;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+
+/**
+ * 캐시 miss 상태의 createDiary 처럼 외부 날씨 api 호출(WeatherHttpClient)과 JDBC 조회로 블로킹되는 요청.
+ * jmh 소스셋에만 있으므로 벤치마크 컨텍스트에서만 등록됩니다.
+ */
+@RestController
+@RequiredArgsConstructor
+public class BlockingProbeController {
+    private final WeatherHttpClient weatherHttpClient;
+    private final JdbcTemplate jdbcTemplate;
+
+    @GetMapping("/probe")
+    Integer probe(@RequestParam String upstream) {
+        weatherHttpClient.get(upstream);
+        return jdbcTemplate.queryForObject("select count(*) from diary where date = ?", Integer.class, LocalDate.now());
+    }
+}
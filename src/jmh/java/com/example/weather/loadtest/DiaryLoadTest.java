@@ -0,0 +1,245 @@
+package com.example.weather.loadtest;
+
+import com.example.weather.EmbeddedWeatherContext;
+import com.example.weather.client.FakeOpenWeatherMap;
+import com.example.weather.domain.Diary;
+import com.example.weather.repository.JdbcDiaryRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 다이어리 api 부하 테스트.
+ * <p>
+ * 애플리케이션(톰캣 + 메모리 H2)과 FakeOpenWeatherMap 을 띄우고, 요청을 고정된 비율(rate)로 보냅니다.
+ * 응답을 기다리지 않고 정해진 시각에 다음 요청을 보내므로(open loop), 서버가 느려지면 그만큼 지연 시간에 드러납니다.
+ * 지연 시간은 요청을 보내기로 한 시각부터 응답을 받을 때까지로 잽니다.
+ * <p>
+ * create / read-range / update / delete 각각만 보내는 경우와 섞어 보내는 경우(mixed)를 차례로 실행하고,
+ * 요청 종류별 p50 / p99 / 최대 지연 시간과 처리량을 출력한 뒤 json 으로 저장합니다.
+ * <p>
+ * ./gradlew loadTest -Ploadtest.rate=100 -Ploadtest.duration=30s -Ploadtest.mixes=create,mixed
+ */
+public final class DiaryLoadTest {
+    private static final String[] CITIES = {"seoul", "busan", "incheon", "daegu", "gwangju"};
+
+    private static final Map<String, Map<Operation, Integer>> MIXES = new LinkedHashMap<>();
+
+    static {
+        MIXES.put("create", Map.of(Operation.CREATE, 1));
+        MIXES.put("read-range", Map.of(Operation.READ_RANGE, 1));
+        MIXES.put("update", Map.of(Operation.UPDATE, 1));
+        MIXES.put("delete", Map.of(Operation.DELETE, 1));
+        MIXES.put("mixed", Map.of(Operation.CREATE, 30, Operation.READ_RANGE, 50,
+                Operation.UPDATE, 15, Operation.DELETE, 5));
+    }
+
+    enum Operation {
+        CREATE, READ_RANGE, UPDATE, DELETE
+    }
+
+    private final Map<String, String> options;
+    private final int rate;
+    private final Duration duration;
+    private final Duration warmup;
+    private final int days;
+    private final int seedPerDay;
+    private final LocalDate lastDate = LocalDate.now().minusDays(1);
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+
+    private DiaryLoadTest(Map<String, String> options) {
+        this.options = options;
+        this.rate = Integer.parseInt(options.getOrDefault("rate", "50"));
+        this.duration = DurationStyle.detectAndParse(options.getOrDefault("duration", "20s"));
+        this.warmup = DurationStyle.detectAndParse(options.getOrDefault("warmup", "5s"));
+        this.days = Integer.parseInt(options.getOrDefault("days", "365"));
+        this.seedPerDay = Integer.parseInt(options.getOrDefault("seed-per-day", "5"));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            options.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        new DiaryLoadTest(options).run();
+    }
+
+    private void run() throws Exception {
+        List<String> mixes = Arrays.asList(options.getOrDefault("mixes", String.join(",", MIXES.keySet())).split(","));
+        List<Map<String, Object>> results = new ArrayList<>();
+
+        try (FakeOpenWeatherMap openWeatherMap = FakeOpenWeatherMap.start()) {
+            openWeatherMap
+                    .latency(DurationStyle.detectAndParse(options.getOrDefault("upstream-latency", "50ms")),
+                            DurationStyle.detectAndParse(options.getOrDefault("upstream-jitter", "20ms")))
+                    .errorRate(Double.parseDouble(options.getOrDefault("upstream-error-rate", "0")), 503);
+            startApplication(openWeatherMap);
+
+            for (String mix : mixes) {
+                if (!MIXES.containsKey(mix)) {
+                    throw new IllegalArgumentException("unknown mix " + mix + ", expected one of " + MIXES.keySet());
+                }
+                seed();
+                drive(MIXES.get(mix), warmup);
+                Map<String, Object> result = new LinkedHashMap<>();
+                result.put("mix", mix);
+                result.put("operations", drive(MIXES.get(mix), duration));
+                results.add(result);
+                print(result);
+            }
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+
+        write(results);
+    }
+
+    private void startApplication(FakeOpenWeatherMap openWeatherMap) {
+        List<String> args = new ArrayList<>();
+        openWeatherMap.properties().forEach((key, value) -> args.add("--" + key + "=" + value));
+        args.add("--weather.threads.virtual.enabled=" + options.getOrDefault("virtual-threads", "false"));
+        context = EmbeddedWeatherContext.startWeb("loadtest", args.toArray(String[]::new));
+
+        baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    // 매 mix 를 같은 데이터(하루 seedPerDay 건 x days 일)에서 시작한다.
+    private void seed() {
+        context.getBean(JdbcTemplate.class).update("delete from diary");
+
+        List<Diary> diaries = new ArrayList<>(days * seedPerDay);
+        for (int day = 0; day < days; day++) {
+            for (int i = 0; i < seedPerDay; i++) {
+                diaries.add(Diary.builder()
+                        .weather("Clear")
+                        .icon("01d")
+                        .temperature(288.55)
+                        .text("seed " + i)
+                        .date(lastDate.minusDays(day))
+                        .build());
+            }
+        }
+        context.getBean(JdbcDiaryRepository.class).batchInsert(diaries);
+    }
+
+    private List<Map<String, Object>> drive(Map<Operation, Integer> mix, Duration length) throws InterruptedException {
+        Map<Operation, LatencyRecorder> recorders = new EnumMap<>(Operation.class);
+        mix.keySet().forEach(operation -> recorders.put(operation, new LatencyRecorder(operation.name())));
+        List<Operation> weighted = new ArrayList<>();
+        mix.forEach((operation, weight) -> weighted.addAll(Collections.nCopies(weight, operation)));
+
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        long total = length.toNanos() / intervalNanos;
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        long start = System.nanoTime();
+        for (long i = 0; i < total; i++) {
+            long intended = start + i * intervalNanos;
+            for (long now = System.nanoTime(); now < intended; now = System.nanoTime()) {
+                LockSupport.parkNanos(intended - now);
+            }
+
+            Operation operation = weighted.get(ThreadLocalRandom.current().nextInt(weighted.size()));
+            executor.execute(() -> {
+                boolean success = send(operation);
+                recorders.get(operation).record(System.nanoTime() - intended, success);
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+        long elapsed = System.nanoTime() - start;
+
+        List<Map<String, Object>> summaries = new ArrayList<>();
+        recorders.values().forEach(recorder -> summaries.add(recorder.summary(elapsed)));
+        return summaries;
+    }
+
+    private boolean send(Operation operation) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDate date = lastDate.minusDays(random.nextInt(days));
+        HttpRequest request = switch (operation) {
+            case CREATE -> request("/create/diary?date=" + date + "&city=" + CITIES[random.nextInt(CITIES.length)])
+                    .POST(HttpRequest.BodyPublishers.ofString("부하 테스트 일기")).build();
+            case READ_RANGE -> request("/read/diaries?start-date=" + date.minusDays(6) + "&end-date=" + date)
+                    .GET().build();
+            case UPDATE -> request("/update/diary?date=" + date)
+                    .PUT(HttpRequest.BodyPublishers.ofString("수정한 일기")).build();
+            case DELETE -> request("/delete/diary?date=" + date)
+                    .DELETE().build();
+        };
+
+        try {
+            int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            return status >= 200 && status < 300;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "text/plain; charset=UTF-8");
+    }
+
+    private static void print(Map<String, Object> result) {
+        System.out.printf("%n[%s]%n%-12s %9s %7s %12s %9s %9s %9s%n", result.get("mix"),
+                "operation", "requests", "errors", "throughput/s", "p50(ms)", "p99(ms)", "max(ms)");
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> operations = (List<Map<String, Object>>) result.get("operations");
+        for (Map<String, Object> summary : operations) {
+            System.out.printf("%-12s %9d %7d %12.1f %9.2f %9.2f %9.2f%n",
+                    summary.get("operation"), summary.get("requests"), summary.get("errors"),
+                    summary.get("throughputPerSecond"), summary.get("p50Millis"),
+                    summary.get("p99Millis"), summary.get("maxMillis"));
+        }
+    }
+
+    private void write(List<Map<String, Object>> results) throws IOException {
+        String output = options.get("output");
+        if (output == null) {
+            return;
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("rate", rate);
+        report.put("duration", duration.toString());
+        report.put("options", options);
+        report.put("results", results);
+
+        Path path = Path.of(output);
+        Files.createDirectories(path.getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(path.toFile(), report);
+        System.out.println("\nresult is saved to " + path);
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.weather.loadtest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 한 종류의 요청에 대한 지연 시간 기록. 부하 테스트 한 번의 요청 수(수만 건)는 그대로 들고 있다가
+ * 끝난 뒤 정렬해 정확한 백분위를 구합니다.
+ */
+final class LatencyRecorder {
+    private final String name;
+    private long[] latencies = new long[1024];
+    private int count;
+    private int errors;
+
+    LatencyRecorder(String name) {
+        this.name = name;
+    }
+
+    synchronized void record(long latencyNanos, boolean success) {
+        if (!success) {
+            errors++;
+        }
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = latencyNanos;
+    }
+
+    synchronized Map<String, Object> summary(long elapsedNanos) {
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("operation", name);
+        summary.put("requests", count);
+        summary.put("errors", errors);
+        summary.put("throughputPerSecond", (count - errors) / (elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1)));
+        summary.put("p50Millis", millis(percentile(sorted, 0.50)));
+        summary.put("p99Millis", millis(percentile(sorted, 0.99)));
+        summary.put("maxMillis", millis(count == 0 ? 0 : sorted[count - 1]));
+        return summary;
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
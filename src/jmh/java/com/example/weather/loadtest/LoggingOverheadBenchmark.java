@@ -0,0 +1,82 @@
+package com.example.weather.loadtest;
+
+import com.example.weather.EmbeddedWeatherContext;
+import com.example.weather.domain.DateWeather;
+import com.example.weather.repository.JdbcDateWeatherRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 요청 하나에 붙는 로그 기록 비용.
+ * prod 프로필(json 파일 + 에러 파일 + SQL 파일)로 띄우고, 로그를 요청 스레드에서 바로 쓰는 경우(SYNC) 와
+ * 비동기 appender 의 큐에 넣기만 하는 경우(ASYNC) 의 /create/diary 응답 시간을 비교합니다.
+ * 차이가 잘 보이도록 SQL 로그는 표본 추출 없이 모두 남깁니다. (요청당 INFO 1건 + SQL 1건)
+ * ./gradlew jmh -Pjmh.includes=LoggingOverheadBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 6, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(1)
+public class LoggingOverheadBenchmark {
+    private static final String CITY = "seoul";
+    private static final LocalDate DATE = LocalDate.of(2023, 10, 25);
+
+    @Param({"SYNC", "ASYNC"})
+    public String pipeline;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private URI createUri;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        context = EmbeddedWeatherContext.startWeb("logging-" + pipeline,
+                "--spring.profiles.active=prod",
+                "--logging.pipeline=" + pipeline,
+                "--logging.file.path=" + Files.createTempDirectory("weather-logs"),
+                "--logging.level.root=INFO",
+                "--logging.level.org.hibernate.SQL=DEBUG",
+                "--logging.sql.sample-every=1");
+
+        context.getBean(JdbcDateWeatherRepository.class).batchInsertIgnore(List.of(DateWeather.builder()
+                .city(CITY)
+                .date(DATE)
+                .weather("Clear")
+                .icon("01d")
+                .temperature(288.55)
+                .build()));
+
+        createUri = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port")
+                + "/create/diary?date=" + DATE + "&city=" + CITY);
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int createDiary() throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(createUri)
+                .header("Content-Type", "text/plain; charset=UTF-8")
+                .POST(HttpRequest.BodyPublishers.ofString("오늘의 일기"))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.weather.loadtest;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 요청 하나마다 하는 지표 기록(http.server.requests 타이머 조회 + 히스토그램 기록) 의 비용.
+ * application.properties 와 같은 히스토그램 범위(1ms ~ 10s)를 쓴 경우와 기본 버킷 전체를 쓴 경우를 비교합니다.
+ * scrape 는 /actuator/prometheus 한 번의 비용으로, 버킷 수에 비례합니다.
+ * ./gradlew jmh -Pjmh.includes=MeterRecordingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MeterRecordingBenchmark {
+    @Param({"bounded", "default"})
+    public String histogram;
+
+    private MeterRegistry registry;
+    private long latencyNanos;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        registry.config().meterFilter(new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(io.micrometer.core.instrument.Meter.Id id,
+                                                         DistributionStatisticConfig config) {
+                DistributionStatisticConfig.Builder builder = DistributionStatisticConfig.builder()
+                        .percentilesHistogram(true);
+                if (histogram.equals("bounded")) {
+                    builder.minimumExpectedValue((double) Duration.ofMillis(1).toNanos())
+                            .maximumExpectedValue((double) Duration.ofSeconds(10).toNanos());
+                }
+                return builder.build().merge(config);
+            }
+        });
+        latencyNanos = Duration.ofMillis(3).toNanos();
+        // scrape 가 빈 registry 를 읽지 않도록 타이머를 먼저 만들어 둔다.
+        recordServerRequest();
+    }
+
+    @Benchmark
+    public void recordServerRequest() {
+        Timer.builder("http.server.requests")
+                .tag("method", "GET")
+                .tag("uri", "/read/diary")
+                .tag("status", "200")
+                .tag("outcome", "SUCCESS")
+                .tag("exception", "none")
+                .register(registry)
+                .record(latencyNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Benchmark
+    public String scrape() {
+        return ((PrometheusMeterRegistry) registry).scrape();
+    }
+}
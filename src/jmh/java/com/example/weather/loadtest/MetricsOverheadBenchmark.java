@@ -0,0 +1,76 @@
+package com.example.weather.loadtest;
+
+import com.example.weather.EmbeddedWeatherContext;
+import com.example.weather.domain.Diary;
+import com.example.weather.repository.JdbcDiaryRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 요청 하나에 붙는 지표 기록 비용.
+ * 지표를 모두 끈 경우(management.metrics.enable.all=false) 와 application.properties 설정 그대로
+ * (엔드포인트 지연 히스토그램 + repository 타이머 + hikari) 인 경우의 /read/diary 응답 시간을 비교합니다.
+ * ./gradlew jmh -Pjmh.includes=MetricsOverheadBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 6, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(1)
+public class MetricsOverheadBenchmark {
+    private static final LocalDate DATE = LocalDate.of(2023, 10, 25);
+
+    @Param({"false", "true"})
+    public boolean metrics;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private URI readUri;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = EmbeddedWeatherContext.startWeb("metrics-" + metrics,
+                "--management.metrics.enable.all=" + metrics);
+
+        List<Diary> diaries = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            diaries.add(Diary.builder()
+                    .weather("Clear")
+                    .icon("01d")
+                    .temperature(288.55)
+                    .text("diary " + i)
+                    .date(DATE)
+                    .build());
+        }
+        context.getBean(JdbcDiaryRepository.class).batchInsert(diaries);
+
+        readUri = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port")
+                + "/read/diary?date=" + DATE);
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int readDiary() throws IOException, InterruptedException {
+        return client.send(HttpRequest.newBuilder(readUri).GET().build(), HttpResponse.BodyHandlers.discarding())
+                .statusCode();
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.weather.loadtest;
+
+import com.example.weather.EmbeddedWeatherContext;
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 플랫폼 스레드(톰캣 스레드 50개) 와 가상 스레드 모드의 처리량 비교.
+ * 요청마다 50ms 걸리는 upstream 호출과 DB 조회를 하며, 동시 클라이언트는 200 입니다.
+ * DB 동시 접근은 두 모드 모두 hikari 풀(10) 로 제한됩니다.
+ * ./gradlew jmh -Pjmh.includes=VirtualThreadLoadBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+@Threads(200)
+public class VirtualThreadLoadBenchmark {
+    private static final byte[] WEATHER_RESPONSE = ("{\"weather\":[{\"id\":800,\"main\":\"Clear\",\"icon\":\"01d\"}],"
+            + "\"main\":{\"temp\":288.55}}").getBytes(StandardCharsets.UTF_8);
+
+    @Param({"false", "true"})
+    public boolean virtualThreads;
+
+    @Param({"50"})
+    public int upstreamLatencyMillis;
+
+    private HttpServer upstream;
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private URI probeUri;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        upstream = HttpServer.create(new InetSocketAddress("localhost", 0), 1024);
+        upstream.createContext("/weather", exchange -> {
+            try {
+                Thread.sleep(upstreamLatencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(200, WEATHER_RESPONSE.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(WEATHER_RESPONSE);
+            }
+        });
+        upstream.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        upstream.start();
+
+        context = EmbeddedWeatherContext.startWeb("virtual-threads-" + virtualThreads,
+                "--weather.threads.virtual.enabled=" + virtualThreads,
+                "--server.tomcat.threads.max=50",
+                "--spring.datasource.hikari.maximum-pool-size=10");
+
+        String upstreamUrl = "http://localhost:" + upstream.getAddress().getPort() + "/weather";
+        probeUri = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port")
+                + "/probe?upstream=" + URLEncoder.encode(upstreamUrl, StandardCharsets.UTF_8));
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        upstream.stop(0);
+    }
+
+    @Benchmark
+    public int probe() throws IOException, InterruptedException {
+        return client.send(HttpRequest.newBuilder(probeUri).GET().build(), HttpResponse.BodyHandlers.discarding())
+                .statusCode();
+    }
+}
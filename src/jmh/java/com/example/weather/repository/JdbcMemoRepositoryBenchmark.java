@@ -0,0 +1,113 @@
+package com.example.weather.repository;
+
+import com.example.weather.EmbeddedWeatherContext;
+import com.example.weather.domain.Memo;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * JdbcMemoRepository 의 조회/저장 경로 비용을 JpaMemoRepository 의 같은 메서드와 비교합니다.
+ * findAll 은 row 수만큼 RowMapper 가 불리므로, row 수를 바꿔 가며 매핑 비용이 어떻게 늘어나는지 봅니다.
+ * forEach / streamAll 은 목록을 만들지 않고 한 row 씩 넘겨받습니다.
+ * saveAll 은 매번 rows 건을 새로 넣고, 다음 호출 전에 지웁니다.
+ * ./gradlew jmh -Pjmh.includes=JdbcMemoRepositoryBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JdbcMemoRepositoryBenchmark {
+    @Param({"100", "10000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private JdbcTemplate jdbcTemplate;
+    private JdbcMemoRepository jdbcMemoRepository;
+    private JpaMemoRepository jpaMemoRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = EmbeddedWeatherContext.start("memo-" + rows);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcMemoRepository = context.getBean(JdbcMemoRepository.class);
+        jpaMemoRepository = context.getBean(JpaMemoRepository.class);
+        jdbcTemplate.update("insert into memo (id, text) select x, concat('memo ', x) from system_range(1, ?)", rows);
+    }
+
+    // saveAll 벤치마크에서만 쓴다. 호출마다 준비하므로 조회 벤치마크에는 비용을 더하지 않는다.
+    @State(Scope.Thread)
+    public static class Inserts {
+        private List<Memo> memos;
+
+        // 지난 호출이 넣은 row 를 지우고, 넣을 memo 를 새로 만든다. (jpa 는 넘긴 엔티티에 id 를 채우므로)
+        @Setup(Level.Invocation)
+        public void prepare(JdbcMemoRepositoryBenchmark benchmark) {
+            int rows = benchmark.rows;
+            benchmark.jdbcTemplate.update("delete from memo where id > ?", rows);
+            benchmark.jdbcTemplate.update("alter table memo alter column id restart with " + (rows + 1));
+            memos = new ArrayList<>(rows);
+            for (int i = 1; i <= rows; i++) {
+                memos.add(Memo.builder().id(rows + i).text("new memo " + i).build());
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Memo> findAll() {
+        return jdbcMemoRepository.findAll();
+    }
+
+    @Benchmark
+    public List<Memo> jpaFindAll() {
+        return jpaMemoRepository.findAll();
+    }
+
+    @Benchmark
+    public void forEach(Blackhole blackhole) {
+        jdbcMemoRepository.forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void streamAll(Blackhole blackhole) {
+        try (Stream<Memo> memos = jdbcMemoRepository.streamAll()) {
+            memos.forEach(blackhole::consume);
+        }
+    }
+
+    @Benchmark
+    public Optional<Memo> findById() {
+        return jdbcMemoRepository.findById(rows / 2);
+    }
+
+    @Benchmark
+    public Optional<Memo> jpaFindById() {
+        return jpaMemoRepository.findById(rows / 2);
+    }
+
+    @Benchmark
+    public List<Memo> saveAll(Inserts inserts) {
+        return jdbcMemoRepository.saveAll(inserts.memos);
+    }
+
+    // IDENTITY 라 hibernate 는 row 마다 insert 를 따로 보낸다.
+    @Benchmark
+    public List<Memo> jpaSaveAll(Inserts inserts) {
+        inserts.memos.forEach(memo -> memo.setId(0));
+        return jpaMemoRepository.saveAll(inserts.memos);
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.weather.service;
+
+import com.example.weather.EmbeddedWeatherContext;
+import com.example.weather.client.WeatherHttpClient;
+import com.example.weather.client.WeatherObservation;
+import com.example.weather.client.WeatherResponseParser;
+import com.example.weather.domain.Diary;
+import com.example.weather.repository.DiaryRepository;
+import com.sun.net.httpserver.HttpServer;
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * createDiary 의 트랜잭션 범위 비교.
+ * serializableWithFetch: 기존 방식. SERIALIZABLE 트랜잭션 안에서 날씨 api 를 호출한 뒤 insert.
+ * twoPhase: 트랜잭션 밖에서 api 를 호출하고 READ_COMMITTED 트랜잭션으로 insert 만 한다. (DiaryWriter 와 동일)
+ * awaitingConnection 은 트랜잭션 시작 직전에 커넥션을 기다리던 스레드 수의 합계입니다.
+ * ./gradlew jmh -Pjmh.includes=CreateDiaryTransactionBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(16)
+public class CreateDiaryTransactionBenchmark {
+    private static final byte[] WEATHER_RESPONSE = ("{\"weather\":[{\"id\":800,\"main\":\"Clear\",\"icon\":\"01d\"}],"
+            + "\"main\":{\"temp\":288.55},\"name\":\"Seoul\"}").getBytes(StandardCharsets.UTF_8);
+
+    @Param({"20"})
+    public int upstreamLatencyMillis;
+
+    @Param({"8"})
+    public int poolSize;
+
+    private HttpServer upstream;
+    private ConfigurableApplicationContext context;
+    private WeatherHttpClient weatherHttpClient;
+    private DiaryRepository diaryRepository;
+    private HikariDataSource dataSource;
+    private TransactionTemplate serializable;
+    private TransactionTemplate readCommitted;
+    private String weatherUrl;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Waits {
+        public long awaitingConnection;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        upstream = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        upstream.createContext("/weather", exchange -> {
+            try {
+                Thread.sleep(upstreamLatencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(200, WEATHER_RESPONSE.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(WEATHER_RESPONSE);
+            }
+        });
+        upstream.setExecutor(Executors.newCachedThreadPool());
+        upstream.start();
+        weatherUrl = "http://localhost:" + upstream.getAddress().getPort() + "/weather";
+
+        context = EmbeddedWeatherContext.start("create-diary",
+                "--spring.datasource.hikari.maximum-pool-size=" + poolSize);
+
+        weatherHttpClient = context.getBean(WeatherHttpClient.class);
+        diaryRepository = context.getBean(DiaryRepository.class);
+        dataSource = context.getBean(HikariDataSource.class);
+
+        PlatformTransactionManager transactionManager = context.getBean(PlatformTransactionManager.class);
+        serializable = new TransactionTemplate(transactionManager);
+        serializable.setIsolationLevel(TransactionDefinition.ISOLATION_SERIALIZABLE);
+        readCommitted = new TransactionTemplate(transactionManager);
+        readCommitted.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        upstream.stop(0);
+    }
+
+    @Benchmark
+    public Diary serializableWithFetch(Waits waits) {
+        waits.awaitingConnection += dataSource.getHikariPoolMXBean().getThreadsAwaitingConnection();
+        return serializable.execute(status -> diaryRepository.save(newDiary(fetchWeather())));
+    }
+
+    @Benchmark
+    public Diary twoPhase(Waits waits) {
+        Diary diary = newDiary(fetchWeather());
+        waits.awaitingConnection += dataSource.getHikariPoolMXBean().getThreadsAwaitingConnection();
+        return readCommitted.execute(status -> diaryRepository.save(diary));
+    }
+
+    private WeatherObservation fetchWeather() {
+        return WeatherResponseParser.parseWeather(weatherHttpClient.get(weatherUrl));
+    }
+
+    private static Diary newDiary(WeatherObservation observation) {
+        return Diary.builder()
+                .weather(observation.weather())
+                .icon(observation.icon())
+                .temperature(observation.temperature())
+                .text("benchmark")
+                .date(LocalDate.of(2023, 10, 30))
+                .build();
+    }
+}
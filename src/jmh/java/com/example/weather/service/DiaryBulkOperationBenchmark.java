@@ -0,0 +1,98 @@
+package com.example.weather.service;
+
+import com.example.weather.EmbeddedWeatherContext;
+import com.example.weather.domain.Diary;
+import com.example.weather.repository.DiaryRepository;
+import com.example.weather.repository.JdbcDiaryRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 날짜 단위 삭제/수정 회귀 벤치마크. 한 날짜에 수천 건이 있을 때를 봅니다.
+ * legacy*: 기존 방식 (엔티티를 읽어서 한 건씩 delete / 첫 row select 후 dirty checking update)
+ * bulk*: 한 번의 delete / update 문
+ * ./gradlew jmh -Pjmh.includes=DiaryBulkOperationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 20)
+@Fork(1)
+public class DiaryBulkOperationBenchmark {
+    private static final LocalDate DATE = LocalDate.of(2023, 10, 30);
+
+    @Param({"1000", "5000"})
+    public int entriesPerDate;
+
+    private ConfigurableApplicationContext context;
+    private DiaryRepository diaryRepository;
+    private JdbcDiaryRepository jdbcDiaryRepository;
+    private TransactionTemplate transactionTemplate;
+    private List<Diary> diaries;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = EmbeddedWeatherContext.start("diary-bulk");
+        diaryRepository = context.getBean(DiaryRepository.class);
+        jdbcDiaryRepository = context.getBean(JdbcDiaryRepository.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+        diaries = new ArrayList<>(entriesPerDate);
+        for (int i = 0; i < entriesPerDate; i++) {
+            diaries.add(Diary.builder()
+                    .weather("Clear")
+                    .icon("01d")
+                    .temperature(280.5)
+                    .text("diary " + i)
+                    .date(DATE)
+                    .build());
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void fillDate() {
+        transactionTemplate.executeWithoutResult(status -> {
+            diaryRepository.deleteAllByDate(DATE);
+            jdbcDiaryRepository.batchInsert(diaries);
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void legacyDelete() {
+        transactionTemplate.executeWithoutResult(status ->
+                diaryRepository.deleteAll(diaryRepository.findAllByDate(DATE)));
+    }
+
+    @Benchmark
+    public int bulkDelete() {
+        return transactionTemplate.execute(status -> diaryRepository.deleteAllByDate(DATE));
+    }
+
+    @Benchmark
+    public Diary legacyUpdate() {
+        return transactionTemplate.execute(status -> {
+            Diary first = diaryRepository.findPageAfter(DATE, DATE, DATE, Integer.MIN_VALUE, PageRequest.of(0, 1)).get(0);
+            first.setText("updated");
+            return diaryRepository.save(first);
+        });
+    }
+
+    @Benchmark
+    public int bulkUpdate() {
+        return transactionTemplate.execute(status -> diaryRepository.updateFirstTextByDate(DATE, "updated"));
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.weather.service;
+
+import com.example.weather.EmbeddedWeatherContext;
+import com.example.weather.domain.DateWeather;
+import com.example.weather.domain.Diary;
+import com.example.weather.dto.DiaryVersion;
+import com.example.weather.repository.JdbcDateWeatherRepository;
+import com.example.weather.repository.DiaryRepository;
+import com.example.weather.repository.DiaryVersionRepository;
+import com.example.weather.repository.JdbcDiaryRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DiaryService 를 스프링 컨텍스트와 메모리 H2 위에서 그대로 부르는 벤치마크.
+ * createDiary: 날씨가 이미 저장된 날짜 (캐시/DB 조회 + 짧은 쓰기 트랜잭션)
+ * readDiaries: 한 달 (하루 entriesPerDate 건) 조회
+ * readDiariesVersion: 같은 한 달의 변경 표시(diary_version)만 조회. 조건부 GET 이 304 로 답할 때의 비용
+ * readDiary / readDiaryFromDb: 하루 조회를 DiaryCache 를 거쳐서(hit) / 거치지 않고 DB 에서
+ * 외부 날씨 api 는 부르지 않습니다. (날씨는 미리 date_weather 에 넣어 둔다)
+ * ./gradlew jmh -Pjmh.includes=DiaryEndToEndBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DiaryEndToEndBenchmark {
+    private static final String CITY = "seoul";
+    private static final LocalDate WRITE_DATE = LocalDate.of(2023, 11, 1);
+    private static final LocalDate READ_START = LocalDate.of(2023, 10, 1);
+    private static final LocalDate READ_END = LocalDate.of(2023, 10, 31);
+
+    @Param({"10"})
+    public int entriesPerDate;
+
+    private ConfigurableApplicationContext context;
+    private DiaryService diaryService;
+    private DiaryRepository diaryRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // 날씨가 없으면 닿지 않는 주소로 요청해 바로 실패하도록 한다.
+        context = EmbeddedWeatherContext.start("diary-e2e",
+                "--openweathermap.geo-url=http://localhost:1/geo?q={city}&appid={key}");
+        diaryService = context.getBean(DiaryService.class);
+        diaryRepository = context.getBean(DiaryRepository.class);
+
+        List<DateWeather> weathers = new ArrayList<>();
+        List<Diary> diaries = new ArrayList<>();
+        for (LocalDate date = READ_START; !date.isAfter(WRITE_DATE); date = date.plusDays(1)) {
+            weathers.add(DateWeather.builder()
+                    .city(CITY)
+                    .date(date)
+                    .weather("Clear")
+                    .icon("01d")
+                    .temperature(288.55)
+                    .build());
+            for (int i = 0; date.isBefore(WRITE_DATE) && i < entriesPerDate; i++) {
+                diaries.add(Diary.builder()
+                        .weather("Clear")
+                        .icon("01d")
+                        .temperature(288.55)
+                        .text("diary " + i)
+                        .date(date)
+                        .build());
+            }
+        }
+        context.getBean(JdbcDateWeatherRepository.class).batchInsertIgnore(weathers);
+        context.getBean(JdbcDiaryRepository.class).batchInsert(diaries);
+        context.getBean(DiaryVersionRepository.class).bump(diaries.stream().map(Diary::getDate).toList());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Diary createDiary() {
+        return diaryService.createDiary(WRITE_DATE, CITY, "오늘의 일기");
+    }
+
+    @Benchmark
+    public List<Diary> readDiaries() {
+        return diaryService.readDiaries(READ_START, READ_END);
+    }
+
+    @Benchmark
+    public DiaryVersion readDiariesVersion() {
+        return diaryService.readDiaries(READ_START, READ_END, version -> true).version();
+    }
+
+    @Benchmark
+    public List<Diary> readDiary() {
+        return diaryService.readDiary(READ_END);
+    }
+
+    @Benchmark
+    public List<Diary> readDiaryFromDb() {
+        return diaryRepository.findAllByDate(READ_END);
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.weather.service;
+
+import com.example.weather.EmbeddedWeatherContext;
+import com.example.weather.domain.Diary;
+import com.example.weather.dto.DiarySearchPage;
+import com.example.weather.repository.JdbcDiaryRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * diary 100 만 건(10 년)에서 /read/diary/search 한 페이지(20 건, DB 에서 id 로 읽기까지)를 찾는 시간.
+ * text 는 Zipf 분포로 뽑은 영어 단어 4 개와 한글 문장 하나이므로, word10 은 4 만 건쯤, "비가 왔다" 는 10 만 건쯤 걸리고 word5000 은 수십 건만 걸립니다.
+ * range 가 year 면 마지막 1 년만 찾습니다.
+ * ./gradlew jmh -Pjmh.includes=DiarySearchBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class DiarySearchBenchmark {
+    private static final int DIARIES = 1_000_000;
+    private static final int VOCABULARY = 10_000;
+    private static final String[] PHRASES = {
+            "비가 왔다", "맑은 날씨", "눈이 내렸다", "바람이 불었다", "흐리고 추웠다",
+            "산책을 했다", "친구를 만났다", "영화를 봤다", "책을 읽었다", "카페에 갔다",
+            "운동을 했다", "일찍 잤다", "늦잠을 잤다", "요리를 했다", "청소를 했다",
+            "출근했다", "여행을 갔다", "쇼핑을 했다", "공부를 했다", "집에서 쉬었다"};
+    private static final LocalDate START = LocalDate.of(2014, 1, 1);
+    private static final LocalDate END = LocalDate.of(2023, 12, 31);
+
+    @Param({"word5000", "word10", "word10 word200", "비가 왔다"})
+    public String query;
+
+    @Param({"all", "year"})
+    public String range;
+
+    private ConfigurableApplicationContext context;
+    private DiarySearchService diarySearchService;
+    private LocalDate startDate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = EmbeddedWeatherContext.start("diary-search");
+        diarySearchService = context.getBean(DiarySearchService.class);
+        startDate = range.equals("year") ? END.minusYears(1).plusDays(1) : START;
+
+        // 1/k 에 비례하는 확률로 word{k} 를 뽑는다.
+        double[] cumulative = new double[VOCABULARY];
+        double sum = 0;
+        for (int k = 1; k <= VOCABULARY; k++) {
+            sum += 1.0 / k;
+            cumulative[k - 1] = sum;
+        }
+
+        Random random = new Random(42);
+        JdbcDiaryRepository jdbcDiaryRepository = context.getBean(JdbcDiaryRepository.class);
+        long days = END.toEpochDay() - START.toEpochDay() + 1;
+        List<Diary> diaries = new ArrayList<>(10_000);
+        for (int i = 0; i < DIARIES; i++) {
+            StringBuilder text = new StringBuilder(PHRASES[random.nextInt(PHRASES.length)]);
+            for (int j = 0; j < 4; j++) {
+                int k = Arrays.binarySearch(cumulative, random.nextDouble() * sum);
+                text.append(" word").append((k < 0 ? -k - 1 : k) + 1);
+            }
+            diaries.add(Diary.builder()
+                    .weather("Clear")
+                    .icon("01d")
+                    .temperature(290.0)
+                    .text(text.toString())
+                    .date(START.plusDays(i % days))
+                    .build());
+            if (diaries.size() == 10_000) {
+                jdbcDiaryRepository.batchInsert(diaries);
+                diaries.clear();
+            }
+        }
+        context.getBean(DiaryTextIndex.class).rebuild();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public DiarySearchPage search() {
+        return diarySearchService.search(query, startDate, END, 0, 20);
+    }
+}
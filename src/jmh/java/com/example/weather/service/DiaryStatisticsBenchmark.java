@@ -0,0 +1,92 @@
+package com.example.weather.service;
+
+import com.example.weather.EmbeddedWeatherContext;
+import com.example.weather.domain.Diary;
+import com.example.weather.dto.WeatherStatistics;
+import com.example.weather.repository.DiaryVersionRepository;
+import com.example.weather.repository.JdbcDiaryRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.DoubleSummaryStatistics;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 10 년(하루 entriesPerDate 건) 기간의 날씨 통계를
+ * statistics: 날짜별 / 월별 집계에서 읽는 경우와
+ * readDiariesAndAggregate: readDiaries 로 diary 를 모두 읽어 집계하는 경우(클라이언트가 하던 방식)로 비교합니다.
+ * ./gradlew jmh -Pjmh.includes=DiaryStatisticsBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DiaryStatisticsBenchmark {
+    private static final String[] WEATHERS = {"Clear", "Clouds", "Rain", "Snow"};
+    private static final LocalDate START = LocalDate.of(2013, 1, 15);
+    private static final LocalDate END = LocalDate.of(2023, 1, 14);
+
+    @Param({"5"})
+    public int entriesPerDate;
+
+    private ConfigurableApplicationContext context;
+    private DiaryService diaryService;
+    private DiaryStatisticsService diaryStatisticsService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = EmbeddedWeatherContext.start("diary-statistics");
+        diaryService = context.getBean(DiaryService.class);
+        diaryStatisticsService = context.getBean(DiaryStatisticsService.class);
+
+        List<Diary> diaries = new ArrayList<>();
+        for (LocalDate date = START; !date.isAfter(END); date = date.plusDays(1)) {
+            for (int i = 0; i < entriesPerDate; i++) {
+                diaries.add(Diary.builder()
+                        .weather(WEATHERS[(date.getDayOfYear() + i) % WEATHERS.length])
+                        .icon("01d")
+                        .temperature(260 + date.getDayOfYear() % 40 + i)
+                        .text("diary " + i)
+                        .date(date)
+                        .build());
+            }
+        }
+        context.getBean(JdbcDiaryRepository.class).batchInsert(diaries);
+        context.getBean(DiaryVersionRepository.class).bump(diaries.stream().map(Diary::getDate).toList());
+        context.getBean(DiaryStatisticsRollupJob.class).rollup();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public WeatherStatistics statistics() {
+        return diaryStatisticsService.getStatistics(START, END);
+    }
+
+    @Benchmark
+    public WeatherStatistics readDiariesAndAggregate() {
+        List<Diary> diaries = diaryService.readDiaries(START, END);
+        DoubleSummaryStatistics temperatures = diaries.stream().mapToDouble(Diary::getTemperature).summaryStatistics();
+        Map<String, Long> weatherCounts = diaries.stream()
+                .collect(Collectors.groupingBy(Diary::getWeather, Collectors.counting()));
+        return WeatherStatistics.builder()
+                .startDate(START)
+                .endDate(END)
+                .diaryCount(temperatures.getCount())
+                .minTemperature(temperatures.getMin())
+                .maxTemperature(temperatures.getMax())
+                .averageTemperature(temperatures.getAverage())
+                .weatherCounts(weatherCounts)
+                .build();
+    }
+}
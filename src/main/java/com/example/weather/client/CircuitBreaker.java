@@ -0,0 +1,145 @@
+package com.example.weather.client;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * openweathermap 호출용 서킷 브레이커.
+ * <p>
+ * 최근 windowSize 번의 호출 중 실패 비율이 failureRateThreshold 이상이면(최소 minimumCalls 번 이상 호출했을 때) 열리고,
+ * 열려 있는 openDuration 동안은 호출을 바로 거절합니다. 그 뒤에는 한 번만 시험 호출을 허용해(HALF_OPEN)
+ * 성공하면 닫히고, 실패하면 다시 openDuration 만큼 열립니다.
+ * <p>
+ * 상태가 바뀔 때마다 세대(generation)가 올라가고, tryAcquire 는 호출을 허용한 세대를 돌려줍니다.
+ * 결과는 그 세대가 아직 현재 세대일 때만 반영되므로, CLOSED 때 나간 느린 호출이 OPEN → HALF_OPEN 이 된 뒤에 돌아와도
+ * 상태를 바꾸지 못하고 HALF_OPEN 에서는 시험 호출의 결과만 상태를 바꿉니다.
+ */
+@Component
+public class CircuitBreaker {
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    // tryAcquire 가 호출을 거절했을 때 돌려주는 값
+    public static final long REJECTED = -1;
+
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openNanos;
+    private final LongSupplier ticker;
+
+    // 최근 호출 결과의 원형 버퍼 (true = 실패)
+    private final boolean[] outcomes;
+    private int next;
+    private int calls;
+    private int failures;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private boolean trialInFlight;
+    private long generation;
+
+    @Autowired
+    public CircuitBreaker(@Value("${openweathermap.circuit-breaker.window-size:20}") int windowSize,
+                          @Value("${openweathermap.circuit-breaker.minimum-calls:10}") int minimumCalls,
+                          @Value("${openweathermap.circuit-breaker.failure-rate-threshold:0.5}") double failureRateThreshold,
+                          @Value("${openweathermap.circuit-breaker.open-duration:30s}") Duration openDuration) {
+        this(windowSize, minimumCalls, failureRateThreshold, openDuration, System::nanoTime);
+    }
+
+    CircuitBreaker(int windowSize, int minimumCalls, double failureRateThreshold, Duration openDuration,
+                   LongSupplier ticker) {
+        this.outcomes = new boolean[windowSize];
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.ticker = ticker;
+    }
+
+    // 호출해도 되는지 묻는다. REJECTED 가 아니면 결과를 반드시 받은 세대와 함께 onSuccess / onFailure 로 알려야 한다.
+    public synchronized long tryAcquire() {
+        if (state == State.OPEN) {
+            if (ticker.getAsLong() - openedAt < openNanos) {
+                return REJECTED;
+            }
+            state = State.HALF_OPEN;
+            trialInFlight = false;
+            generation++;
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialInFlight) {
+                return REJECTED;
+            }
+            trialInFlight = true;
+        }
+        return generation;
+    }
+
+    public synchronized void onSuccess(long permit) {
+        // 지난 세대의 호출 결과는 지금 상태와 상관없으므로 버린다.
+        if (permit != generation) {
+            return;
+        }
+        if (state == State.HALF_OPEN) {
+            close();
+        } else if (state == State.CLOSED) {
+            record(false);
+        }
+    }
+
+    public synchronized void onFailure(long permit) {
+        if (permit != generation) {
+            return;
+        }
+        if (state == State.HALF_OPEN) {
+            open();
+        } else if (state == State.CLOSED) {
+            record(true);
+            if (calls >= minimumCalls && failures >= failureRateThreshold * calls) {
+                open();
+            }
+        }
+    }
+
+    public synchronized State getState() {
+        // 열린 시간이 지났으면 다음 호출은 시험 호출로 허용되므로 HALF_OPEN 으로 보여준다.
+        if (state == State.OPEN && ticker.getAsLong() - openedAt >= openNanos) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    private void record(boolean failure) {
+        if (calls == outcomes.length) {
+            if (outcomes[next]) {
+                failures--;
+            }
+        } else {
+            calls++;
+        }
+        outcomes[next] = failure;
+        if (failure) {
+            failures++;
+        }
+        next = (next + 1) % outcomes.length;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = ticker.getAsLong();
+        generation++;
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        trialInFlight = false;
+        generation++;
+        calls = 0;
+        failures = 0;
+        next = 0;
+    }
+}
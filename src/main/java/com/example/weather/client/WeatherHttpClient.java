@@ -0,0 +1,153 @@
+package com.example.weather.client;
+
+import com.example.weather.exception.WeatherApiException;
+import com.example.weather.type.ErrorCode;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.http.Outcome;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * openweathermap 호출용 http 클라이언트.
+ * 하나의 HttpClient 를 재사용하므로 커넥션이 풀링되고, 모든 요청에 타임아웃이 걸립니다.
+ * 요청마다 걸린 시간을 http.client.requests 타이머에 uri(path), status 별로 기록합니다.
+ * <p>
+ * 타임아웃, 연결 실패, 5xx, 429 는 서킷 브레이커에 실패로 알립니다. 서킷이 열려 있으면 네트워크를 기다리지 않고
+ * WEATHER_API_UNAVAILABLE 로 바로 실패합니다.
+ */
+@Component
+@Slf4j
+public class WeatherHttpClient {
+    private static final String CLIENT_NAME = "openweathermap";
+
+    private final HttpClient httpClient;
+    private final Duration requestTimeout;
+    private final MeterRegistry meterRegistry;
+    private final CircuitBreaker circuitBreaker;
+
+    public WeatherHttpClient(
+            @Value("${openweathermap.http.connect-timeout:2s}") Duration connectTimeout,
+            @Value("${openweathermap.http.request-timeout:5s}") Duration requestTimeout,
+            @Value("${weather.threads.virtual.enabled:false}") boolean virtualThreads,
+            MeterRegistry meterRegistry,
+            CircuitBreaker circuitBreaker) {
+        HttpClient.Builder builder = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(connectTimeout)
+                .followRedirects(HttpClient.Redirect.NORMAL);
+        if (virtualThreads) {
+            builder.executor(Executors.newVirtualThreadPerTaskExecutor());
+        }
+        this.httpClient = builder.build();
+        this.requestTimeout = requestTimeout;
+        this.meterRegistry = meterRegistry;
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    public CompletableFuture<String> getAsync(String url) {
+        // 서킷에 묻기 전에 요청을 만든다. 잘못된 url 이 HALF_OPEN 의 시험 호출 자리를 잡은 채 끝나지 않도록.
+        HttpRequest request;
+        try {
+            request = HttpRequest.newBuilder(URI.create(url))
+                    .timeout(requestTimeout)
+                    .header("Accept", "application/json")
+                    .GET()
+                    .build();
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(toApiException(e));
+        }
+
+        long permit = circuitBreaker.tryAcquire();
+        if (permit == CircuitBreaker.REJECTED) {
+            return CompletableFuture.failedFuture(new WeatherApiException(ErrorCode.WEATHER_API_UNAVAILABLE,
+                    WeatherApiException.NO_RESPONSE, ErrorCode.WEATHER_API_UNAVAILABLE.getDescription()));
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        CompletableFuture<HttpResponse<String>> sent;
+        try {
+            sent = httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+        } catch (RuntimeException e) {
+            // tryAcquire 가 허용했으므로 결과를 알려야 한다.
+            circuitBreaker.onFailure(permit);
+            return CompletableFuture.failedFuture(toApiException(e));
+        }
+        return sent
+                // request timeout 은 헤더 수신까지만 적용되므로 body 까지 포함한 전체 시간도 제한한다.
+                .orTimeout(requestTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                .handle((response, throwable) -> {
+                    if (throwable != null) {
+                        WeatherApiException exception = toApiException(throwable);
+                        circuitBreaker.onFailure(permit);
+                        record(sample, request, exception.getErrorCode() == ErrorCode.WEATHER_API_TIMEOUT
+                                ? "TIMEOUT" : "IO_ERROR", Outcome.UNKNOWN);
+                        throw exception;
+                    }
+                    record(sample, request, String.valueOf(response.statusCode()),
+                            Outcome.forStatus(response.statusCode()));
+                    // 4xx(429 제외)는 요청의 문제이지 api 장애가 아니다.
+                    if (response.statusCode() >= 500 || response.statusCode() == 429) {
+                        circuitBreaker.onFailure(permit);
+                    } else {
+                        circuitBreaker.onSuccess(permit);
+                    }
+                    if (response.statusCode() != 200) {
+                        log.atWarn()
+                                .addKeyValue("status", response.statusCode())
+                                .addKeyValue("uri", request.uri().getPath())
+                                .log("weather api responded with an error");
+                        throw new WeatherApiException(ErrorCode.WEATHER_API_FAILED, response.statusCode(),
+                                "weather api responded with status " + response.statusCode());
+                    }
+                    return response.body();
+                });
+    }
+
+    public String get(String url) {
+        try {
+            return getAsync(url).join();
+        } catch (CompletionException e) {
+            throw toApiException(e);
+        }
+    }
+
+    // uri 태그는 query 를 뺀 path 만 쓴다. (도시, 좌표, api key 가 태그로 퍼지지 않도록)
+    private void record(Timer.Sample sample, HttpRequest request, String status, Outcome outcome) {
+        sample.stop(Timer.builder("http.client.requests")
+                .tag("client.name", CLIENT_NAME)
+                .tag("method", request.method())
+                .tag("uri", request.uri().getPath())
+                .tag("status", status)
+                .tag("outcome", outcome.name())
+                .register(meterRegistry));
+    }
+
+    private static WeatherApiException toApiException(Throwable throwable) {
+        Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null
+                ? throwable.getCause() : throwable;
+
+        if (cause instanceof WeatherApiException apiException) {
+            return apiException;
+        }
+        if (cause instanceof HttpTimeoutException || cause instanceof TimeoutException) {
+            return new WeatherApiException(ErrorCode.WEATHER_API_TIMEOUT, WeatherApiException.NO_RESPONSE,
+                    ErrorCode.WEATHER_API_TIMEOUT.getDescription());
+        }
+        return new WeatherApiException(ErrorCode.WEATHER_API_FAILED, WeatherApiException.NO_RESPONSE,
+                String.valueOf(cause.getMessage()));
+    }
+}
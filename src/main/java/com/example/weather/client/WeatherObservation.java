@@ -0,0 +1,7 @@
+package com.example.weather.client;
+
+/**
+ * 날씨 api 응답에서 필요한 값(main.temp, weather[0].main, weather[0].icon)만 담습니다.
+ */
+public record WeatherObservation(double temperature, String weather, String icon) {
+}
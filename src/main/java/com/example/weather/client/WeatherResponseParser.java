@@ -0,0 +1,171 @@
+package com.example.weather.client;
+
+import com.example.weather.domain.GeoCoordinate;
+import com.example.weather.exception.WeatherException;
+import com.example.weather.type.ErrorCode;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+
+/**
+ * openweathermap 응답 스트리밍 파서.
+ * 트리를 만들지 않고 필요한 필드만 읽으며, 나머지 필드는 건너뜁니다.
+ */
+public final class WeatherResponseParser {
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private WeatherResponseParser() {
+    }
+
+    // [{"name":"Seoul","lat":37.56,"lon":126.97,...}]
+    public static GeoCoordinate parseCoordinate(String json) {
+        try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY || parser.nextToken() != JsonToken.START_OBJECT) {
+                throw invalidResponse();
+            }
+
+            double lat = Double.NaN;
+            double lon = Double.NaN;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                switch (field) {
+                    case "lat" -> lat = parser.getDoubleValue();
+                    case "lon" -> lon = parser.getDoubleValue();
+                    default -> parser.skipChildren();
+                }
+                if (!Double.isNaN(lat) && !Double.isNaN(lon)) {
+                    return GeoCoordinate.builder().lat(lat).lon(lon).build();
+                }
+            }
+        } catch (IOException e) {
+            throw invalidResponse();
+        }
+        throw invalidResponse();
+    }
+
+    // {"weather":[{"main":"Clear","icon":"01d",...}],"main":{"temp":288.55,...},...}
+    public static WeatherObservation parseWeather(String json) {
+        try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw invalidResponse();
+            }
+
+            double temperature = Double.NaN;
+            Condition condition = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (field.equals("main") && value == JsonToken.START_OBJECT) {
+                    temperature = readTemperature(parser);
+                } else if (field.equals("weather") && value == JsonToken.START_ARRAY) {
+                    condition = readFirstCondition(parser);
+                } else {
+                    parser.skipChildren();
+                }
+
+                if (!Double.isNaN(temperature) && condition != null) {
+                    return new WeatherObservation(temperature, condition.weather(), condition.icon());
+                }
+            }
+        } catch (IOException e) {
+            throw invalidResponse();
+        }
+        throw invalidResponse();
+    }
+
+    // one call api 의 timemachine 응답. data 의 첫번째 원소만 읽는다.
+    // {"lat":37.56,"lon":126.97,"timezone":"Asia/Seoul","data":[{"dt":1698202800,"temp":288.55,"weather":[{"main":"Clear","icon":"01d",...}],...}]}
+    public static WeatherObservation parseHistoricalWeather(String json) {
+        try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw invalidResponse();
+            }
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (!field.equals("data") || value != JsonToken.START_ARRAY) {
+                    parser.skipChildren();
+                    continue;
+                }
+                if (parser.nextToken() != JsonToken.START_OBJECT) {
+                    throw invalidResponse();
+                }
+
+                double temperature = Double.NaN;
+                Condition condition = null;
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String dataField = parser.currentName();
+                    JsonToken dataValue = parser.nextToken();
+                    if (dataField.equals("temp") && dataValue.isNumeric()) {
+                        temperature = parser.getDoubleValue();
+                    } else if (dataField.equals("weather") && dataValue == JsonToken.START_ARRAY) {
+                        condition = readFirstCondition(parser);
+                    } else {
+                        parser.skipChildren();
+                    }
+
+                    if (!Double.isNaN(temperature) && condition != null) {
+                        return new WeatherObservation(temperature, condition.weather(), condition.icon());
+                    }
+                }
+                throw invalidResponse();
+            }
+        } catch (IOException e) {
+            throw invalidResponse();
+        }
+        throw invalidResponse();
+    }
+
+    // "weather" 배열의 첫번째 원소에서 main, icon 을 읽고, 배열의 끝까지 건너뛴다.
+    private static Condition readFirstCondition(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw invalidResponse();
+        }
+
+        String weather = null;
+        String icon = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "main" -> weather = parser.getValueAsString();
+                case "icon" -> icon = parser.getValueAsString();
+                default -> parser.skipChildren();
+            }
+        }
+        // 두번째 이후의 weather 원소는 쓰지 않는다.
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            parser.skipChildren();
+        }
+
+        if (weather == null || icon == null) {
+            throw invalidResponse();
+        }
+        return new Condition(weather, icon);
+    }
+
+    private static double readTemperature(JsonParser parser) throws IOException {
+        double temperature = Double.NaN;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            if (field.equals("temp")) {
+                temperature = parser.getDoubleValue();
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return temperature;
+    }
+
+    private record Condition(String weather, String icon) {
+    }
+
+    private static WeatherException invalidResponse() {
+        return new WeatherException(ErrorCode.INVALID_WEATHER_RESPONSE);
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.weather.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * weather.datasource.replica-urls 가 있으면 readOnly 트랜잭션을 복제본으로 보냅니다. (ReplicaRoutingDataSource)
+ * primary 는 spring.datasource.* 로, 복제본은 같은 계정과 드라이버로 만들고 풀 크기만 따로 정합니다.
+ * Flyway 와 모든 쓰기는 primary 로 갑니다.
+ */
+@Configuration
+@ConditionalOnProperty(name = "weather.datasource.replica-urls")
+public class DataSourceRoutingConfig {
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            HikariDataSource primaryDataSource,
+            DataSourceProperties properties,
+            @Value("${weather.datasource.replica-urls}") List<String> replicaUrls,
+            @Value("${weather.datasource.replica-pool-size:10}") int replicaPoolSize,
+            @Value("${weather.datasource.replica-selection:round-robin}") String replicaSelection) {
+        List<DataSource> replicas = new ArrayList<>();
+        for (String url : replicaUrls) {
+            HikariDataSource replica = properties.initializeDataSourceBuilder()
+                    .type(HikariDataSource.class)
+                    .url(url.trim())
+                    .build();
+            replica.setPoolName("replica-" + replicas.size());
+            replica.setMaximumPoolSize(replicaPoolSize);
+            replica.setConnectionTimeout(primaryDataSource.getConnectionTimeout());
+            replica.setReadOnly(true);
+            replicas.add(replica);
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas,
+                ReplicaRoutingDataSource.Selection.of(replicaSelection));
+    }
+
+    // JPA, JdbcTemplate, Flyway 가 쓰는 DataSource. 트랜잭션의 readOnly 가 정해진 뒤 첫 쿼리에서 커넥션을 고른다.
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(
+            @Value("${weather.datasource.read-your-writes-window:0s}") Duration window) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration = new FilterRegistrationBean<>(new ReadYourWritesFilter(window));
+        registration.setEnabled(!window.isZero());
+        return registration;
+    }
+}
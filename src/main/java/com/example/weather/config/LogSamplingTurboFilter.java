@@ -0,0 +1,49 @@
+package com.example.weather.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import lombok.Setter;
+import org.slf4j.Marker;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * loggerName(또는 그 하위) 로거의 로그를 every 건에 한 건만 남기는 logback 터보 필터.
+ * 로그 이벤트를 만들기 전에 요청 스레드에서 실행되므로, 걸러진 로그는 포맷팅도 큐잉도 하지 않습니다.
+ * WARN 이상은 거르지 않습니다.
+ */
+@Setter
+public class LogSamplingTurboFilter extends TurboFilter {
+    private String loggerName;
+    private int every = 100;
+
+    private final AtomicLong counter = new AtomicLong();
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (!matches(logger.getName()) || level.isGreaterOrEqual(Level.WARN)) {
+            return FilterReply.NEUTRAL;
+        }
+        // isDebugEnabled() 같은 레벨 확인은 format 없이 불린다. 이때는 세지 않고 로그 호출에서만 센다.
+        if (format == null) {
+            return FilterReply.NEUTRAL;
+        }
+        return counter.getAndIncrement() % every == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    private boolean matches(String name) {
+        return name.startsWith(loggerName)
+                && (name.length() == loggerName.length() || name.charAt(loggerName.length()) == '.');
+    }
+
+    @Override
+    public void start() {
+        if (loggerName == null || every < 1) {
+            addError("loggerName and a positive every are required for " + getName());
+            return;
+        }
+        super.start();
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.weather.config;
+
+import com.example.weather.client.CircuitBreaker;
+import com.example.weather.dto.CacheStats;
+import com.example.weather.service.DateWeatherCache;
+import com.example.weather.service.DiaryCache;
+import com.example.weather.service.DiaryWriteBehindService;
+import com.example.weather.service.GeoCoordinateCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.function.Function;
+
+/**
+ * 메모리 캐시의 hit/miss 와 크기를 micrometer 의 캐시 지표 이름(cache.gets, cache.size)으로, hit 비율을 cache.hit.ratio 로 내보냅니다.
+ * 값은 scrape 할 때 stats() 에서 읽으므로 요청 처리 경로에는 비용이 없습니다.
+ */
+@Configuration
+public class MetricsConfig {
+    @Bean
+    MeterBinder cacheMetrics(GeoCoordinateCache geoCoordinateCache, DateWeatherCache dateWeatherCache,
+                             DiaryCache diaryCache) {
+        return registry -> {
+            bindCache(registry, "geo_coordinate", geoCoordinateCache, GeoCoordinateCache::stats);
+            bindCache(registry, "date_weather", dateWeatherCache, DateWeatherCache::stats);
+            bindCache(registry, "diary", diaryCache, DiaryCache::stats);
+        };
+    }
+
+    // 1 이면 날씨 api 서킷이 열려 있어 stale 날씨로 다이어리를 만들고 있다.
+    @Bean
+    MeterBinder circuitBreakerMetrics(CircuitBreaker circuitBreaker) {
+        return registry -> Gauge.builder("weather.api.circuit.open", circuitBreaker,
+                        c -> c.getState() == CircuitBreaker.State.OPEN ? 1 : 0)
+                .description("openweathermap 서킷 브레이커가 열려 있는지")
+                .register(registry);
+    }
+
+    // write-behind 로 받았지만 아직 DB 에 반영되지 않은 diary 수. queue-capacity 에 가까우면 503 을 돌려주기 시작한다.
+    @Bean
+    MeterBinder writeBehindMetrics(DiaryWriteBehindService diaryWriteBehindService) {
+        return registry -> Gauge.builder("weather.diary.write_behind.pending", diaryWriteBehindService,
+                        DiaryWriteBehindService::getPendingCount)
+                .description("DB 에 반영을 기다리는 write-behind 다이어리 수")
+                .register(registry);
+    }
+
+    // micrometer 는 상태 객체를 약한 참조로 들고 있으므로, 람다가 아닌 캐시 빈 자체를 넘긴다.
+    private static <T> void bindCache(MeterRegistry registry, String name, T cache, Function<T, CacheStats> stats) {
+        FunctionCounter.builder("cache.gets", cache, c -> stats.apply(c).getHitCount())
+                .tags("cache", name, "result", "hit")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", cache, c -> stats.apply(c).getMissCount())
+                .tags("cache", name, "result", "miss")
+                .register(registry);
+        Gauge.builder("cache.size", cache, c -> stats.apply(c).getSize())
+                .tag("cache", name)
+                .register(registry);
+        Gauge.builder("cache.hit.ratio", cache, c -> stats.apply(c).getHitRatio())
+                .tag("cache", name)
+                .register(registry);
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.weather.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * 쓰기 요청(GET/HEAD/OPTIONS 가 아닌 요청)에 응답할 때 window 만큼 유지되는 쿠키를 남기고,
+ * 그 쿠키가 살아 있는 동안 같은 클라이언트의 요청은 readOnly 트랜잭션도 primary 에서 읽습니다.
+ * 복제본이 따라오기 전에 방금 쓴 다이어리를 다시 읽어도 보이도록. 쿠키에는 만료 시각(epoch ms)을 담으므로 노드가 달라도 같이 동작합니다.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+    static final String COOKIE_NAME = "weather-read-primary-until";
+
+    private final Duration window;
+
+    public ReadYourWritesFilter(Duration window) {
+        this.window = window;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long now = System.currentTimeMillis();
+        if (isWrite(request)) {
+            // 응답 본문을 쓰기 전에 헤더를 붙여야 한다.
+            Cookie cookie = new Cookie(COOKIE_NAME, String.valueOf(now + window.toMillis()));
+            cookie.setMaxAge((int) Math.max(window.toSeconds(), 1));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            response.addCookie(cookie);
+        }
+
+        boolean previous = ReplicaRoutingDataSource.forcePrimary(readsPrimary(request, now));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReplicaRoutingDataSource.forcePrimary(previous);
+        }
+    }
+
+    private static boolean isWrite(HttpServletRequest request) {
+        String method = request.getMethod();
+        return !("GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method));
+    }
+
+    private static boolean readsPrimary(HttpServletRequest request, long now) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return false;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue()) > now;
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+}
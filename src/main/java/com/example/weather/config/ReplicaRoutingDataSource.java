@@ -0,0 +1,127 @@
+package com.example.weather.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * readOnly 트랜잭션은 복제본(replica) 중 하나로, 나머지(쓰기 트랜잭션, 트랜잭션 밖 쿼리)는 primary 로 보냅니다.
+ * 트랜잭션이 readOnly 인지는 커넥션을 실제로 꺼낼 때 알 수 있으므로 LazyConnectionDataSourceProxy 로 감싸서 씁니다.
+ * <p>
+ * 복제본은 primary 보다 늦을 수 있으므로, 방금 커밋된 diary 를 봐야 하는 읽기(캐시/색인 채우기, read-your-writes 창 안의 요청)는
+ * onPrimary 로 감싸 primary 에서 읽습니다.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+    public enum Selection {
+        // 차례대로
+        ROUND_ROBIN,
+        // 사용 중인 커넥션이 가장 적은 복제본 (hikari 풀만 셀 수 있다)
+        LEAST_CONNECTIONS;
+
+        public static Selection of(String value) {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        }
+    }
+
+    private static final String PRIMARY = "primary";
+    private static final ThreadLocal<Boolean> PRIMARY_FORCED = ThreadLocal.withInitial(() -> false);
+
+    private final List<DataSource> replicas;
+    private final Selection selection;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, Selection selection) {
+        this.replicas = List.copyOf(replicas);
+        this.selection = selection;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < this.replicas.size(); i++) {
+            targets.put(i, this.replicas.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    /**
+     * read 를 readOnly 트랜잭션 안에서도 primary 에서 읽습니다. 라우팅을 쓰지 않으면 그냥 실행합니다.
+     */
+    public static <T> T onPrimary(Supplier<T> read) {
+        boolean previous = forcePrimary(true);
+        try {
+            return read.get();
+        } finally {
+            forcePrimary(previous);
+        }
+    }
+
+    // 이전 값을 돌려준다. 끝나면 그 값으로 되돌려야 한다.
+    static boolean forcePrimary(boolean forced) {
+        boolean previous = PRIMARY_FORCED.get();
+        if (forced) {
+            PRIMARY_FORCED.set(true);
+        } else {
+            PRIMARY_FORCED.remove();
+        }
+        return previous;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (replicas.isEmpty() || PRIMARY_FORCED.get()
+                || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        return selectReplica();
+    }
+
+    private int selectReplica() {
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        if (selection == Selection.ROUND_ROBIN) {
+            return start;
+        }
+
+        // 같으면 차례대로 돌아가며 고른다.
+        int selected = start;
+        int fewest = Integer.MAX_VALUE;
+        for (int i = 0; i < replicas.size(); i++) {
+            int index = (start + i) % replicas.size();
+            int active = activeConnections(replicas.get(index));
+            if (active < fewest) {
+                selected = index;
+                fewest = active;
+            }
+        }
+        return selected;
+    }
+
+    // 풀이 아직 시작되지 않았으면 0
+    private static int activeConnections(DataSource replica) {
+        if (replica instanceof HikariDataSource hikari) {
+            HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+            return pool == null ? 0 : pool.getActiveConnections();
+        }
+        return 0;
+    }
+
+    // 복제본 풀은 빈이 아니므로 여기서 닫는다. (primary 는 빈으로 닫힌다)
+    @Override
+    public void destroy() {
+        for (DataSource replica : replicas) {
+            if (replica instanceof HikariDataSource hikari) {
+                hikari.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.weather.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.util.concurrent.Executors;
+
+/**
+ * weather.threads.virtual.enabled=true 일 때 톰캣 요청 처리와 @Scheduled 작업을 가상 스레드에서 실행합니다.
+ * (외부 날씨 api 호출은 WeatherHttpClient 가 같은 설정을 보고 가상 스레드 executor 를 씁니다.)
+ * 동시 요청 수가 스레드 풀로 제한되지 않으므로, DB 접근은 hikari 풀 크기로 제한됩니다.
+ * <p>
+ * JDBC 드라이버가 I/O 중에 synchronized 를 잡으면 가상 스레드가 carrier 에 고정되어 DB 요청이 CPU 수만큼씩만 진행됩니다.
+ * 그래서 mysql-connector-j 는 ReentrantLock 을 쓰는 9.x 로 고정합니다. (build.gradle 의 mysql.version)
+ * 드라이버를 바꾸면 -Djdk.tracePinnedThreads=short 로 고정되는 곳이 없는지 확인합니다.
+ */
+@Configuration
+@ConditionalOnProperty(name = "weather.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler -> protocolHandler.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    @Bean
+    public TaskScheduler taskScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setThreadFactory(Thread.ofVirtual().name("scheduling-", 0).factory());
+        return scheduler;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.weather.controller;
+
+import com.example.weather.dto.CacheStats;
+import com.example.weather.service.DateWeatherCache;
+import com.example.weather.service.DiaryCache;
+import com.example.weather.service.GeoCoordinateCache;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@Tag(name = "CacheController", description = "캐시 상태를 조회하는 엔드포인트들을 제공합니다.")
+public class CacheController {
+    private final GeoCoordinateCache geoCoordinateCache;
+    private final DateWeatherCache dateWeatherCache;
+    private final DiaryCache diaryCache;
+
+    @Operation(summary = "캐시 통계 조회", description = "캐시별 hit/miss 횟수, hit 비율과 크기를 전송합니다.")
+    @GetMapping("/cache/stats")
+    List<CacheStats> readCacheStats() {
+        return List.of(geoCoordinateCache.stats(), dateWeatherCache.stats(), diaryCache.stats());
+    }
+}
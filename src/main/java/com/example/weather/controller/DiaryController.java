@@ -1,14 +1,31 @@
 package com.example.weather.controller;
 
 import com.example.weather.domain.Diary;
+import com.example.weather.dto.BulkCreateDiaryResponse;
+import com.example.weather.dto.CreateDiaryItem;
+import com.example.weather.dto.DeleteDiaryResponse;
+import com.example.weather.dto.DiaryPage;
+import com.example.weather.dto.DiaryReceipt;
+import com.example.weather.dto.DiaryVersion;
+import com.example.weather.dto.UpdateDiaryResponse;
 import com.example.weather.service.DiaryService;
+import com.example.weather.service.DiaryWriteBehindService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -16,43 +33,105 @@ import java.util.List;
 @RequiredArgsConstructor
 @Tag(name = "DiaryController", description = "Diary에 관련된 다양한 작업을 수행하는 엔드포인트들을 제공합니다.")
 public class DiaryController {
+    private static final String NDJSON = "application/x-ndjson";
+
     private final DiaryService diaryService;
+    private final DiaryWriteBehindService diaryWriteBehindService;
+    private final ObjectMapper objectMapper;
 
-    @Operation(summary =  "다이어리 생성", description = "날짜와 텍스트를 받아 다이어리를 생성합니다.")
+    @Operation(summary =  "다이어리 생성", description = "날짜, 도시와 텍스트를 받아 다이어리를 생성합니다.")
     @PostMapping("/create/diary")
     Diary createDiary(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) @Parameter(description = "날짜 형식 : yyyy-MM-dd") LocalDate date,
+            @RequestParam(required = false) @Parameter(description = "날씨를 가져올 도시 (없으면 기본 도시)", example = "seoul") String city,
+            @RequestBody String text) {
+        return diaryService.createDiary(date, city, text);
+    }
+
+    @Operation(summary =  "다이어리 생성 (write-behind)", description = "날씨를 붙인 다이어리를 로컬 로그에 남기고 바로 접수 번호를 전송합니다. DB 에는 잠시 뒤 모아서 반영됩니다. 대기열이 가득 차면 503 과 Retry-After 를 전송합니다.")
+    @PostMapping("/create/diary/write-behind")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    DiaryReceipt createDiaryWriteBehind(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) @Parameter(description = "날짜 형식 : yyyy-MM-dd") LocalDate date,
+            @RequestParam(required = false) @Parameter(description = "날씨를 가져올 도시 (없으면 기본 도시)", example = "seoul") String city,
             @RequestBody String text) {
-        return diaryService.createDiary(date, text);
+        return diaryWriteBehindService.accept(date, city, text);
+    }
+
+    @Operation(summary =  "다이어리 일괄 생성", description = "날짜와 텍스트 목록을 받아 다이어리를 한 번에 생성하고, 항목별 결과를 전송합니다.")
+    @PostMapping("/create/diaries")
+    BulkCreateDiaryResponse createDiaries(@RequestBody List<CreateDiaryItem> items) {
+        return diaryService.createDiaries(items);
     }
 
-    @Operation(summary =  "다이어리 조회", description = "하루치의 다이어리를 조회한 값을 전송합니다.")
+    // 변경 표시(diary_version)를 diary 보다 먼저 읽는다. 그 사이 쓰기가 있으면 새 데이터에 이전 ETag 가 붙을 뿐,
+    // 바뀐 데이터를 304 로 숨기지는 않는다.
+    @Operation(summary =  "다이어리 조회", description = "하루치의 다이어리를 조회한 값을 전송합니다. If-None-Match 의 ETag 가 그대로면 304 를 전송합니다.")
     @GetMapping("/read/diary")
     List<Diary> readDiary(
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) @Parameter(description = "날짜 형식 : yyyy-MM-dd") LocalDate date) {
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) @Parameter(description = "날짜 형식 : yyyy-MM-dd") LocalDate date,
+            WebRequest request) {
+        DiaryVersion version = diaryService.getDiaryVersion(date);
+        if (request.checkNotModified(version.etag(), version.lastModifiedMillis())) {
+            return null;
+        }
         return diaryService.readDiary(date);
     }
 
-    @Operation(summary =  "다이어리 기간 조회", description = "시작일과 종료일 사이의 다이어리를 조회한 값을 전송합니다.")
+    @Operation(summary =  "다이어리 기간 조회", description = "시작일과 종료일 사이의 다이어리를 조회한 값을 전송합니다. If-None-Match 의 ETag 가 그대로면 304 를 전송합니다.")
     @GetMapping("/read/diaries")
     List<Diary> readDiaries(
+            @RequestParam("start-date") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) @Parameter(description = "조회할 기간의 첫번째 날", example = "2023-10-22") LocalDate startDate,
+            @RequestParam("end-date") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) @Parameter(description = "조회할 기간의 마지막 날", example = "2023-10-31") LocalDate endDate,
+            WebRequest request) {
+        // 변경 표시와 diary 를 같은 DB 에서 읽어야 ETag 가 본문과 맞는다. (복제본이 늦어도)
+        return diaryService.readDiaries(startDate, endDate,
+                version -> request.checkNotModified(version.etag(), version.lastModifiedMillis())).diaries();
+    }
+
+    @Operation(summary =  "다이어리 기간 페이지 조회", description = "시작일과 종료일 사이의 다이어리를 (날짜, id) 순서로 한 페이지씩 전송합니다. 다음 페이지는 nextCursor 로 요청합니다.")
+    @GetMapping("/read/diaries/page")
+    DiaryPage readDiaryPage(
+            @RequestParam("start-date") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) @Parameter(description = "조회할 기간의 첫번째 날", example = "2023-10-22") LocalDate startDate,
+            @RequestParam("end-date") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) @Parameter(description = "조회할 기간의 마지막 날", example = "2023-10-31") LocalDate endDate,
+            @RequestParam(required = false) @Parameter(description = "이전 응답의 nextCursor") String cursor,
+            @RequestParam(defaultValue = "100") @Parameter(description = "페이지 크기 (최대 1000)") int size) {
+        return diaryService.readDiaryPage(startDate, endDate, cursor, size);
+    }
+
+    @Operation(summary =  "다이어리 기간 스트리밍 조회", description = "시작일과 종료일 사이의 다이어리를 한 줄에 하나씩(NDJSON) 스트리밍으로 전송합니다.")
+    @GetMapping(value = "/read/diaries/stream", produces = NDJSON)
+    ResponseEntity<StreamingResponseBody> streamDiaries(
             @RequestParam("start-date") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) @Parameter(description = "조회할 기간의 첫번째 날", example = "2023-10-22") LocalDate startDate,
             @RequestParam("end-date") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) @Parameter(description = "조회할 기간의 마지막 날", example = "2023-10-31") LocalDate endDate) {
-        return diaryService.readDiaries(startDate, endDate);
+        StreamingResponseBody body = out -> {
+            try (SequenceWriter writer = objectMapper.writer().withRootValueSeparator("\n").writeValues(out)) {
+                diaryService.streamDiaries(startDate, endDate, diary -> {
+                    try {
+                        writer.write(diary);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .body(body);
     }
 
-    @Operation(summary =  "다이어리 수정", description = "해당 날짜의 다이어리를 수정합니다.")
+    @Operation(summary =  "다이어리 수정", description = "해당 날짜의 첫번째 다이어리를 수정하고, 수정된 건수를 전송합니다.")
     @PutMapping("/update/diary")
-    Diary updateDiary(
+    UpdateDiaryResponse updateDiary(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) @Parameter(description = "날짜 형식 : yyyy-MM-dd") LocalDate date,
             @RequestBody String text) {
         return diaryService.updateDiary(date, text);
     }
 
-    @Operation(summary =  "다이어리 삭제", description = "해당 날짜의 다이어리를 삭제합니다.")
+    @Operation(summary =  "다이어리 삭제", description = "해당 날짜의 다이어리를 삭제하고, 삭제된 건수를 전송합니다.")
     @DeleteMapping("/delete/diary")
-    void deleteDiary(
+    DeleteDiaryResponse deleteDiary(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) @Parameter(description = "날짜 형식 : yyyy-MM-dd") LocalDate date) {
-        diaryService.deleteDiary(date);
+        return diaryService.deleteDiary(date);
     }
 }
@@ -0,0 +1,32 @@
+package com.example.weather.controller;
+
+import com.example.weather.dto.DiarySearchPage;
+import com.example.weather.service.DiarySearchService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+
+@RestController
+@RequiredArgsConstructor
+@Tag(name = "DiarySearchController", description = "다이어리 내용을 검색하는 엔드포인트들을 제공합니다.")
+public class DiarySearchController {
+    private final DiarySearchService diarySearchService;
+
+    @Operation(summary = "다이어리 검색", description = "검색어의 단어가 든 다이어리를 관련도 순서로 전송합니다. 한글은 두 글자 단위로 찾습니다. 앞에서 10000 건까지 볼 수 있습니다.")
+    @GetMapping("/read/diary/search")
+    DiarySearchPage searchDiaries(
+            @RequestParam @Parameter(description = "검색어", example = "맑은 날씨") String query,
+            @RequestParam(value = "start-date", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) @Parameter(description = "검색할 기간의 첫번째 날 (없으면 처음부터)", example = "2023-01-01") LocalDate startDate,
+            @RequestParam(value = "end-date", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) @Parameter(description = "검색할 기간의 마지막 날 (없으면 끝까지)", example = "2023-12-31") LocalDate endDate,
+            @RequestParam(defaultValue = "0") @Parameter(description = "0 부터 시작하는 페이지 번호") int page,
+            @RequestParam(defaultValue = "20") @Parameter(description = "페이지 크기 (최대 100)") int size) {
+        return diarySearchService.search(query, startDate, endDate, page, size);
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.weather.controller;
+
+import com.example.weather.dto.WeatherStatistics;
+import com.example.weather.service.DiaryStatisticsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+
+@RestController
+@RequiredArgsConstructor
+@Tag(name = "DiaryStatisticsController", description = "다이어리의 기간별 날씨 통계를 조회하는 엔드포인트들을 제공합니다.")
+public class DiaryStatisticsController {
+    private final DiaryStatisticsService diaryStatisticsService;
+
+    @Operation(summary = "날씨 통계 조회", description = "시작일과 종료일 사이 다이어리의 최저/최고/평균 기온과 날씨별 다이어리 수를 전송합니다. 다이어리 변경은 잠시 뒤(weather.statistics.rollup-interval) 반영됩니다.")
+    @GetMapping("/read/statistics")
+    WeatherStatistics readStatistics(
+            @RequestParam("start-date") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) @Parameter(description = "조회할 기간의 첫번째 날", example = "2013-01-01") LocalDate startDate,
+            @RequestParam("end-date") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) @Parameter(description = "조회할 기간의 마지막 날", example = "2023-12-31") LocalDate endDate) {
+        return diaryStatisticsService.getStatistics(startDate, endDate);
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.weather.controller;
+
+import com.example.weather.dto.BackfillProgress;
+import com.example.weather.service.WeatherBackfillService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+@RestController
+@RequiredArgsConstructor
+@Tag(name = "WeatherBackfillController", description = "비어 있는 날짜의 날씨를 채우는 관리용 엔드포인트들을 제공합니다.")
+public class WeatherBackfillController {
+    private final WeatherBackfillService weatherBackfillService;
+
+    @Operation(summary = "날씨 채우기 시작", description = "기간 안에서 날씨가 저장되지 않은 날짜를 찾아 그 날의 날씨를 가져오는 작업을 시작하고, 작업 정보를 전송합니다.")
+    @PostMapping("/admin/backfill/weather")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    BackfillProgress startBackfill(
+            @RequestParam(required = false) @Parameter(description = "도시 (없으면 기본 도시)", example = "seoul") String city,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) @Parameter(description = "시작 날짜 형식 : yyyy-MM-dd") LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) @Parameter(description = "종료 날짜 형식 : yyyy-MM-dd (어제까지)") LocalDate endDate) {
+        return weatherBackfillService.start(city, startDate, endDate);
+    }
+
+    @Operation(summary = "날씨 채우기 진행 상황 조회", description = "작업의 상태와 처리한 날짜 수를 전송합니다.")
+    @GetMapping("/admin/backfill/weather/{id}")
+    BackfillProgress readBackfill(@PathVariable Long id) {
+        return weatherBackfillService.getProgress(id);
+    }
+
+    @Operation(summary = "날씨 채우기 재개", description = "멈췄거나 일부 실패한 작업을 남은 날짜부터 다시 실행합니다.")
+    @PostMapping("/admin/backfill/weather/{id}/resume")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    BackfillProgress resumeBackfill(@PathVariable Long id) {
+        return weatherBackfillService.resume(id);
+    }
+}
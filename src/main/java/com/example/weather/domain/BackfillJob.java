@@ -0,0 +1,32 @@
+package com.example.weather.domain;
+
+import com.example.weather.type.BackfillStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@Entity(name = "weather_backfill_job")
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+public class BackfillJob {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private String city;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    @Enumerated(EnumType.STRING)
+    private BackfillStatus status;
+    // 이번 실행을 시작할 때 비어 있던 날짜 수
+    private int totalCount;
+    private int completedCount;
+    private int failedCount;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
@@ -2,6 +2,8 @@ package com.example.weather.domain;
 
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Transient;
 import lombok.*;
 
 import java.time.LocalDate;
@@ -9,13 +11,20 @@ import java.time.LocalDate;
 @Getter
 @Setter
 @Entity(name = "date_weather")
+@IdClass(DateWeatherId.class)
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class DateWeather {
+    @Id
+    private String city;
     @Id
     private LocalDate date;
     private String weather;
     private String icon;
     private double temperature;
+
+    // 그 날의 날씨가 아니라 최근 날씨로 대신한 값이면 true. 저장하지 않는다.
+    @Transient
+    private boolean stale;
 }
@@ -0,0 +1,16 @@
+package com.example.weather.domain;
+
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+@ToString
+public class DateWeatherId implements Serializable {
+    private String city;
+    private LocalDate date;
+}
@@ -24,4 +24,8 @@ public class Diary {
     private double temperature;
     private String text;
     private LocalDate date;
+    // 날씨를 가져온 도시
+    private String city;
+    // 날씨 api 장애 중에 그 도시의 최근 날씨로 대신 채웠으면 true. api 가 살아나면 고쳐진다.
+    private boolean weatherStale;
 }
@@ -0,0 +1,19 @@
+package com.example.weather.domain;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.*;
+
+@Getter
+@Setter
+@Entity(name = "geo_coordinate")
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+public class GeoCoordinate {
+    @Id
+    private String city;
+    private double lat;
+    private double lon;
+}
@@ -0,0 +1,43 @@
+package com.example.weather.dto;
+
+import com.example.weather.domain.BackfillJob;
+import com.example.weather.type.BackfillStatus;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BackfillProgress {
+    private Long id;
+    private String city;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private BackfillStatus status;
+    private int totalCount;
+    private int completedCount;
+    private int failedCount;
+    // 이번 실행에서 처리한(성공 + 실패) 비율, 0 ~ 100
+    private double percent;
+    private LocalDateTime updatedAt;
+
+    public static BackfillProgress from(BackfillJob job) {
+        int processed = job.getCompletedCount() + job.getFailedCount();
+        return BackfillProgress.builder()
+                .id(job.getId())
+                .city(job.getCity())
+                .startDate(job.getStartDate())
+                .endDate(job.getEndDate())
+                .status(job.getStatus())
+                .totalCount(job.getTotalCount())
+                .completedCount(job.getCompletedCount())
+                .failedCount(job.getFailedCount())
+                .percent(job.getTotalCount() == 0 ? 100.0 : processed * 100.0 / job.getTotalCount())
+                .updatedAt(job.getUpdatedAt())
+                .build();
+    }
+}
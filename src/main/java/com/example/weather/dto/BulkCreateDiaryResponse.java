@@ -0,0 +1,16 @@
+package com.example.weather.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BulkCreateDiaryResponse {
+    private int createdCount;
+    private int failedCount;
+    private List<CreateDiaryResult> results;
+}
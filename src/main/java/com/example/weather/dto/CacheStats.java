@@ -0,0 +1,21 @@
+package com.example.weather.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CacheStats {
+    private String name;
+    private long hitCount;
+    private long missCount;
+    private long size;
+
+    // 아직 조회가 없으면 0
+    public double getHitRatio() {
+        long requestCount = hitCount + missCount;
+        return requestCount == 0 ? 0 : (double) hitCount / requestCount;
+    }
+}
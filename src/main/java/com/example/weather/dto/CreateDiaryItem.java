@@ -0,0 +1,17 @@
+package com.example.weather.dto;
+
+import lombok.*;
+
+import java.time.LocalDate;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CreateDiaryItem {
+    private LocalDate date;
+    // 비어 있으면 기본 도시
+    private String city;
+    private String text;
+}
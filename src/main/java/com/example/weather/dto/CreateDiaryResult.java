@@ -0,0 +1,16 @@
+package com.example.weather.dto;
+
+import com.example.weather.type.ErrorCode;
+import lombok.*;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CreateDiaryResult {
+    private int index;
+    private boolean success;
+    private ErrorCode errorCode;
+    private String errorMessage;
+}
@@ -0,0 +1,15 @@
+package com.example.weather.dto;
+
+import lombok.*;
+
+import java.time.LocalDate;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class DeleteDiaryResponse {
+    private LocalDate date;
+    private int deletedCount;
+}
@@ -0,0 +1,29 @@
+package com.example.weather.dto;
+
+import com.example.weather.exception.WeatherException;
+import com.example.weather.type.ErrorCode;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+
+/**
+ * (date, id) 키셋 페이지네이션 커서. 클라이언트에는 base64 문자열로 전달됩니다.
+ */
+public record DiaryCursor(LocalDate date, int id) {
+    public String encode() {
+        String raw = date + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static DiaryCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            return new DiaryCursor(LocalDate.parse(raw.substring(0, separator)),
+                    Integer.parseInt(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new WeatherException(ErrorCode.INVALID_CURSOR);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.weather.dto;
+
+import com.example.weather.domain.Diary;
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class DiaryPage {
+    private List<Diary> diaries;
+    // 마지막 페이지면 null
+    private String nextCursor;
+}
@@ -0,0 +1,21 @@
+package com.example.weather.dto;
+
+import lombok.*;
+
+import java.time.LocalDate;
+
+// write-behind 로 받은 diary 의 접수 번호. diary 의 id 는 DB 에 반영된 뒤에 정해진다.
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class DiaryReceipt {
+    private String receiptId;
+    private LocalDate date;
+    private String city;
+    private boolean weatherStale;
+    // false 면 로그를 디스크에 남기지 못했다. DB 에는 반영되지만 그 전에 서버가 죽으면 잃을 수 있다. (다시 보내면 두 번 들어간다)
+    // fsync 를 끈 설정에서는 항상 false
+    private boolean durable;
+}
@@ -0,0 +1,15 @@
+package com.example.weather.dto;
+
+import com.example.weather.domain.Diary;
+import lombok.*;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class DiarySearchHit {
+    private Diary diary;
+    // BM25 점수. 같은 검색 안에서만 비교할 수 있다.
+    private double score;
+}
@@ -0,0 +1,20 @@
+package com.example.weather.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class DiarySearchPage {
+    private String query;
+    // 기간 안에서 검색어에 걸린 diary 수
+    private long totalCount;
+    private int page;
+    private int size;
+    // 순위 순서
+    private List<DiarySearchHit> hits;
+}
@@ -0,0 +1,21 @@
+package com.example.weather.dto;
+
+import java.time.Instant;
+
+/**
+ * 날짜(또는 기간)의 diary 변경 표시.
+ * version 은 diary 를 쓸 때마다 커지므로, 기간의 version 은 그 기간 날짜들의 version 합으로 충분합니다.
+ * 한 번도 쓰지 않은 날짜는 version 0, lastModified null 입니다.
+ */
+public record DiaryVersion(long version, Instant lastModified) {
+    public static final DiaryVersion NONE = new DiaryVersion(0, null);
+
+    public String etag() {
+        return "\"" + version + "\"";
+    }
+
+    // 없으면 -1 (Last-Modified 를 보내지 않는다)
+    public long lastModifiedMillis() {
+        return lastModified == null ? -1 : lastModified.toEpochMilli();
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.weather.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class PrefetchResult {
+    private int succeededCount;
+    private List<String> failedCities;
+    private long elapsedMillis;
+}
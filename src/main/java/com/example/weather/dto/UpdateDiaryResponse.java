@@ -0,0 +1,16 @@
+package com.example.weather.dto;
+
+import lombok.*;
+
+import java.time.LocalDate;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class UpdateDiaryResponse {
+    private LocalDate date;
+    private String text;
+    private int updatedCount;
+}
@@ -0,0 +1,12 @@
+package com.example.weather.dto;
+
+import com.example.weather.domain.Diary;
+
+import java.util.List;
+
+/**
+ * 같은 DB 에서 읽은 기간의 변경 표시와 다이어리.
+ * 변경 표시만 보고 바뀌지 않았다고 판단했으면 diaries 는 null 입니다.
+ */
+public record VersionedDiaries(DiaryVersion version, List<Diary> diaries) {
+}
@@ -0,0 +1,23 @@
+package com.example.weather.dto;
+
+import lombok.*;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+// 기간 안 diary 의 기온(min/max/평균)과 날씨별 diary 수. diary 가 없으면 기온은 null
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class WeatherStatistics {
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private long diaryCount;
+    private Double minTemperature;
+    private Double maxTemperature;
+    private Double averageTemperature;
+    // 많은 순서
+    private Map<String, Long> weatherCounts;
+}
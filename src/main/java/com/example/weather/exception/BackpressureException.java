@@ -0,0 +1,19 @@
+package com.example.weather.exception;
+
+import com.example.weather.type.ErrorCode;
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * 처리할 수 있는 양을 넘어 요청을 받지 않았습니다. retryAfter 뒤에 다시 시도하면 됩니다.
+ */
+@Getter
+public class BackpressureException extends WeatherException {
+    private final Duration retryAfter;
+
+    public BackpressureException(ErrorCode errorCode, Duration retryAfter) {
+        super(errorCode);
+        this.retryAfter = retryAfter;
+    }
+}
@@ -3,7 +3,9 @@ package com.example.weather.exception;
 import com.example.weather.dto.ErrorResponse;
 import com.example.weather.type.ErrorCode;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -21,11 +23,38 @@ public class GlobalExceptionHandler {
                 ErrorCode.INTERNAL_SERVER_ERROR.getDescription());
     }
 
+    @ExceptionHandler(WeatherApiException.class)
+    public ResponseEntity<ErrorResponse> handleWeatherApiException(WeatherApiException e) {
+        log.error("{} is occurred (status {})", e.getErrorCode(), e.getStatusCode());
+
+        HttpStatus status = switch (e.getErrorCode()) {
+            case WEATHER_API_TIMEOUT -> HttpStatus.GATEWAY_TIMEOUT;
+            case WEATHER_API_UNAVAILABLE -> HttpStatus.SERVICE_UNAVAILABLE;
+            default -> HttpStatus.BAD_GATEWAY;
+        };
+        return ResponseEntity.status(status)
+                .body(new ErrorResponse(e.getErrorCode(), e.getErrorMessage()));
+    }
+
+    // 잠시 뒤 다시 보내면 되므로 503 과 Retry-After(초)를 함께 보낸다.
+    @ExceptionHandler(BackpressureException.class)
+    public ResponseEntity<ErrorResponse> handleBackpressureException(BackpressureException e) {
+        log.warn("{} is occurred", e.getErrorCode());
+
+        long retryAfterSeconds = Math.max(1, (e.getRetryAfter().toMillis() + 999) / 1000);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(new ErrorResponse(e.getErrorCode(), e.getErrorMessage()));
+    }
+
+    // write-behind 는 접수한 뒤에는 실패를 알릴 수 없으므로, 넣을 수 없는 내용은 400 으로 분명히 거절한다.
     @ExceptionHandler(WeatherException.class)
-    public ErrorResponse handleWeatherException(WeatherException e) {
+    public ResponseEntity<ErrorResponse> handleWeatherException(WeatherException e) {
         log.error("{} is occurred", e.getErrorCode());
 
-        return new ErrorResponse(e.getErrorCode(), e.getErrorMessage());
+        HttpStatus status = e.getErrorCode() == ErrorCode.INVALID_DIARY_TEXT ? HttpStatus.BAD_REQUEST : HttpStatus.OK;
+        return ResponseEntity.status(status)
+                .body(new ErrorResponse(e.getErrorCode(), e.getErrorMessage()));
     }
 
 }
@@ -0,0 +1,19 @@
+package com.example.weather.exception;
+
+import com.example.weather.type.ErrorCode;
+import lombok.Getter;
+
+/**
+ * 외부 날씨 api 호출 실패. 응답을 받지 못한 경우 statusCode 는 -1 입니다.
+ */
+@Getter
+public class WeatherApiException extends WeatherException {
+    public static final int NO_RESPONSE = -1;
+
+    private final int statusCode;
+
+    public WeatherApiException(ErrorCode errorCode, int statusCode, String errorMessage) {
+        super(errorCode, errorMessage);
+        this.statusCode = statusCode;
+    }
+}
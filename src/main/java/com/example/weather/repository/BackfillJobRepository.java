@@ -0,0 +1,9 @@
+package com.example.weather.repository;
+
+import com.example.weather.domain.BackfillJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface BackfillJobRepository extends JpaRepository<BackfillJob, Long> {
+}
@@ -1,11 +1,22 @@
 package com.example.weather.repository;
 
 import com.example.weather.domain.DateWeather;
+import com.example.weather.domain.DateWeatherId;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
-public interface DateWeatherRepository extends JpaRepository<DateWeather, LocalDate> {
-    List<DateWeather> findAllByDate(LocalDate date);
+public interface DateWeatherRepository extends JpaRepository<DateWeather, DateWeatherId> {
+    // 기본키 (city, date) 범위만 읽는다. 빈 날짜를 찾는 데 쓴다.
+    @Query("select w.date from date_weather w where w.city = :city and w.date between :startDate and :endDate")
+    List<LocalDate> findDatesByCityAndDateBetween(@Param("city") String city,
+                                                  @Param("startDate") LocalDate startDate,
+                                                  @Param("endDate") LocalDate endDate);
+
+    // 날씨 api 를 쓸 수 없을 때 대신 쓸 그 도시의 가장 최근 날씨
+    Optional<DateWeather> findFirstByCityOrderByDateDesc(String city);
 }
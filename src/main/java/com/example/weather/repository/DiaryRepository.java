@@ -1,7 +1,12 @@
 package com.example.weather.repository;
 
+import com.example.weather.domain.DateWeatherId;
 import com.example.weather.domain.Diary;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
@@ -11,6 +16,37 @@ import java.util.List;
 public interface DiaryRepository extends JpaRepository<Diary, Integer> {
     List<Diary> findAllByDate(LocalDate date);
     List<Diary> findAllByDateBetween(LocalDate startDate, LocalDate endDate);
-    Diary getFirstByDate(LocalDate date);
-    void deleteAllByDate(LocalDate date);
+    // 엔티티를 읽지 않고 한 번의 delete 문으로 지운다.
+    @Modifying(clearAutomatically = true)
+    @Query("delete from Diary d where d.date = :date")
+    int deleteAllByDate(@Param("date") LocalDate date);
+
+    // 해당 날짜의 첫번째 diary 의 text 를 row 를 읽어오지 않고 바로 수정한다.
+    @Modifying(clearAutomatically = true)
+    @Query(value = "update diary set text = :text where date = :date order by id limit 1", nativeQuery = true)
+    int updateFirstTextByDate(@Param("date") LocalDate date, @Param("text") String text);
+
+    // (date, id) 키셋 페이지네이션. offset 없이 커서 다음 row 부터 읽는다.
+    @Query("select d from Diary d where d.date between :startDate and :endDate"
+            + " and (d.date > :cursorDate or (d.date = :cursorDate and d.id > :cursorId))"
+            + " order by d.date, d.id")
+    List<Diary> findPageAfter(@Param("startDate") LocalDate startDate,
+                              @Param("endDate") LocalDate endDate,
+                              @Param("cursorDate") LocalDate cursorDate,
+                              @Param("cursorId") int cursorId,
+                              Pageable pageable);
+
+    // 날씨 api 장애 중에 최근 날씨로 대신 채운 다이어리의 (city, date). (weather_stale, date) 인덱스를 탄다.
+    @Query("select distinct new com.example.weather.domain.DateWeatherId(d.city, d.date) from Diary d"
+            + " where d.weatherStale = true order by d.date")
+    List<DateWeatherId> findStaleWeatherKeys(Pageable pageable);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update Diary d set d.weather = :weather, d.icon = :icon, d.temperature = :temperature,"
+            + " d.weatherStale = false where d.weatherStale = true and d.city = :city and d.date = :date")
+    int refreshStaleWeather(@Param("city") String city,
+                            @Param("date") LocalDate date,
+                            @Param("weather") String weather,
+                            @Param("icon") String icon,
+                            @Param("temperature") double temperature);
 }
@@ -0,0 +1,180 @@
+package com.example.weather.repository;
+
+import com.example.weather.dto.WeatherStatistics;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.*;
+
+/**
+ * diary 날짜별 / 월별 집계(diary_stats_*) 읽기/쓰기.
+ * 기간 조회는 기간에 완전히 들어가는 달은 월별 집계에서, 나머지 앞뒤 날짜는 날짜별 집계에서 읽습니다.
+ */
+@Repository
+public class DiaryStatisticsRepository {
+    private record Temperatures(long diaryCount, double sum, Double min, Double max) {
+        private static final Temperatures EMPTY = new Temperatures(0, 0, null, null);
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DiaryStatisticsRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * 집계가 없거나 집계한 뒤 diary 가 바뀐 날짜와 그 날짜의 지금 version 을 날짜 순서로 limit 개까지 돌려줍니다.
+     */
+    public Map<LocalDate, Long> findStaleDays(int limit) {
+        Map<LocalDate, Long> versions = new LinkedHashMap<>();
+        jdbcTemplate.query("select v.date, v.version from diary_version v"
+                        + " left join diary_stats_daily s on s.date = v.date"
+                        + " where s.date is null or s.version <> v.version"
+                        + " order by v.date limit ?",
+                rs -> {
+                    versions.put(rs.getDate("date").toLocalDate(), rs.getLong("version"));
+                },
+                limit);
+        return versions;
+    }
+
+    /**
+     * 날짜들의 집계를 diary 에서 다시 만들고 version 을 남깁니다.
+     * version 을 diary 보다 먼저 읽었으므로, 그 사이 바뀐 날짜는 다음 번에 다시 집계됩니다.
+     */
+    public void rollupDays(Map<LocalDate, Long> versions) {
+        if (versions.isEmpty()) {
+            return;
+        }
+
+        List<Object> dates = versions.keySet().stream().<Object>map(Date::valueOf).toList();
+        String in = placeholders(dates.size());
+
+        Map<LocalDate, Temperatures> temperatures = new HashMap<>();
+        jdbcTemplate.query("select date, count(*) as diary_count, sum(temperature) as temperature_sum,"
+                        + " min(temperature) as temperature_min, max(temperature) as temperature_max"
+                        + " from diary where date in (" + in + ") group by date",
+                rs -> {
+                    temperatures.put(rs.getDate("date").toLocalDate(), new Temperatures(
+                            rs.getLong("diary_count"), rs.getDouble("temperature_sum"),
+                            rs.getObject("temperature_min", Double.class), rs.getObject("temperature_max", Double.class)));
+                },
+                dates.toArray());
+        List<Object[]> weatherCounts = jdbcTemplate.query(
+                "select date, weather, count(*) as diary_count from diary where date in (" + in + ")"
+                        + " group by date, weather",
+                (rs, rowNum) -> new Object[]{rs.getDate("date"), rs.getString("weather"), rs.getLong("diary_count")},
+                dates.toArray());
+
+        jdbcTemplate.update("delete from diary_stats_daily where date in (" + in + ")", dates.toArray());
+        jdbcTemplate.update("delete from diary_stats_daily_weather where date in (" + in + ")", dates.toArray());
+
+        // diary 가 없는 날짜도 row 를 남겨야 version 이 기록된다.
+        List<Object[]> days = new ArrayList<>(versions.size());
+        versions.forEach((date, version) -> {
+            Temperatures day = temperatures.getOrDefault(date, Temperatures.EMPTY);
+            days.add(new Object[]{Date.valueOf(date), version, day.diaryCount(), day.sum(), day.min(), day.max()});
+        });
+        jdbcTemplate.batchUpdate("insert into diary_stats_daily"
+                + " (date, version, diary_count, temperature_sum, temperature_min, temperature_max)"
+                + " values (?, ?, ?, ?, ?, ?)", days);
+        jdbcTemplate.batchUpdate("insert into diary_stats_daily_weather (date, weather, diary_count)"
+                + " values (?, ?, ?)", weatherCounts);
+    }
+
+    /**
+     * 달들의 집계를 그 달의 날짜별 집계로 다시 만듭니다.
+     */
+    public void rollupMonths(Collection<YearMonth> months) {
+        for (YearMonth month : new TreeSet<>(months)) {
+            Date first = Date.valueOf(month.atDay(1));
+            Date last = Date.valueOf(month.atEndOfMonth());
+
+            jdbcTemplate.update("delete from diary_stats_monthly where month_start = ?", first);
+            jdbcTemplate.update("delete from diary_stats_monthly_weather where month_start = ?", first);
+
+            Temperatures total = jdbcTemplate.queryForObject("select coalesce(sum(diary_count), 0) as diary_count,"
+                            + " coalesce(sum(temperature_sum), 0) as temperature_sum,"
+                            + " min(temperature_min) as temperature_min, max(temperature_max) as temperature_max"
+                            + " from diary_stats_daily where date between ? and ?",
+                    (rs, rowNum) -> new Temperatures(rs.getLong("diary_count"), rs.getDouble("temperature_sum"),
+                            rs.getObject("temperature_min", Double.class), rs.getObject("temperature_max", Double.class)),
+                    first, last);
+            jdbcTemplate.update("insert into diary_stats_monthly"
+                            + " (month_start, diary_count, temperature_sum, temperature_min, temperature_max)"
+                            + " values (?, ?, ?, ?, ?)",
+                    first, total.diaryCount(), total.sum(), total.min(), total.max());
+            List<Object[]> weatherCounts = jdbcTemplate.query(
+                    "select weather, sum(diary_count) as diary_count from diary_stats_daily_weather"
+                            + " where date between ? and ? group by weather",
+                    (rs, rowNum) -> new Object[]{first, rs.getString("weather"), rs.getLong("diary_count")},
+                    first, last);
+            jdbcTemplate.batchUpdate("insert into diary_stats_monthly_weather (month_start, weather, diary_count)"
+                    + " values (?, ?, ?)", weatherCounts);
+        }
+    }
+
+    /**
+     * 기간 [startDate, endDate] 의 집계. 집계되지 않은 변경은 빠져 있을 수 있습니다.
+     */
+    public WeatherStatistics summarize(LocalDate startDate, LocalDate endDate) {
+        // 기간에 완전히 들어가는 달 [firstMonth, endMonth)
+        LocalDate firstMonth = startDate.getDayOfMonth() == 1 ? startDate : startDate.withDayOfMonth(1).plusMonths(1);
+        LocalDate endMonth = endDate.plusDays(1).withDayOfMonth(1);
+        Object[] ranges;
+        if (firstMonth.isBefore(endMonth)) {
+            ranges = new Object[]{Date.valueOf(firstMonth), Date.valueOf(endMonth),
+                    Date.valueOf(startDate), Date.valueOf(firstMonth.minusDays(1)),
+                    Date.valueOf(endMonth), Date.valueOf(endDate)};
+        } else {
+            // 달 단위로 읽을 것이 없다. 두번째 날짜 구간은 비워 둔다.
+            ranges = new Object[]{Date.valueOf(endMonth), Date.valueOf(endMonth),
+                    Date.valueOf(startDate), Date.valueOf(endDate),
+                    Date.valueOf(endDate.plusDays(1)), Date.valueOf(endDate)};
+        }
+
+        WeatherStatistics statistics = jdbcTemplate.queryForObject(
+                "select coalesce(sum(diary_count), 0) as diary_count, coalesce(sum(temperature_sum), 0) as temperature_sum,"
+                        + " min(temperature_min) as temperature_min, max(temperature_max) as temperature_max from ("
+                        + " select diary_count, temperature_sum, temperature_min, temperature_max from diary_stats_monthly"
+                        + " where month_start >= ? and month_start < ?"
+                        + " union all"
+                        + " select diary_count, temperature_sum, temperature_min, temperature_max from diary_stats_daily"
+                        + " where date between ? and ? or date between ? and ?) stats",
+                (rs, rowNum) -> {
+                    long diaryCount = rs.getLong("diary_count");
+                    return WeatherStatistics.builder()
+                            .startDate(startDate)
+                            .endDate(endDate)
+                            .diaryCount(diaryCount)
+                            .minTemperature(rs.getObject("temperature_min", Double.class))
+                            .maxTemperature(rs.getObject("temperature_max", Double.class))
+                            .averageTemperature(diaryCount == 0 ? null : rs.getDouble("temperature_sum") / diaryCount)
+                            .build();
+                },
+                ranges);
+
+        // 많은 순서
+        Map<String, Long> weatherCounts = new LinkedHashMap<>();
+        jdbcTemplate.query("select weather, sum(diary_count) as diary_count from ("
+                        + " select weather, diary_count from diary_stats_monthly_weather where month_start >= ? and month_start < ?"
+                        + " union all"
+                        + " select weather, diary_count from diary_stats_daily_weather"
+                        + " where date between ? and ? or date between ? and ?) stats"
+                        + " group by weather order by sum(diary_count) desc, weather",
+                rs -> {
+                    weatherCounts.put(rs.getString("weather"), rs.getLong("diary_count"));
+                },
+                ranges);
+        statistics.setWeatherCounts(weatherCounts);
+        return statistics;
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.weather.repository;
+
+import com.example.weather.dto.DiaryVersion;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * diary_version 읽기/쓰기. 조회는 기본키(date) 한 건 또는 기본키 범위만 읽으므로 diary 를 읽는 것보다 훨씬 쌉니다.
+ */
+@Repository
+public class DiaryVersionRepository {
+    private final JdbcTemplate jdbcTemplate;
+
+    public DiaryVersionRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * 날짜들의 version 을 올립니다. diary 를 쓰는 트랜잭션 안에서 불러야 diary 와 함께 커밋됩니다.
+     */
+    public void bump(Collection<LocalDate> dates) {
+        if (dates.isEmpty()) {
+            return;
+        }
+
+        Timestamp now = Timestamp.from(Instant.now());
+        List<LocalDate> sorted = dates.stream().distinct().sorted().toList();
+        // 여러 트랜잭션이 같은 날짜들을 올려도 서로 기다리다 교착되지 않도록 날짜 순서로 잠근다.
+        String sql = "insert into diary_version (date, version, updated_at) values (?, 1, ?)"
+                + " on duplicate key update version = version + 1, updated_at = ?";
+        jdbcTemplate.batchUpdate(sql, sorted, sorted.size(), (ps, date) -> {
+            ps.setDate(1, Date.valueOf(date));
+            ps.setTimestamp(2, now);
+            ps.setTimestamp(3, now);
+        });
+    }
+
+    public DiaryVersion find(LocalDate date) {
+        List<DiaryVersion> versions = jdbcTemplate.query(
+                "select version, updated_at from diary_version where date = ?",
+                (rs, rowNum) -> new DiaryVersion(rs.getLong("version"), rs.getTimestamp("updated_at").toInstant()),
+                Date.valueOf(date));
+        return versions.isEmpty() ? DiaryVersion.NONE : versions.get(0);
+    }
+
+    public DiaryVersion findBetween(LocalDate startDate, LocalDate endDate) {
+        return jdbcTemplate.queryForObject(
+                "select coalesce(sum(version), 0) as version, max(updated_at) as updated_at from diary_version"
+                        + " where date between ? and ?",
+                (rs, rowNum) -> {
+                    Timestamp updatedAt = rs.getTimestamp("updated_at");
+                    return new DiaryVersion(rs.getLong("version"), updatedAt == null ? null : updatedAt.toInstant());
+                },
+                Date.valueOf(startDate), Date.valueOf(endDate));
+    }
+
+    /**
+     * 날짜들의 version. diary_version 에 없는 날짜는 빠집니다.
+     */
+    public Map<LocalDate, Long> findVersions(Collection<LocalDate> dates) {
+        Map<LocalDate, Long> versions = new HashMap<>();
+        if (dates.isEmpty()) {
+            return versions;
+        }
+
+        List<Object> args = dates.stream().distinct().<Object>map(Date::valueOf).toList();
+        String in = String.join(", ", Collections.nCopies(args.size(), "?"));
+        jdbcTemplate.query("select date, version from diary_version where date in (" + in + ")",
+                rs -> {
+                    versions.put(rs.getDate("date").toLocalDate(), rs.getLong("version"));
+                },
+                args.toArray());
+        return versions;
+    }
+
+    /**
+     * 모든 날짜의 version. 날짜마다 한 행이므로 10년치도 몇천 행입니다.
+     */
+    public Map<LocalDate, Long> findAllVersions() {
+        Map<LocalDate, Long> versions = new HashMap<>();
+        jdbcTemplate.query("select date, version from diary_version",
+                rs -> {
+                    versions.put(rs.getDate("date").toLocalDate(), rs.getLong("version"));
+                });
+        return versions;
+    }
+}
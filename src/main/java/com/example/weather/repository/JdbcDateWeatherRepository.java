@@ -0,0 +1,40 @@
+package com.example.weather.repository;
+
+import com.example.weather.domain.DateWeather;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Date;
+import java.util.List;
+
+/**
+ * date_weather 는 id 를 직접 지정하므로 JPA saveAll 은 row 마다 select 후 insert 합니다.
+ * 여러 날짜를 한꺼번에 저장할 때는 JDBC 배치로 넣습니다.
+ */
+@Repository
+public class JdbcDateWeatherRepository {
+    private final JdbcTemplate jdbcTemplate;
+
+    public JdbcDateWeatherRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * 이미 있는 (city, date) 는 건너뜁니다. 그 사이 다른 요청이 먼저 저장했어도 배치 전체가 실패하지 않습니다.
+     */
+    public int[] batchInsertIgnore(List<DateWeather> dateWeathers) {
+        if (dateWeathers.isEmpty()) {
+            return new int[0];
+        }
+
+        String sql = "insert ignore into date_weather (city, date, weather, icon, temperature) values (?, ?, ?, ?, ?)";
+        return jdbcTemplate.batchUpdate(sql, dateWeathers, dateWeathers.size(), (ps, dateWeather) -> {
+            ps.setString(1, dateWeather.getCity());
+            ps.setDate(2, Date.valueOf(dateWeather.getDate()));
+            ps.setString(3, dateWeather.getWeather());
+            ps.setString(4, dateWeather.getIcon());
+            ps.setDouble(5, dateWeather.getTemperature());
+        })[0];
+    }
+}
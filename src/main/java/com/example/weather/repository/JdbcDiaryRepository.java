@@ -0,0 +1,92 @@
+package com.example.weather.repository;
+
+import com.example.weather.domain.Diary;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Diary 의 id 는 IDENTITY 라 hibernate 가 insert 를 배치로 묶지 못하므로, 대량 insert 는 JdbcTemplate 으로 합니다.
+ */
+@Repository
+public class JdbcDiaryRepository {
+    private static final RowMapper<Diary> DIARY_ROW_MAPPER = (rs, rowNum) -> Diary.builder()
+            .id(rs.getInt("id"))
+            .weather(rs.getString("weather"))
+            .icon(rs.getString("icon"))
+            .temperature(rs.getDouble("temperature"))
+            .text(rs.getString("text"))
+            .date(rs.getDate("date").toLocalDate())
+            .city(rs.getString("city"))
+            .weatherStale(rs.getBoolean("weather_stale"))
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingJdbcTemplate;
+    private final int batchSize;
+
+    @Autowired
+    public JdbcDiaryRepository(DataSource dataSource,
+                               @Value("${weather.diary.batch-size:500}") int batchSize,
+                               @Value("${weather.diary.stream-fetch-size:1000}") int streamFetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate.setFetchSize(streamFetchSize);
+        this.batchSize = batchSize;
+    }
+
+    public int[][] batchInsert(List<Diary> diaries) {
+        String sql = "insert into diary (weather, icon, temperature, text, date, city, weather_stale)"
+                + " values (?, ?, ?, ?, ?, ?, ?)";
+        return jdbcTemplate.batchUpdate(sql, diaries, batchSize, (ps, diary) -> {
+            ps.setString(1, diary.getWeather());
+            ps.setString(2, diary.getIcon());
+            ps.setDouble(3, diary.getTemperature());
+            ps.setString(4, diary.getText());
+            ps.setDate(5, Date.valueOf(diary.getDate()));
+            ps.setString(6, diary.getCity());
+            ps.setBoolean(7, diary.isWeatherStale());
+        });
+    }
+
+    /**
+     * 기간 내 diary 를 (date, id) 순서로 한 row 씩 넘겨줍니다.
+     * fetch size 단위로 읽어 오므로 기간의 크기와 관계없이 메모리 사용량이 일정합니다.
+     */
+    public void streamByDateBetween(LocalDate startDate, LocalDate endDate, Consumer<Diary> consumer) {
+        String sql = "select id, weather, icon, temperature, text, date, city, weather_stale from diary"
+                + " where date between ? and ? order by date, id";
+        streamingJdbcTemplate.query(sql,
+                (RowCallbackHandler) rs -> consumer.accept(DIARY_ROW_MAPPER.mapRow(rs, rs.getRow())),
+                Date.valueOf(startDate), Date.valueOf(endDate));
+    }
+
+    public List<Diary> findAllByDateIn(Collection<LocalDate> dates) {
+        if (dates.isEmpty()) {
+            return List.of();
+        }
+        String sql = "select id, weather, icon, temperature, text, date, city, weather_stale from diary"
+                + " where date in (" + String.join(", ", Collections.nCopies(dates.size(), "?")) + ")";
+        return jdbcTemplate.query(sql, DIARY_ROW_MAPPER, dates.stream().map(Date::valueOf).toArray());
+    }
+
+    /**
+     * 모든 diary 를 한 row 씩 넘겨줍니다. (DiaryTextIndex 를 처음 만들 때)
+     */
+    public void forEach(Consumer<Diary> consumer) {
+        String sql = "select id, weather, icon, temperature, text, date, city, weather_stale from diary";
+        streamingJdbcTemplate.query(sql,
+                (RowCallbackHandler) rs -> consumer.accept(DIARY_ROW_MAPPER.mapRow(rs, rs.getRow())));
+    }
+}
@@ -2,46 +2,84 @@ package com.example.weather.repository;
 
 import com.example.weather.domain.Memo;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
 
 import javax.sql.DataSource;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Repository
 public class JdbcMemoRepository {
+    // ResultSet
+    // {id = 1, text = 'memo'} -> Object
+    private static final RowMapper<Memo> MEMO_ROW_MAPPER = (rs, rowNum) -> Memo.builder()
+            .id(rs.getInt("id"))
+            .text(rs.getString("text"))
+            .build();
+
     private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingJdbcTemplate;
+    private final int batchSize;
 
     @Autowired
-    public JdbcMemoRepository(DataSource dataSource) {
+    public JdbcMemoRepository(DataSource dataSource,
+                              @Value("${weather.memo.batch-size:500}") int batchSize,
+                              @Value("${weather.memo.stream-fetch-size:1000}") int streamFetchSize) {
         this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate.setFetchSize(streamFetchSize);
+        this.batchSize = batchSize;
     }
 
     public Memo save(Memo memo) {
-        String sql = "insert into memo values(?, ?)";
+        String sql = "insert into memo (id, text) values (?, ?)";
         jdbcTemplate.update(sql, memo.getId(), memo.getText());
 
         return memo;
     }
 
+    // batchSize 건씩 묶어 한 번에 보낸다.
+    public List<Memo> saveAll(List<Memo> memos) {
+        String sql = "insert into memo (id, text) values (?, ?)";
+        jdbcTemplate.batchUpdate(sql, memos, batchSize, (ps, memo) -> {
+            ps.setInt(1, memo.getId());
+            ps.setString(2, memo.getText());
+        });
+
+        return memos;
+    }
+
     public List<Memo> findAll() {
-        String sql = "select * from memo";
-        return jdbcTemplate.query(sql, memoRowMapper());
+        String sql = "select id, text from memo";
+        return jdbcTemplate.query(sql, MEMO_ROW_MAPPER);
     }
 
-    public Optional<Memo> findById(int id) {
-        String sql = "select * from memo where id = ?";
-        return jdbcTemplate.query(sql, memoRowMapper(), id).stream().findFirst();
+    /**
+     * 모든 memo 를 id 순서로 한 row 씩 넘겨줍니다.
+     * fetch size 단위로 읽어 오므로 row 수와 관계없이 메모리 사용량이 일정합니다.
+     */
+    public void forEach(Consumer<Memo> consumer) {
+        String sql = "select id, text from memo order by id";
+        streamingJdbcTemplate.query(sql,
+                (RowCallbackHandler) rs -> consumer.accept(MEMO_ROW_MAPPER.mapRow(rs, rs.getRow())));
+    }
+
+    /**
+     * forEach 와 같지만 Stream 으로 돌려줍니다. 커넥션을 잡고 있으므로 다 쓴 뒤 반드시 close 해야 합니다. (try-with-resources)
+     */
+    public Stream<Memo> streamAll() {
+        String sql = "select id, text from memo order by id";
+        return streamingJdbcTemplate.queryForStream(sql, MEMO_ROW_MAPPER);
     }
 
-    private RowMapper<Memo> memoRowMapper() {
-        // ResultSet
-        // {id = 1, text = 'memo'} -> Object
-        return (rs, rowNum) -> Memo.builder()
-                .id(rs.getInt("id"))
-                .text(rs.getString("text"))
-                .build();
+    public Optional<Memo> findById(int id) {
+        String sql = "select id, text from memo where id = ?";
+        return jdbcTemplate.query(sql, MEMO_ROW_MAPPER, id).stream().findFirst();
     }
 }
@@ -0,0 +1,35 @@
+package com.example.weather.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * write-behind 로그별로 diary 에 반영된 마지막 순번.
+ */
+@Repository
+public class WriteBehindCheckpointRepository {
+    private final JdbcTemplate jdbcTemplate;
+
+    public WriteBehindCheckpointRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    // 한 번도 반영하지 않았으면 0
+    public long find(String logId) {
+        List<Long> seqs = jdbcTemplate.queryForList(
+                "select flushed_seq from diary_write_behind_checkpoint where log_id = ?", Long.class, logId);
+        return seqs.isEmpty() ? 0 : seqs.get(0);
+    }
+
+    public void save(String logId, long flushedSeq) {
+        Timestamp now = Timestamp.from(Instant.now());
+        jdbcTemplate.update("insert into diary_write_behind_checkpoint (log_id, flushed_seq, updated_at) values (?, ?, ?)"
+                        + " on duplicate key update flushed_seq = ?, updated_at = ?",
+                logId, flushedSeq, now, flushedSeq, now);
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.weather.service;
+
+import com.example.weather.domain.DateWeather;
+import com.example.weather.domain.DateWeatherId;
+import com.example.weather.dto.CacheStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * (도시, 날짜) -> DateWeather 캐시.
+ * 크기 제한(LRU)과 TTL 로 만료되며, "해당 날짜 row 없음" 도 짧은 시간 동안 기억합니다.
+ */
+@Component
+public class DateWeatherCache {
+    // sequence 는 저장된 순서. 락 밖에서 읽는 동안 다른 저장이 있었는지 본다.
+    private record Entry(DateWeather dateWeather, long expiresAt, long sequence) {
+    }
+
+    private final int capacity;
+    private final long ttlNanos;
+    private final long negativeTtlNanos;
+    private final LongSupplier ticker;
+
+    private final LinkedHashMap<DateWeatherId, Entry> entries;
+    private long storeCount;
+    private long hitCount;
+    private long missCount;
+
+    @Autowired
+    public DateWeatherCache(
+            @Value("${weather.cache.date-weather.capacity:1024}") int capacity,
+            @Value("${weather.cache.date-weather.ttl:24h}") Duration ttl,
+            @Value("${weather.cache.date-weather.negative-ttl:1m}") Duration negativeTtl) {
+        this(capacity, ttl, negativeTtl, System::nanoTime);
+    }
+
+    DateWeatherCache(int capacity, Duration ttl, Duration negativeTtl, LongSupplier ticker) {
+        this.capacity = capacity;
+        this.ttlNanos = ttl.toNanos();
+        this.negativeTtlNanos = negativeTtl.toNanos();
+        this.ticker = ticker;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<DateWeatherId, Entry> eldest) {
+                return size() > DateWeatherCache.this.capacity;
+            }
+        };
+    }
+
+    public Optional<DateWeather> get(DateWeatherId id, Function<DateWeatherId, Optional<DateWeather>> loader) {
+        long loadStartedAt;
+        synchronized (this) {
+            Entry entry = entries.get(id);
+            if (entry != null && entry.expiresAt() - ticker.getAsLong() > 0) {
+                hitCount++;
+                return Optional.ofNullable(entry.dateWeather());
+            }
+            missCount++;
+            loadStartedAt = storeCount;
+        }
+
+        // DB 조회는 락 밖에서 한다.
+        Optional<DateWeather> loaded = loader.apply(id);
+        synchronized (this) {
+            Entry current = entries.get(id);
+            if (loaded.isEmpty() && current != null) {
+                // 읽는 동안 put 된 값이 더 새롭다. "없음" 으로 덮지 않는다.
+                if (current.sequence() > loadStartedAt) {
+                    return Optional.ofNullable(current.dateWeather());
+                }
+                // 만료된 날씨도 "없음" 으로 바꾸지 않는다. 다음 조회가 다시 읽는다.
+                if (current.dateWeather() != null) {
+                    return loaded;
+                }
+            }
+            store(id, loaded.orElse(null));
+        }
+        return loaded;
+    }
+
+    public synchronized void put(DateWeather dateWeather) {
+        store(new DateWeatherId(dateWeather.getCity(), dateWeather.getDate()), dateWeather);
+    }
+
+    public synchronized void evict(DateWeatherId id) {
+        entries.remove(id);
+    }
+
+    public synchronized CacheStats stats() {
+        return CacheStats.builder()
+                .name("dateWeather")
+                .hitCount(hitCount)
+                .missCount(missCount)
+                .size(entries.size())
+                .build();
+    }
+
+    private void store(DateWeatherId id, DateWeather dateWeather) {
+        long ttl = dateWeather == null ? negativeTtlNanos : ttlNanos;
+        entries.put(id, new Entry(dateWeather, ticker.getAsLong() + ttl, ++storeCount));
+    }
+}
@@ -0,0 +1,244 @@
+package com.example.weather.service;
+
+import com.example.weather.domain.Diary;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * write-behind 로 받은 diary 를 DB 에 넣기 전에 남기는 로컬 append 로그.
+ * <p>
+ * diary 한 건이 json 한 줄이고, 파일(segment)이 segmentBytes 를 넘으면 새 파일로 넘어갑니다.
+ * 줄바꿈까지 쓰인 줄만 유효하므로, 쓰는 도중에 죽어 잘린 마지막 줄은 replay 때 무시됩니다.
+ * DB 에 반영된 순번(checkpoint)까지만 담은 지난 segment 는 지웁니다.
+ * <p>
+ * sync(seq) 는 여러 스레드의 요청을 한 번의 fsync 로 묶습니다. (먼저 들어온 스레드가 그때까지 쓰인 것을 모두 내린다)
+ */
+@Slf4j
+final class DiaryAppendLog implements Closeable {
+    private static final String LOG_ID_FILE = "log-id";
+    private static final String SEGMENT_PREFIX = "diary-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final ObjectMapper objectMapper;
+    private final String logId;
+
+    private final Object syncLock = new Object();
+    // 아래는 this 로 보호한다.
+    private final Deque<Segment> closedSegments = new ArrayDeque<>();
+    private FileChannel current;
+    private Path currentPath;
+    private long currentSize;
+    private long nextSeq;
+    private long writtenSeq;
+
+    private volatile long syncedSeq;
+
+    record Entry(long seq, String date, String city, String weather, String icon, double temperature,
+                 String text, boolean weatherStale) {
+        static Entry of(long seq, Diary diary) {
+            return new Entry(seq, diary.getDate().toString(), diary.getCity(), diary.getWeather(), diary.getIcon(),
+                    diary.getTemperature(), diary.getText(), diary.isWeatherStale());
+        }
+
+        Diary toDiary() {
+            return Diary.builder()
+                    .date(LocalDate.parse(date))
+                    .city(city)
+                    .weather(weather)
+                    .icon(icon)
+                    .temperature(temperature)
+                    .text(text)
+                    .weatherStale(weatherStale)
+                    .build();
+        }
+    }
+
+    private record Segment(Path path, long lastSeq) {
+    }
+
+    DiaryAppendLog(Path directory, long segmentBytes, ObjectMapper objectMapper) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.segmentBytes = segmentBytes;
+        this.objectMapper = objectMapper;
+        this.logId = readOrCreateLogId();
+    }
+
+    // 노드(로그 디렉터리)마다 고정된 id. DB 의 checkpoint 를 이 id 로 찾는다.
+    String getLogId() {
+        return logId;
+    }
+
+    /**
+     * 남아 있는 segment 를 순서대로 읽어 checkpoint 보다 뒤의 entry 를 넘기고, 새 segment 를 열어 쓰기를 준비합니다.
+     * 쓰기 전에 한 번만 부릅니다.
+     */
+    synchronized void open(long checkpoint, Consumer<Entry> consumer) throws IOException {
+        long lastSeq = checkpoint;
+        for (Path path : listSegments()) {
+            long segmentLastSeq = lastSeq;
+            try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                for (Entry entry : readComplete(reader)) {
+                    segmentLastSeq = Math.max(segmentLastSeq, entry.seq());
+                    if (entry.seq() > checkpoint) {
+                        consumer.accept(entry);
+                    }
+                }
+            }
+            closedSegments.add(new Segment(path, segmentLastSeq));
+            lastSeq = segmentLastSeq;
+        }
+
+        nextSeq = lastSeq + 1;
+        writtenSeq = lastSeq;
+        syncedSeq = lastSeq;
+        roll();
+    }
+
+    // 순번을 붙여 쓰고 그 순번을 돌려준다. 디스크에 내려가는 것은 sync 를 불러야 보장된다.
+    synchronized long append(Diary diary) throws IOException {
+        long seq = nextSeq;
+        byte[] line = (objectMapper.writeValueAsString(Entry.of(seq, diary)) + "\n").getBytes(StandardCharsets.UTF_8);
+        if (currentSize > 0 && currentSize + line.length > segmentBytes) {
+            roll();
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(line);
+        while (buffer.hasRemaining()) {
+            current.write(buffer);
+        }
+        currentSize += line.length;
+        nextSeq++;
+        writtenSeq = seq;
+        return seq;
+    }
+
+    void sync(long seq) throws IOException {
+        if (syncedSeq >= seq) {
+            return;
+        }
+        synchronized (syncLock) {
+            if (syncedSeq >= seq) {
+                return;
+            }
+
+            FileChannel channel;
+            long upTo;
+            synchronized (this) {
+                channel = current;
+                upTo = writtenSeq;
+            }
+            try {
+                channel.force(false);
+            } catch (ClosedChannelException e) {
+                // 그 사이 다음 segment 로 넘어갔다. 닫기 전에 force 했으므로 이미 디스크에 있다.
+            }
+            syncedSeq = upTo;
+        }
+    }
+
+    // seq 까지 DB 에 반영되었다. 그 이하만 담은 지난 segment 를 지운다.
+    synchronized void release(long seq) {
+        while (!closedSegments.isEmpty() && closedSegments.peekFirst().lastSeq() <= seq) {
+            Path path = closedSegments.pollFirst().path();
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                log.warn("failed to delete diary append log segment {}", path, e);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (current != null) {
+            current.force(false);
+            current.close();
+        }
+    }
+
+    private void roll() throws IOException {
+        if (current != null) {
+            current.force(false);
+            current.close();
+            closedSegments.add(new Segment(currentPath, writtenSeq));
+        }
+
+        // 같은 이름의 파일이 있다면 새 segment 를 만든 직후 죽어 온전한 줄이 없는 파일이므로 비우고 쓴다.
+        Path path = segmentPath(nextSeq);
+        closedSegments.removeIf(segment -> segment.path().equals(path));
+        current = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        currentPath = path;
+        currentSize = 0;
+    }
+
+    private Path segmentPath(long firstSeq) {
+        return directory.resolve(SEGMENT_PREFIX + String.format("%020d", firstSeq) + SEGMENT_SUFFIX);
+    }
+
+    private List<Path> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .sorted(Comparator.comparing(path -> path.getFileName().toString()))
+                    .toList();
+        }
+    }
+
+    // 줄바꿈으로 끝나지 않은 마지막 줄(쓰다 만 줄)은 버린다.
+    private List<Entry> readComplete(BufferedReader reader) throws IOException {
+        StringBuilder content = new StringBuilder();
+        char[] chunk = new char[8192];
+        for (int read; (read = reader.read(chunk)) != -1; ) {
+            content.append(chunk, 0, read);
+        }
+        int end = content.lastIndexOf("\n");
+        if (end < 0) {
+            return List.of();
+        }
+        return content.substring(0, end).lines()
+                .filter(line -> !line.isBlank())
+                .map(line -> {
+                    try {
+                        return objectMapper.readValue(line, Entry.class);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                })
+                .toList();
+    }
+
+    private String readOrCreateLogId() throws IOException {
+        Path path = directory.resolve(LOG_ID_FILE);
+        if (Files.exists(path)) {
+            return Files.readString(path, StandardCharsets.UTF_8).trim();
+        }
+        String id = UUID.randomUUID().toString();
+        Files.writeString(path, id, StandardCharsets.UTF_8);
+        return id;
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.weather.service;
+
+import com.example.weather.domain.Diary;
+import com.example.weather.dto.CacheStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * 날짜 -> 그 날의 diary 목록 캐시. (readDiary)
+ * <p>
+ * 목록은 DB 에서 읽은 엔티티가 아닌 복사본을 바꿀 수 없는 List 로 담아 두고, 모든 hit 가 같은 목록을 돌려받습니다.
+ * 그래서 돌려받은 diary 는 읽기만 해야 합니다.
+ * 캐시에 담긴 diary 수가 capacity 를 넘으면 가장 오래 읽지 않은 날짜부터 뺍니다.
+ * <p>
+ * diary 를 바꾸는 트랜잭션은 write(date) 로 그 날짜를 캐시에서 빼고, 커밋(또는 롤백)이 끝날 때까지 그 날짜는 캐시를 거치지 않습니다.
+ * 빼기 전에 DB 에서 읽기 시작한 목록은 담지 않으므로, 커밋 뒤에 이전 목록이 보이지 않습니다.
+ */
+@Component
+public class DiaryCache {
+    // 값이 null 이면 누군가 DB 에서 읽는 중이다. 그 사이 write 로 빠지면 읽은 목록을 담지 않는다.
+    private static final class Entry {
+        private List<Diary> diaries;
+    }
+
+    private final long capacity;
+
+    private final LinkedHashMap<LocalDate, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    // 쓰기 트랜잭션이 진행 중인 날짜와 그 수
+    private final Map<LocalDate, Integer> writing = new HashMap<>();
+    private long weight;
+    private long hitCount;
+    private long missCount;
+
+    @Autowired
+    public DiaryCache(@Value("${weather.cache.diary.capacity:10000}") long capacity) {
+        this.capacity = capacity;
+    }
+
+    public List<Diary> get(LocalDate date, Function<LocalDate, List<Diary>> loader) {
+        Entry loading;
+        synchronized (this) {
+            Entry entry = entries.get(date);
+            if (entry != null && entry.diaries != null) {
+                hitCount++;
+                return entry.diaries;
+            }
+            missCount++;
+
+            if (writing.containsKey(date)) {
+                loading = null;
+            } else if (entry != null) {
+                // 다른 스레드가 읽는 중이다. 같이 읽되, 먼저 끝난 쪽이 담는다.
+                loading = entry;
+            } else {
+                loading = new Entry();
+                entries.put(date, loading);
+            }
+        }
+
+        // DB 조회는 락 밖에서 한다.
+        List<Diary> diaries;
+        try {
+            diaries = snapshot(loader.apply(date));
+        } catch (RuntimeException e) {
+            if (loading != null) {
+                synchronized (this) {
+                    entries.remove(date, loading);
+                }
+            }
+            throw e;
+        }
+        if (loading == null) {
+            return diaries;
+        }
+        synchronized (this) {
+            if (entries.get(date) == loading && loading.diaries == null) {
+                loading.diaries = diaries;
+                weight += weightOf(diaries);
+                evict();
+            }
+        }
+        return diaries;
+    }
+
+    /**
+     * 현재 트랜잭션이 날짜들의 diary 를 바꿨습니다. 트랜잭션이 없으면 바로 캐시에서 빼기만 합니다.
+     */
+    public void write(Collection<LocalDate> dates) {
+        Set<LocalDate> changed = new HashSet<>(dates);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            synchronized (this) {
+                changed.forEach(this::remove);
+            }
+            return;
+        }
+
+        synchronized (this) {
+            for (LocalDate date : changed) {
+                remove(date);
+                writing.merge(date, 1, Integer::sum);
+            }
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                synchronized (DiaryCache.this) {
+                    for (LocalDate date : changed) {
+                        remove(date);
+                        writing.computeIfPresent(date, (key, count) -> count == 1 ? null : count - 1);
+                    }
+                }
+            }
+        });
+    }
+
+    public synchronized CacheStats stats() {
+        return CacheStats.builder()
+                .name("diary")
+                .hitCount(hitCount)
+                .missCount(missCount)
+                .size(entries.size())
+                .build();
+    }
+
+    private void remove(LocalDate date) {
+        Entry removed = entries.remove(date);
+        if (removed != null && removed.diaries != null) {
+            weight -= weightOf(removed.diaries);
+        }
+    }
+
+    // 읽는 중인 자리는 건너뛰고, 가장 오래 읽지 않은 날짜부터 뺀다.
+    private void evict() {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (weight > capacity && iterator.hasNext()) {
+            Entry eldest = iterator.next();
+            if (eldest.diaries != null) {
+                weight -= weightOf(eldest.diaries);
+                iterator.remove();
+            }
+        }
+    }
+
+    // diary 가 없는 날짜도 자리를 차지한다.
+    private static long weightOf(List<Diary> diaries) {
+        return Math.max(diaries.size(), 1);
+    }
+
+    // 호출한 쪽이 엔티티를 고쳐도 캐시에 남지 않도록 복사해 둔다.
+    private static List<Diary> snapshot(List<Diary> diaries) {
+        List<Diary> copies = new ArrayList<>(diaries.size());
+        for (Diary diary : diaries) {
+            copies.add(new Diary(diary.getId(), diary.getWeather(), diary.getIcon(), diary.getTemperature(),
+                    diary.getText(), diary.getDate(), diary.getCity(), diary.isWeatherStale()));
+        }
+        return Collections.unmodifiableList(copies);
+    }
+}
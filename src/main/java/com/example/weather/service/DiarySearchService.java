@@ -0,0 +1,67 @@
+package com.example.weather.service;
+
+import com.example.weather.domain.Diary;
+import com.example.weather.dto.DiarySearchHit;
+import com.example.weather.dto.DiarySearchPage;
+import com.example.weather.exception.WeatherException;
+import com.example.weather.repository.DiaryRepository;
+import com.example.weather.type.ErrorCode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * diary text 검색. 순위는 DiaryTextIndex 에서 매기고, DB 에서는 페이지에 든 diary 만 id 로 읽습니다.
+ */
+@Service
+@RequiredArgsConstructor
+public class DiarySearchService {
+    private static final int MAX_PAGE_SIZE = 100;
+    // 뒤 페이지일수록 순위를 매겨 들고 있어야 하는 diary 가 늘어나므로 앞쪽 결과만 보여준다.
+    private static final int MAX_RESULT_WINDOW = 10000;
+
+    private final DiaryTextIndex diaryTextIndex;
+    private final DiaryRepository diaryRepository;
+
+    public DiarySearchPage search(String query, LocalDate startDate, LocalDate endDate, int page, int size) {
+        List<String> terms = DiaryTextIndex.tokenize(query);
+        if (terms.isEmpty()) {
+            throw new WeatherException(ErrorCode.INVALID_SEARCH_QUERY);
+        }
+        if (startDate != null && endDate != null && startDate.isAfter(endDate)) {
+            throw new WeatherException(ErrorCode.INVALID_DATE_RANGE);
+        }
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        if (page < 0 || (long) (page + 1) * pageSize > MAX_RESULT_WINDOW) {
+            throw new WeatherException(ErrorCode.INVALID_SEARCH_PAGE);
+        }
+
+        DiaryTextIndex.Result result = diaryTextIndex.search(terms, startDate, endDate, page * pageSize, pageSize);
+
+        // 한 번에 읽고 순위 순서로 다시 세운다. 검색과 읽기 사이에 지워진 diary 는 빠진다.
+        Map<Integer, Diary> diaries = diaryRepository.findAllById(
+                        result.hits().stream().map(DiaryTextIndex.Hit::id).toList()).stream()
+                .collect(Collectors.toMap(Diary::getId, Function.identity()));
+        List<DiarySearchHit> hits = new ArrayList<>(result.hits().size());
+        for (DiaryTextIndex.Hit hit : result.hits()) {
+            Diary diary = diaries.get(hit.id());
+            if (diary != null) {
+                hits.add(new DiarySearchHit(diary, hit.score()));
+            }
+        }
+
+        return DiarySearchPage.builder()
+                .query(query)
+                .totalCount(result.totalCount())
+                .page(page)
+                .size(pageSize)
+                .hits(hits)
+                .build();
+    }
+}
@@ -1,32 +1,48 @@
 package com.example.weather.service;
 
+import com.example.weather.client.WeatherHttpClient;
+import com.example.weather.client.WeatherObservation;
+import com.example.weather.client.WeatherResponseParser;
+import com.example.weather.config.ReplicaRoutingDataSource;
 import com.example.weather.domain.DateWeather;
+import com.example.weather.domain.DateWeatherId;
 import com.example.weather.domain.Diary;
+import com.example.weather.domain.GeoCoordinate;
+import com.example.weather.dto.BulkCreateDiaryResponse;
+import com.example.weather.dto.CreateDiaryItem;
+import com.example.weather.dto.CreateDiaryResult;
+import com.example.weather.dto.DeleteDiaryResponse;
+import com.example.weather.dto.DiaryCursor;
+import com.example.weather.dto.DiaryPage;
+import com.example.weather.dto.DiaryVersion;
+import com.example.weather.dto.UpdateDiaryResponse;
+import com.example.weather.dto.VersionedDiaries;
+import com.example.weather.exception.WeatherApiException;
 import com.example.weather.exception.WeatherException;
 import com.example.weather.repository.DateWeatherRepository;
 import com.example.weather.repository.DiaryRepository;
+import com.example.weather.repository.DiaryVersionRepository;
+import com.example.weather.repository.JdbcDiaryRepository;
 import com.example.weather.type.ErrorCode;
-import lombok.AllArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.json.simple.JSONArray;
-import org.json.simple.JSONObject;
-import org.json.simple.parser.JSONParser;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 // http://api.openweathermap.org/geo/1.0/direct?q={city}&limit=1&appid={key}
 // https://api.openweathermap.org/data/3.0/onecall?lat={lat}&lon={lon}&appid={key}
@@ -35,151 +51,300 @@ import java.util.Map;
 @RequiredArgsConstructor
 @Slf4j
 public class DiaryService {
-    @AllArgsConstructor
-    static class Coordinate {
-        double lat, lon;
-    }
-
     private final DiaryRepository diaryRepository;
+    private final DiaryWriter diaryWriter;
+    private final JdbcDiaryRepository jdbcDiaryRepository;
     private final DateWeatherRepository dateWeatherRepository;
+    private final DiaryVersionRepository diaryVersionRepository;
+    private final DiaryCache diaryCache;
+    private final GeoCoordinateCache geoCoordinateCache;
+    private final DateWeatherCache dateWeatherCache;
+    private final WeatherHttpClient weatherHttpClient;
+    private final MeterRegistry meterRegistry;
+
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int MAX_TEXT_LENGTH = 500;
+    private static final String DATE_WEATHER_LOOKUPS = "weather.date_weather.lookups";
+
+    // (city, date) 별로 진행 중인 api 호출을 하나로 합친다.
+    private final SingleFlight<String, DateWeather> weatherFetches = new SingleFlight<>();
 
     @Value("${openweathermap.key}")
     private String apiKey;
 
-    final private String geoUrl = "https://api.openweathermap.org/geo/1.0/direct?q={city}&limit=1&appid={key}";
-    final private String weatherUrl = "https://api.openweathermap.org/data/2.5/weather?lat={lat}&lon={lon}&appid={key}";
+    @Value("${openweathermap.geo-url}")
+    private String geoUrl;
+    @Value("${openweathermap.weather-url}")
+    private String weatherUrl;
+    @Value("${openweathermap.history-url}")
+    private String historyUrl;
 
-    final private String city = "seoul";
+    @Value("${weather.default-city}")
+    private String defaultCity;
 
-    private Map<String, Object> getWeatherData() {
-        // 위치 정보 가져오기
-        String geoResult = getCoordinateString();
+    private WeatherObservation getWeatherData(String city, LocalDate date) {
+        // 위치 정보 가져오기 (캐시에 없을 때만 geo api 호출 후 파싱)
+        GeoCoordinate parsedCoordinate = geoCoordinateCache.get(city,
+                c -> WeatherResponseParser.parseCoordinate(getCoordinateString(c)));
 
-        // 위치 정보 파싱하기
-        Coordinate parsedCoordinate = parseCoordinate(geoResult);
+        // 지난 날짜는 history api 로 그 날의 날씨를 가져온다.
+        if (date.isBefore(LocalDate.now())) {
+            return WeatherResponseParser.parseHistoricalWeather(getHistoricalWeatherString(parsedCoordinate, date));
+        }
 
         // 위치 정보 기반 날씨 데이터 가져오기
         String weatherResult = getWeatherString(parsedCoordinate);
 
         // 파싱된 날씨 데이터 리턴
-        return parseWeather(weatherResult);
+        return WeatherResponseParser.parseWeather(weatherResult);
     }
 
-    @Transactional
-    public DateWeather getDateWeather(LocalDate date) {
-        List<DateWeather> dateWeatherListFromDB = dateWeatherRepository.findAllByDate(date);
-        if (dateWeatherListFromDB.isEmpty()) {
-            // 새로 api에서 날씨 정보를 가져와야 한다.
-            return getWeatherFromApi();
-        } else {
-            return dateWeatherListFromDB.get(0);
-        }
+    // 트랜잭션 없이 실행한다. api 호출 중에 DB 커넥션을 잡고 있지 않도록.
+    public DateWeather getDateWeather(String city, LocalDate date) {
+        DateWeatherId id = new DateWeatherId(resolveCity(city), date);
+        return dateWeatherCache.get(id, this::findStoredWeather)
+                // 새로 api에서 날씨 정보를 가져와야 한다.
+                .orElseGet(() -> {
+                    countLookup("api");
+                    try {
+                        return fetchWeather(id);
+                    } catch (WeatherApiException e) {
+                        // 서킷이 열려 있으면 기다리지 않고 최근 날씨로 대신한다. StaleWeatherRefreshJob 이 나중에 고친다.
+                        if (e.getErrorCode() != ErrorCode.WEATHER_API_UNAVAILABLE) {
+                            throw e;
+                        }
+                        return findStaleWeather(id).orElseThrow(() -> e);
+                    }
+                });
     }
 
-    @Transactional(isolation = Isolation.SERIALIZABLE)
-    public Diary createDiary(LocalDate date, String text) {
-        if (date.isAfter(LocalDate.ofYearDay(3050, 1))) {
-            throw new WeatherException(ErrorCode.INVALIDED_DATE);
+    // 저장하거나 캐시하지 않는다. 같은 (city, date) 의 다음 조회는 다시 api 를 시도한다.
+    private Optional<DateWeather> findStaleWeather(DateWeatherId id) {
+        return dateWeatherRepository.findFirstByCityOrderByDateDesc(id.getCity())
+                .map(latest -> {
+                    countLookup("stale");
+                    log.atWarn()
+                            .addKeyValue("city", id.getCity())
+                            .addKeyValue("date", id.getDate())
+                            .addKeyValue("weatherDate", latest.getDate())
+                            .log("weather api is unavailable, using the latest stored weather");
+                    return DateWeather.builder()
+                            .city(id.getCity())
+                            .date(id.getDate())
+                            .weather(latest.getWeather())
+                            .icon(latest.getIcon())
+                            .temperature(latest.getTemperature())
+                            .stale(true)
+                            .build();
+                });
+    }
+
+    // 캐시에 없을 때만 불린다. 캐시 hit 은 DateWeatherCache 의 cache.gets 로 센다.
+    private Optional<DateWeather> findStoredWeather(DateWeatherId id) {
+        Optional<DateWeather> stored = dateWeatherRepository.findById(id);
+        if (stored.isPresent()) {
+            countLookup("db");
         }
+        return stored;
+    }
 
-        log.info("started to create diary");
-        DateWeather dateWeather = getDateWeather(date);
+    private void countLookup(String source) {
+        Counter.builder(DATE_WEATHER_LOOKUPS)
+                .description("getDateWeather 가 캐시 밖에서 날씨를 찾은 곳 (db / api / stale)")
+                .tag("source", source)
+                .register(meterRegistry)
+                .increment();
+    }
 
-        // 파싱된 데이터와 텍스트 DB에 넣기
-        Diary newDiary = Diary.builder()
-                .weather(dateWeather.getWeather())
-                .icon(dateWeather.getIcon())
-                .temperature(dateWeather.getTemperature())
-                .text(text)
-                .date(date)
-                .build();
+    private DateWeather fetchWeather(DateWeatherId id) {
+        // 지난 날짜는 그 날의 날씨를, 오늘 이후의 날짜는 아직 알 수 없으므로 오늘 날씨를 쓴다.
+        LocalDate today = LocalDate.now();
+        DateWeatherId target = id.getDate().isBefore(today) ? id : new DateWeatherId(id.getCity(), today);
+
+        // 동시에 들어온 요청들은 하나의 api 호출 결과를 공유하고, 결과는 한 번만 저장된다.
+        // 그 사이 다른 요청이 저장했을 수 있으므로 DB 를 다시 본다. 캐시에는 방금 이 요청이 남긴 "없음" 이 있으므로 거치지 않는다.
+        return weatherFetches.execute(target.getCity() + "@" + target.getDate(), () ->
+                dateWeatherRepository.findById(target)
+                        .map(stored -> {
+                            dateWeatherCache.put(stored);
+                            return stored;
+                        })
+                        .orElseGet(() -> saveDateWeather(getWeatherFromApi(target.getCity(), target.getDate()))));
+    }
 
-        return diaryRepository.save(newDiary);
+    String resolveCity(String city) {
+        return GeoCoordinateCache.normalize(city == null || city.isBlank() ? defaultCity : city);
     }
 
-    private Coordinate parseCoordinate(String jsonString) {
-        JSONParser jsonParser = new JSONParser();
-        JSONObject jsonObject;
+    private DateWeather saveDateWeather(DateWeather dateWeather) {
+        DateWeather saved = dateWeatherRepository.save(dateWeather);
+        dateWeatherCache.put(saved);
+        return saved;
+    }
 
-        try {
-            JSONArray jsonArray = (JSONArray) jsonParser.parse(jsonString);
-            jsonObject = (JSONObject) jsonArray.get(0);
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
+    // 1단계: 트랜잭션 밖에서 날씨를 가져온다. 2단계: 짧은 쓰기 트랜잭션으로 저장한다.
+    public Diary createDiary(LocalDate date, String city, String text) {
+        validateDate(date);
 
-        return new Coordinate((double) jsonObject.get("lat"), (double) jsonObject.get("lon"));
-    }
+        log.atInfo().addKeyValue("date", date).addKeyValue("city", city).log("started to create diary");
+        DateWeather dateWeather = getDateWeather(city, date);
 
-    private Map<String, Object> parseWeather(String jsonString) {
-        JSONParser jsonParser = new JSONParser();
-        JSONObject jsonObject;
+        // 파싱된 데이터와 텍스트 DB에 넣기
+        return diaryWriter.insert(newDiary(date, text, dateWeather));
+    }
 
-        try {
-            jsonObject = (JSONObject) jsonParser.parse(jsonString);
-        } catch (Exception e) {
-            throw new RuntimeException(e);
+    // (도시, 날짜)별 날씨는 한 번만 조회하고, insert 는 JDBC 배치로 한다. 실패는 항목별로 돌려준다.
+    public BulkCreateDiaryResponse createDiaries(List<CreateDiaryItem> items) {
+        log.info("started to create {} diaries", items.size());
+
+        CreateDiaryResult[] results = new CreateDiaryResult[items.size()];
+        Map<DateWeatherId, DateWeather> weatherById = new HashMap<>();
+        Map<DateWeatherId, WeatherException> failedIds = new HashMap<>();
+        List<Diary> diaries = new ArrayList<>();
+        List<Integer> indexes = new ArrayList<>();
+
+        for (int i = 0; i < items.size(); i++) {
+            CreateDiaryItem item = items.get(i);
+            try {
+                validateDate(item.getDate());
+                DateWeatherId id = new DateWeatherId(resolveCity(item.getCity()), item.getDate());
+                DateWeather dateWeather = resolveDateWeather(id, weatherById, failedIds);
+                diaries.add(newDiary(item.getDate(), item.getText(), dateWeather));
+                indexes.add(i);
+            } catch (WeatherException e) {
+                results[i] = failure(i, e.getErrorCode(), e.getErrorMessage());
+            }
         }
-        Map<String, Object> resultMap = new HashMap<>();
 
-        JSONObject mainData = (JSONObject) jsonObject.get("main");
-        resultMap.put("temp", mainData.get("temp"));
-        JSONArray weatherArray = (JSONArray) jsonObject.get("weather");
-        JSONObject weatherData = (JSONObject) weatherArray.get(0);
-        resultMap.put("main", weatherData.get("main"));
-        resultMap.put("icon", weatherData.get("icon"));
+        insertDiaries(diaries, indexes, results);
 
-        return resultMap;
+        int createdCount = (int) Arrays.stream(results).filter(CreateDiaryResult::isSuccess).count();
+        return BulkCreateDiaryResponse.builder()
+                .createdCount(createdCount)
+                .failedCount(results.length - createdCount)
+                .results(Arrays.asList(results))
+                .build();
     }
 
-    private String getUrlResult(String apiUrl) {
-        try {
-            URL url = new URL(apiUrl);
-            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-            connection.setRequestMethod("GET");
-            int responseCode = connection.getResponseCode();
-
-            BufferedReader br;
-            if (responseCode == 200) {
-                br = new BufferedReader(new InputStreamReader(connection.getInputStream()));
-            } else {
-                br = new BufferedReader(new InputStreamReader(connection.getErrorStream()));
+    private DateWeather resolveDateWeather(DateWeatherId id,
+                                           Map<DateWeatherId, DateWeather> weatherById,
+                                           Map<DateWeatherId, WeatherException> failedIds) {
+        WeatherException failed = failedIds.get(id);
+        if (failed != null) {
+            throw failed;
+        }
+
+        DateWeather dateWeather = weatherById.get(id);
+        if (dateWeather == null) {
+            try {
+                dateWeather = getDateWeather(id.getCity(), id.getDate());
+            } catch (WeatherException e) {
+                failedIds.put(id, e);
+                throw e;
             }
+            weatherById.put(id, dateWeather);
+        }
+        return dateWeather;
+    }
+
+    private void insertDiaries(List<Diary> diaries, List<Integer> indexes, CreateDiaryResult[] results) {
+        if (diaries.isEmpty()) {
+            return;
+        }
 
-            String inputLine;
-            StringBuilder response = new StringBuilder();
-            while ((inputLine = br.readLine()) != null) {
-                response.append(inputLine);
+        try {
+            diaryWriter.insertAll(diaries);
+            indexes.forEach(i -> results[i] = success(i));
+        } catch (DataAccessException e) {
+            // 배치 중 하나라도 실패하면 전체가 롤백되므로, 한 건씩 다시 넣어서 실패한 항목만 골라낸다.
+            log.warn("batch insert failed, retrying {} diaries one by one", diaries.size());
+            for (int i = 0; i < diaries.size(); i++) {
+                int index = indexes.get(i);
+                try {
+                    diaryWriter.insertAll(List.of(diaries.get(i)));
+                    results[index] = success(index);
+                } catch (DataAccessException ex) {
+                    results[index] = failure(index, ErrorCode.INTERNAL_SERVER_ERROR,
+                            ex.getMostSpecificCause().getMessage());
+                }
             }
-            br.close();
+        }
+    }
 
-            return response.toString();
+    private static CreateDiaryResult success(int index) {
+        return CreateDiaryResult.builder()
+                .index(index)
+                .success(true)
+                .build();
+    }
+
+    private static CreateDiaryResult failure(int index, ErrorCode errorCode, String errorMessage) {
+        return CreateDiaryResult.builder()
+                .index(index)
+                .success(false)
+                .errorCode(errorCode)
+                .errorMessage(errorMessage)
+                .build();
+    }
+
+    static void validateDate(LocalDate date) {
+        if (date == null || date.isAfter(LocalDate.ofYearDay(3050, 1))) {
+            throw new WeatherException(ErrorCode.INVALIDED_DATE);
+        }
+    }
 
-        } catch (Exception e) {
-            return "failed to get response";
+    // diary.text 는 VARCHAR(500) NOT NULL
+    static void validateText(String text) {
+        if (text == null || text.codePointCount(0, text.length()) > MAX_TEXT_LENGTH) {
+            throw new WeatherException(ErrorCode.INVALID_DIARY_TEXT);
         }
     }
 
-    private String getCoordinateString() {
+    static Diary newDiary(LocalDate date, String text, DateWeather dateWeather) {
+        return Diary.builder()
+                .weather(dateWeather.getWeather())
+                .icon(dateWeather.getIcon())
+                .temperature(dateWeather.getTemperature())
+                .text(text)
+                .date(date)
+                .city(dateWeather.getCity())
+                .weatherStale(dateWeather.isStale())
+                .build();
+    }
+
+    private String getCoordinateString(String city) {
         String apiUrl = geoUrl
-                .replace("{city}", city)
+                .replace("{city}", URLEncoder.encode(city, StandardCharsets.UTF_8))
                 .replace("{key}", apiKey);
 
-        return getUrlResult(apiUrl);
+        return weatherHttpClient.get(apiUrl);
     }
 
-    private String getWeatherString(Coordinate coordinate) {
+    private String getWeatherString(GeoCoordinate coordinate) {
         String apiUrl = weatherUrl
-                .replace("{lat}", String.valueOf(coordinate.lat))
-                .replace("{lon}", String.valueOf(coordinate.lon))
+                .replace("{lat}", String.valueOf(coordinate.getLat()))
+                .replace("{lon}", String.valueOf(coordinate.getLon()))
                 .replace("{key}", apiKey);
 
-        return getUrlResult(apiUrl);
+        return weatherHttpClient.get(apiUrl);
     }
 
-    @Transactional(readOnly = true)
+    private String getHistoricalWeatherString(GeoCoordinate coordinate, LocalDate date) {
+        // 그 날 정오(서버 시간대)의 관측값을 요청한다.
+        long dt = date.atTime(LocalTime.NOON).atZone(ZoneId.systemDefault()).toEpochSecond();
+        String apiUrl = historyUrl
+                .replace("{lat}", String.valueOf(coordinate.getLat()))
+                .replace("{lon}", String.valueOf(coordinate.getLon()))
+                .replace("{dt}", String.valueOf(dt))
+                .replace("{key}", apiKey);
+
+        return weatherHttpClient.get(apiUrl);
+    }
+
+    // 캐시 hit 에서는 커넥션을 잡지 않도록 트랜잭션 없이 실행한다. (findAllByDate 는 자체 읽기 트랜잭션)
+    // 캐시에 담는 목록은 복제본이 아닌 primary 에서 읽는다. 늦은 복제본에서 읽은 목록이 다음 쓰기까지 남지 않도록.
     public List<Diary> readDiary(LocalDate date) {
-        return diaryRepository.findAllByDate(date);
+        return diaryCache.get(date, d -> ReplicaRoutingDataSource.onPrimary(() -> diaryRepository.findAllByDate(d)));
     }
 
     @Transactional(readOnly = true)
@@ -187,34 +352,85 @@ public class DiaryService {
         return diaryRepository.findAllByDateBetween(startDate, endDate);
     }
 
-    @Transactional
-    public Diary updateDiary(LocalDate date, String text) {
-        Diary nowDiary = diaryRepository.getFirstByDate(date);
-        nowDiary.setText(text);
-        return diaryRepository.save(nowDiary);
+    @Transactional(readOnly = true)
+    public DiaryPage readDiaryPage(LocalDate startDate, LocalDate endDate, String cursor, int size) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        DiaryCursor after = cursor == null
+                ? new DiaryCursor(startDate, Integer.MIN_VALUE)
+                : DiaryCursor.decode(cursor);
+
+        // 다음 페이지가 있는지 알기 위해 한 건 더 읽는다.
+        List<Diary> diaries = diaryRepository.findPageAfter(startDate, endDate,
+                after.date(), after.id(), PageRequest.of(0, pageSize + 1));
+        if (diaries.size() <= pageSize) {
+            return new DiaryPage(diaries, null);
+        }
+
+        List<Diary> page = diaries.subList(0, pageSize);
+        Diary last = page.get(pageSize - 1);
+        return new DiaryPage(page, new DiaryCursor(last.getDate(), last.getId()).encode());
     }
 
-    @Transactional
-    public void deleteDiary(LocalDate date) {
-        diaryRepository.deleteAllByDate(date);
+    @Transactional(readOnly = true)
+    public void streamDiaries(LocalDate startDate, LocalDate endDate, Consumer<Diary> consumer) {
+        jdbcDiaryRepository.streamByDateBetween(startDate, endDate, consumer);
     }
 
-    @Transactional
-    @Scheduled(cron = "0 0 1 * * *")
-    public void saveWeatherDate() {
-        DateWeather dateWeather = getWeatherFromApi();
-        log.info(dateWeather.toString());
-        dateWeatherRepository.save(dateWeather);
+    // 조건부 GET 용. diary 를 읽지 않고 diary_version 만 읽는다.
+    // 트랜잭션 밖이라 primary 에서 읽으므로, 역시 primary 에서 읽는 readDiary 와 짝이 맞는다.
+    public DiaryVersion getDiaryVersion(LocalDate date) {
+        return diaryVersionRepository.find(date);
     }
 
-    private DateWeather getWeatherFromApi() {
-        Map<String, Object> parsedWeather = getWeatherData();
+    /**
+     * 기간의 변경 표시(diary_version)를 읽고, notModified 가 false 면 다이어리도 같은 readOnly 트랜잭션에서 읽습니다.
+     * 둘을 다른 DB(primary 와 복제본)에서 읽으면 새 ETag 에 이전 다이어리가 붙고, 클라이언트는 그 뒤로 304 만 받게 됩니다.
+     */
+    @Transactional(readOnly = true)
+    public VersionedDiaries readDiaries(LocalDate startDate, LocalDate endDate, Predicate<DiaryVersion> notModified) {
+        DiaryVersion version = diaryVersionRepository.findBetween(startDate, endDate);
+        if (notModified.test(version)) {
+            return new VersionedDiaries(version, null);
+        }
+        return new VersionedDiaries(version, diaryRepository.findAllByDateBetween(startDate, endDate));
+    }
+
+    public UpdateDiaryResponse updateDiary(LocalDate date, String text) {
+        int updatedCount = diaryWriter.updateFirstText(date, text);
+        return new UpdateDiaryResponse(date, text, updatedCount);
+    }
+
+    public DeleteDiaryResponse deleteDiary(LocalDate date) {
+        int deletedCount = diaryWriter.deleteAll(date);
+        return new DeleteDiaryResponse(date, deletedCount);
+    }
+
+    // 오늘 날씨를 api 에서 새로 가져와 저장한다. (WeatherPrefetchJob 이 도시별로 호출)
+    public DateWeather saveWeatherDate(String city) {
+        DateWeather dateWeather = getWeatherFromApi(resolveCity(city), LocalDate.now());
+        log.atInfo()
+                .addKeyValue("city", dateWeather.getCity())
+                .addKeyValue("date", dateWeather.getDate())
+                .addKeyValue("weather", dateWeather.getWeather())
+                .addKeyValue("temperature", dateWeather.getTemperature())
+                .log("fetched today's weather");
+        return saveDateWeather(dateWeather);
+    }
+
+    // 저장하지 않고 (city, date) 의 날씨만 가져온다. (WeatherBackfillService 가 모아서 배치로 저장)
+    public DateWeather fetchWeatherFromApi(String city, LocalDate date) {
+        return getWeatherFromApi(resolveCity(city), date);
+    }
+
+    private DateWeather getWeatherFromApi(String city, LocalDate date) {
+        WeatherObservation parsedWeather = getWeatherData(city, date);
 
         return DateWeather.builder()
-                .date(LocalDate.now())
-                .weather(parsedWeather.get("main").toString())
-                .icon(parsedWeather.get("icon").toString())
-                .temperature((double) parsedWeather.get("temp"))
+                .city(city)
+                .date(date)
+                .weather(parsedWeather.weather())
+                .icon(parsedWeather.icon())
+                .temperature(parsedWeather.temperature())
                 .build();
     }
 }
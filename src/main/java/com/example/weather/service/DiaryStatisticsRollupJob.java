@@ -0,0 +1,41 @@
+package com.example.weather.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * diary 가 바뀐 날짜(diary_version 이 집계한 version 과 다른 날짜)의 통계 집계를 다시 만듭니다.
+ * batch-size 개의 날짜씩 트랜잭션을 나눠, 바뀐 날짜가 없어질 때까지 처리합니다.
+ * 여러 노드에서 같은 날짜를 동시에 집계하면 한쪽이 키 충돌로 롤백될 수 있는데, 그 날짜는 다음 실행에서 다시 집계됩니다.
+ */
+@Component
+@Slf4j
+public class DiaryStatisticsRollupJob {
+    private final DiaryStatisticsService diaryStatisticsService;
+    private final int batchSize;
+
+    public DiaryStatisticsRollupJob(DiaryStatisticsService diaryStatisticsService,
+                                    @Value("${weather.statistics.rollup-batch-size:500}") int batchSize) {
+        this.diaryStatisticsService = diaryStatisticsService;
+        this.batchSize = batchSize;
+    }
+
+    // 다시 집계한 날짜 수를 돌려준다.
+    @Scheduled(fixedDelayString = "${weather.statistics.rollup-interval:PT10S}",
+            initialDelayString = "${weather.statistics.rollup-interval:PT10S}")
+    public int rollup() {
+        int rolledUpCount = 0;
+        int batchCount;
+        do {
+            batchCount = diaryStatisticsService.rollup(batchSize);
+            rolledUpCount += batchCount;
+        } while (batchCount == batchSize);
+
+        if (rolledUpCount > 0) {
+            log.info("rolled up statistics of {} days", rolledUpCount);
+        }
+        return rolledUpCount;
+    }
+}
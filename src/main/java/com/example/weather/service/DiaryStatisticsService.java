@@ -0,0 +1,51 @@
+package com.example.weather.service;
+
+import com.example.weather.dto.WeatherStatistics;
+import com.example.weather.exception.WeatherException;
+import com.example.weather.repository.DiaryStatisticsRepository;
+import com.example.weather.type.ErrorCode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 기간 통계는 diary 가 아닌 날짜별 / 월별 집계에서 읽습니다. 10 년 기간도 월별 120 row 와 앞뒤 날짜 몇 row 만 읽습니다.
+ * 집계는 DiaryStatisticsRollupJob 이 diary 가 바뀐 날짜만 다시 만들므로, 바뀐 뒤 rollup-interval 정도 늦게 반영됩니다.
+ */
+@Service
+@RequiredArgsConstructor
+public class DiaryStatisticsService {
+    private final DiaryStatisticsRepository diaryStatisticsRepository;
+
+    @Transactional(readOnly = true)
+    public WeatherStatistics getStatistics(LocalDate startDate, LocalDate endDate) {
+        if (startDate.isAfter(endDate)) {
+            throw new WeatherException(ErrorCode.INVALID_DATE_RANGE);
+        }
+        return diaryStatisticsRepository.summarize(startDate, endDate);
+    }
+
+    /**
+     * 바뀐 날짜를 limit 개까지 다시 집계하고 그 날짜들이 속한 달의 집계도 다시 만듭니다. 집계한 날짜 수를 돌려줍니다.
+     * 날짜별 집계가 커밋된 diary 만 보도록 READ_COMMITTED 로 실행합니다.
+     */
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    public int rollup(int limit) {
+        Map<LocalDate, Long> staleDays = diaryStatisticsRepository.findStaleDays(limit);
+        if (staleDays.isEmpty()) {
+            return 0;
+        }
+
+        diaryStatisticsRepository.rollupDays(staleDays);
+        Set<YearMonth> months = staleDays.keySet().stream().map(YearMonth::from).collect(Collectors.toSet());
+        diaryStatisticsRepository.rollupMonths(months);
+        return staleDays.size();
+    }
+}
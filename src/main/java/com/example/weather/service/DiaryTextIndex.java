@@ -0,0 +1,553 @@
+package com.example.weather.service;
+
+import com.example.weather.config.ReplicaRoutingDataSource;
+import com.example.weather.domain.Diary;
+import com.example.weather.repository.DiaryVersionRepository;
+import com.example.weather.repository.JdbcDiaryRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * diary text 검색용 메모리 역색인. 단어 -> 그 단어가 든 diary 목록.
+ * <p>
+ * 단어는 글자/숫자가 이어진 덩어리를 소문자로 바꾼 것이고, 한글이 든 덩어리는 두 글자씩 잘라 씁니다.
+ * "날씨가", "날씨는" 처럼 조사가 붙어도 "날씨" 로 찾을 수 있도록. (MySQL ngram parser 와 같은 방식)
+ * 검색어의 단어가 하나라도 든 diary 를 BM25 점수 순서로 돌려줍니다.
+ * <p>
+ * diary 는 색인할 때마다 새 순번(ordinal)을 받고, posting 은 순번 순서로 쌓입니다.
+ * 그래서 검색은 단어들의 posting 을 뒤에서부터 한 번씩 합쳐 읽기만 하고, 점수를 모아 둘 맵이 필요 없습니다.
+ * <p>
+ * 시작할 때 diary 전체로 만들고, 그 뒤로는 DiaryWriter 가 알려 준 날짜의 diary 를 커밋 뒤에 worker 스레드 하나가 다시 읽어 고칩니다.
+ * 다시 읽기는 한 번에 하나씩 하므로, 나중에 적용되는 쪽이 항상 나중에 커밋된 diary 를 봅니다.
+ * 색인은 노드마다 따로 가지므로, 다른 노드가 바꾼 diary 는 diary_version 을 poll 해서 index-poll-interval 안에 반영합니다.
+ */
+@Component
+@Slf4j
+public class DiaryTextIndex {
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    // 지워지거나 바뀐 diary 의 순번이 이보다 많고 절반을 넘으면 순번을 다시 매긴다.
+    private static final int MIN_DEAD_ORDINALS = 1024;
+
+    public record Hit(int id, double score) {
+    }
+
+    // totalCount 는 기간 안에서 검색어에 걸린 diary 수
+    public record Result(long totalCount, List<Hit> hits) {
+    }
+
+    // terms[i] 가 text 에 tfs[i] 번 나온다.
+    private record Document(int id, int ordinal, LocalDate date, String[] terms, int[] tfs, int length) {
+        private Document withOrdinal(int ordinal) {
+            return new Document(id, ordinal, date, terms, tfs, length);
+        }
+    }
+
+    // version 을 diary 보다 먼저 읽으므로, version 이 diary 보다 늦을 수는 없다.
+    private record Snapshot(Map<LocalDate, Long> versions, List<Diary> diaries) {
+    }
+
+    // 점수가 높은 순서, 같으면 나중에 색인된 diary 먼저
+    private record Candidate(int ordinal, double score) {
+        private boolean ranksAbove(Candidate other) {
+            return score > other.score || (score == other.score && ordinal > other.ordinal);
+        }
+    }
+
+    // 한 단어의 posting. 순번 순서다. 바뀌거나 지워진 diary 의 항목은 바로 지우지 않고, 읽을 때 live 로 걸러낸다.
+    private static final class Postings {
+        private int[] ordinals = new int[4];
+        private int[] tfs = new int[4];
+        // 기간 조건을 posting 에서 바로 본다.
+        private int[] days = new int[4];
+        private int size;
+        private int stale;
+
+        private void add(int ordinal, int tf, int day) {
+            if (size == ordinals.length) {
+                int capacity = size * 2;
+                ordinals = Arrays.copyOf(ordinals, capacity);
+                tfs = Arrays.copyOf(tfs, capacity);
+                days = Arrays.copyOf(days, capacity);
+            }
+            ordinals[size] = ordinal;
+            tfs[size] = tf;
+            days[size] = day;
+            size++;
+        }
+
+        private int liveCount() {
+            return size - stale;
+        }
+
+        // 살아 있는 순번의 항목만 남기고 순번을 remap 으로 바꾼다. (remap 이 null 이면 그대로)
+        private void compact(boolean[] live, int[] remap) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                int ordinal = ordinals[i];
+                if (live[ordinal]) {
+                    ordinals[kept] = remap == null ? ordinal : remap[ordinal];
+                    tfs[kept] = tfs[i];
+                    days[kept] = days[i];
+                    kept++;
+                }
+            }
+            size = kept;
+            stale = 0;
+        }
+    }
+
+    private final JdbcDiaryRepository jdbcDiaryRepository;
+    private final DiaryVersionRepository diaryVersionRepository;
+    private final TransactionTemplate readTransaction;
+    // DB 를 다시 읽는 스레드. 커밋한 요청 스레드가 자기 커넥션을 쥔 채 새 커넥션을 기다리지 않도록 따로 읽는다.
+    private final Executor worker;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Integer, Document> documents = new HashMap<>();
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<LocalDate, Set<Integer>> idsByDate = new HashMap<>();
+    // 순번별 diary id, 단어 수, 지금 색인에 있는지
+    private int[] ordinalIds = new int[1024];
+    private int[] ordinalLengths = new int[1024];
+    private boolean[] live = new boolean[1024];
+    private int ordinalCount;
+    private long totalLength;
+
+    // 날짜별로 색인에 반영한 diary_version. poll 이 DB 와 비교한다.
+    private final Map<LocalDate, Long> indexedVersions = new ConcurrentHashMap<>();
+    // 다시 색인할 날짜. worker 가 꺼내 간다. 다시 읽지 못한 날짜는 여기로 돌아와 다음 write / poll 때 다시 읽는다.
+    private final Set<LocalDate> pendingDates = new HashSet<>();
+    private boolean draining;
+    // rebuild 와 reindex 가 겹치지 않도록
+    private final Object indexing = new Object();
+
+    @Autowired
+    public DiaryTextIndex(JdbcDiaryRepository jdbcDiaryRepository,
+                          DiaryVersionRepository diaryVersionRepository,
+                          PlatformTransactionManager transactionManager) {
+        this(jdbcDiaryRepository, diaryVersionRepository, transactionManager,
+                Executors.newSingleThreadExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "diary-text-index");
+                    thread.setDaemon(true);
+                    return thread;
+                }));
+    }
+
+    DiaryTextIndex(JdbcDiaryRepository jdbcDiaryRepository,
+                   DiaryVersionRepository diaryVersionRepository,
+                   PlatformTransactionManager transactionManager,
+                   Executor worker) {
+        this.jdbcDiaryRepository = jdbcDiaryRepository;
+        this.diaryVersionRepository = diaryVersionRepository;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.worker = worker;
+    }
+
+    /**
+     * diary 전체로 색인을 다시 만듭니다. 만드는 동안 검색과 reindex 는 기다립니다.
+     */
+    @PostConstruct
+    public void rebuild() {
+        synchronized (indexing) {
+            // version 을 diary 보다 먼저 읽는다. 그 사이 바뀐 날짜는 version 이 달라 poll 에서 다시 색인된다.
+            Map<LocalDate, Long> versions = diaryVersionRepository.findAllVersions();
+            lock.writeLock().lock();
+            try {
+                documents.clear();
+                postings.clear();
+                idsByDate.clear();
+                Arrays.fill(live, 0, ordinalCount, false);
+                ordinalCount = 0;
+                totalLength = 0;
+                jdbcDiaryRepository.forEach(this::put);
+            } finally {
+                lock.writeLock().unlock();
+            }
+            indexedVersions.clear();
+            indexedVersions.putAll(versions);
+        }
+        log.atInfo().addKeyValue("documents", size()).log("built diary text index");
+    }
+
+    /**
+     * 현재 트랜잭션이 날짜들의 diary 를 바꿨습니다. 커밋되면 그 날짜들을 worker 에서 다시 색인하고, 롤백되면 그대로 둡니다.
+     * 트랜잭션이 없으면 바로 worker 에 넘깁니다. 어느 쪽이든 호출한 스레드는 DB 를 읽지 않습니다.
+     */
+    public void write(Collection<LocalDate> dates) {
+        Set<LocalDate> changed = new HashSet<>(dates);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enqueue(changed);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                enqueue(changed);
+            }
+        });
+    }
+
+    /**
+     * diary_version 이 색인한 version 과 다른 날짜를 다시 색인합니다.
+     * 다른 노드가 바꾼 diary 와, 이 노드에서 다시 읽지 못해 남아 있던 날짜가 여기서 반영됩니다.
+     */
+    @Scheduled(fixedDelayString = "${weather.search.index-poll-interval:PT5S}",
+            initialDelayString = "${weather.search.index-poll-interval:PT5S}")
+    public void poll() {
+        Map<LocalDate, Long> versions;
+        try {
+            versions = diaryVersionRepository.findAllVersions();
+        } catch (DataAccessException e) {
+            log.atWarn().setCause(e).log("failed to poll diary versions");
+            return;
+        }
+
+        Set<LocalDate> stale = new HashSet<>();
+        versions.forEach((date, version) -> {
+            if (!version.equals(indexedVersions.get(date))) {
+                stale.add(date);
+            }
+        });
+        enqueue(stale);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (worker instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    // 날짜들을 pendingDates 에 넣고, worker 가 비우고 있지 않으면 비우게 한다.
+    private void enqueue(Set<LocalDate> dates) {
+        synchronized (pendingDates) {
+            pendingDates.addAll(dates);
+            if (draining || pendingDates.isEmpty()) {
+                return;
+            }
+            draining = true;
+        }
+
+        try {
+            worker.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            // 종료 중. 남은 날짜는 다음 시작 때 rebuild 로 반영된다.
+            synchronized (pendingDates) {
+                draining = false;
+            }
+        }
+    }
+
+    private void drain() {
+        while (true) {
+            Set<LocalDate> dates;
+            synchronized (pendingDates) {
+                if (pendingDates.isEmpty()) {
+                    draining = false;
+                    return;
+                }
+                dates = new HashSet<>(pendingDates);
+                pendingDates.clear();
+            }
+
+            try {
+                reindex(dates);
+            } catch (RuntimeException e) {
+                // 커밋은 이미 끝났으므로 쓰기에는 알리지 않는다. 그 날짜들은 다음 write / poll 까지 이전 diary 로 검색된다.
+                log.atWarn().addKeyValue("dates", dates.size()).setCause(e).log("failed to reindex diaries");
+                synchronized (pendingDates) {
+                    pendingDates.addAll(dates);
+                    draining = false;
+                }
+                return;
+            }
+        }
+    }
+
+    // worker 에서만 부른다. 날짜들의 version 과 diary 를 한 트랜잭션에서 읽어 색인을 고친다.
+    private void reindex(Set<LocalDate> dates) {
+        synchronized (indexing) {
+            // 방금 커밋된 diary 를 봐야 하므로 복제본이 아닌 primary 에서 읽는다.
+            Snapshot snapshot = ReplicaRoutingDataSource.onPrimary(() -> readTransaction.execute(status -> new Snapshot(
+                    diaryVersionRepository.findVersions(dates), jdbcDiaryRepository.findAllByDateIn(dates))));
+
+            Map<LocalDate, List<Diary>> diariesByDate = snapshot.diaries().stream()
+                    .collect(Collectors.groupingBy(Diary::getDate));
+            lock.writeLock().lock();
+            try {
+                for (LocalDate date : dates) {
+                    replace(date, diariesByDate.getOrDefault(date, List.of()));
+                }
+                int deadCount = ordinalCount - documents.size();
+                if (deadCount > MIN_DEAD_ORDINALS && deadCount > documents.size()) {
+                    renumber();
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            for (LocalDate date : dates) {
+                Long version = snapshot.versions().get(date);
+                if (version == null) {
+                    indexedVersions.remove(date);
+                } else {
+                    indexedVersions.put(date, version);
+                }
+            }
+        }
+    }
+
+    /**
+     * 검색어 단어(tokenize)가 하나라도 든 diary 중 [startDate, endDate] 에 쓴 것을 순위 순서로 offset 부터 limit 개 돌려줍니다.
+     * 기간의 앞뒤가 null 이면 그쪽은 제한하지 않습니다.
+     */
+    public Result search(Collection<String> terms, LocalDate startDate, LocalDate endDate, int offset, int limit) {
+        int startDay = startDate == null ? Integer.MIN_VALUE : (int) startDate.toEpochDay();
+        int endDay = endDate == null ? Integer.MAX_VALUE : (int) endDate.toEpochDay();
+        int top = offset + limit;
+
+        lock.readLock().lock();
+        try {
+            int documentCount = documents.size();
+            if (documentCount == 0) {
+                return new Result(0, List.of());
+            }
+            double averageLength = (double) totalLength / documentCount;
+
+            List<Postings> lists = new ArrayList<>();
+            for (String term : new LinkedHashSet<>(terms)) {
+                Postings termPostings = postings.get(term);
+                if (termPostings != null) {
+                    lists.add(termPostings);
+                }
+            }
+            double[] idfs = new double[lists.size()];
+            for (int i = 0; i < idfs.length; i++) {
+                int df = lists.get(i).liveCount();
+                idfs[i] = Math.log(1 + (documentCount - df + 0.5) / (df + 0.5));
+            }
+
+            // 순번이 큰 쪽부터 합친다. 같은 점수면 먼저 본 diary 가 앞이므로, 뒤에 본 diary 로 자리를 바꿀 일이 없다.
+            int[] cursors = new int[lists.size()];
+            for (int i = 0; i < cursors.length; i++) {
+                cursors[i] = lists.get(i).size - 1;
+            }
+            // 순위가 가장 낮은 것이 맨 위
+            Comparator<Candidate> lowestFirst = (a, b) -> a.ranksAbove(b) ? 1 : b.ranksAbove(a) ? -1 : 0;
+            PriorityQueue<Candidate> heap = new PriorityQueue<>(top + 1, lowestFirst);
+            long totalCount = 0;
+            while (true) {
+                int ordinal = -1;
+                for (int i = 0; i < cursors.length; i++) {
+                    if (cursors[i] >= 0) {
+                        ordinal = Math.max(ordinal, lists.get(i).ordinals[cursors[i]]);
+                    }
+                }
+                if (ordinal < 0) {
+                    break;
+                }
+
+                double score = 0;
+                boolean matched = false;
+                for (int i = 0; i < cursors.length; i++) {
+                    Postings termPostings = lists.get(i);
+                    int cursor = cursors[i];
+                    if (cursor < 0 || termPostings.ordinals[cursor] != ordinal) {
+                        continue;
+                    }
+                    cursors[i]--;
+                    int day = termPostings.days[cursor];
+                    if (!live[ordinal] || day < startDay || day > endDay) {
+                        continue;
+                    }
+                    int tf = termPostings.tfs[cursor];
+                    double norm = K1 * (1 - B + B * ordinalLengths[ordinal] / averageLength);
+                    score += idfs[i] * tf * (K1 + 1) / (tf + norm);
+                    matched = true;
+                }
+                if (!matched) {
+                    continue;
+                }
+
+                totalCount++;
+                if (heap.size() < top) {
+                    heap.add(new Candidate(ordinal, score));
+                } else if (score > heap.peek().score()) {
+                    heap.poll();
+                    heap.add(new Candidate(ordinal, score));
+                }
+            }
+
+            List<Candidate> ranked = new ArrayList<>(heap);
+            ranked.sort(lowestFirst.reversed());
+            List<Hit> hits = new ArrayList<>(Math.max(ranked.size() - offset, 0));
+            for (int i = offset; i < ranked.size(); i++) {
+                hits.add(new Hit(ordinalIds[ranked.get(i).ordinal()], ranked.get(i).score()));
+            }
+            return new Result(totalCount, hits);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 글자/숫자가 이어진 덩어리를 소문자로 바꿔 단어로 씁니다. 한글이 든 세 글자 이상 덩어리는 두 글자씩 겹쳐 자릅니다.
+     * ("오늘은 맑음" -> 오늘, 늘은, 맑음)
+     */
+    public static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        boolean hangul = false;
+        for (int i = 0; i <= lower.length(); i++) {
+            char c = i < lower.length() ? lower.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                if (start < 0) {
+                    start = i;
+                    hangul = false;
+                }
+                hangul |= Character.UnicodeScript.of(c) == Character.UnicodeScript.HANGUL;
+            } else if (start >= 0) {
+                String word = lower.substring(start, i);
+                if (hangul && word.length() > 2) {
+                    for (int j = 0; j + 2 <= word.length(); j++) {
+                        terms.add(word.substring(j, j + 2));
+                    }
+                } else {
+                    terms.add(word);
+                }
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    // 날짜의 diary 를 diaries 로 바꾼다. 아래 메서드들은 write lock 을 잡고 호출한다.
+    private void replace(LocalDate date, List<Diary> diaries) {
+        Set<Integer> ids = diaries.stream().map(Diary::getId).collect(Collectors.toSet());
+        Set<Integer> indexed = idsByDate.get(date);
+        if (indexed != null) {
+            for (Integer id : List.copyOf(indexed)) {
+                if (!ids.contains(id)) {
+                    remove(documents.get(id));
+                }
+            }
+        }
+        diaries.forEach(this::put);
+    }
+
+    private void put(Diary diary) {
+        Map<String, Integer> frequencies = new TreeMap<>();
+        List<String> tokens = tokenize(diary.getText());
+        tokens.forEach(term -> frequencies.merge(term, 1, Integer::sum));
+        String[] terms = frequencies.keySet().toArray(String[]::new);
+        int[] tfs = frequencies.values().stream().mapToInt(Integer::intValue).toArray();
+
+        Document existing = documents.get(diary.getId());
+        if (existing != null) {
+            // 날씨만 바뀐 diary 는 그대로 둔다.
+            if (existing.date().equals(diary.getDate())
+                    && Arrays.equals(existing.terms(), terms) && Arrays.equals(existing.tfs(), tfs)) {
+                return;
+            }
+            remove(existing);
+        }
+
+        if (ordinalCount == ordinalIds.length) {
+            int capacity = ordinalCount * 2;
+            ordinalIds = Arrays.copyOf(ordinalIds, capacity);
+            ordinalLengths = Arrays.copyOf(ordinalLengths, capacity);
+            live = Arrays.copyOf(live, capacity);
+        }
+        int ordinal = ordinalCount++;
+        ordinalIds[ordinal] = diary.getId();
+        ordinalLengths[ordinal] = tokens.size();
+        live[ordinal] = true;
+
+        Document document = new Document(diary.getId(), ordinal, diary.getDate(), terms, tfs, tokens.size());
+        documents.put(document.id(), document);
+        idsByDate.computeIfAbsent(document.date(), date -> new HashSet<>()).add(document.id());
+        totalLength += document.length();
+        int day = (int) document.date().toEpochDay();
+        for (int i = 0; i < terms.length; i++) {
+            postings.computeIfAbsent(terms[i], term -> new Postings()).add(ordinal, tfs[i], day);
+        }
+    }
+
+    private void remove(Document document) {
+        documents.remove(document.id());
+        live[document.ordinal()] = false;
+        Set<Integer> ids = idsByDate.get(document.date());
+        ids.remove(document.id());
+        if (ids.isEmpty()) {
+            idsByDate.remove(document.date());
+        }
+        totalLength -= document.length();
+
+        for (String term : document.terms()) {
+            Postings termPostings = postings.get(term);
+            termPostings.stale++;
+            if (termPostings.liveCount() == 0) {
+                postings.remove(term);
+            } else if (termPostings.stale > termPostings.size / 2) {
+                termPostings.compact(live, null);
+            }
+        }
+    }
+
+    // 살아 있는 순번만 앞에서부터 다시 매긴다. 순서는 그대로이므로 posting 도 순번 순서를 유지한다.
+    private void renumber() {
+        int[] remap = new int[ordinalCount];
+        int next = 0;
+        for (int ordinal = 0; ordinal < ordinalCount; ordinal++) {
+            if (live[ordinal]) {
+                remap[ordinal] = next;
+                ordinalIds[next] = ordinalIds[ordinal];
+                ordinalLengths[next] = ordinalLengths[ordinal];
+                next++;
+            }
+        }
+        for (Postings termPostings : postings.values()) {
+            termPostings.compact(live, remap);
+        }
+        documents.replaceAll((id, document) -> document.withOrdinal(remap[document.ordinal()]));
+        Arrays.fill(live, 0, ordinalCount, false);
+        Arrays.fill(live, 0, next, true);
+        ordinalCount = next;
+    }
+}
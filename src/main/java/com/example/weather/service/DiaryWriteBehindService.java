@@ -0,0 +1,298 @@
+package com.example.weather.service;
+
+import com.example.weather.domain.DateWeather;
+import com.example.weather.domain.Diary;
+import com.example.weather.dto.DiaryReceipt;
+import com.example.weather.exception.BackpressureException;
+import com.example.weather.exception.WeatherException;
+import com.example.weather.repository.WriteBehindCheckpointRepository;
+import com.example.weather.type.ErrorCode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * createDiary 의 write-behind 모드. (weather.diary.write-behind.enabled=true 일 때만 동작)
+ * <p>
+ * 날씨를 붙인 diary 를 로컬 append 로그에 남기고(fsync) 크기가 정해진 큐에 넣은 뒤 바로 접수 번호를 돌려줍니다.
+ * fsync 가 실패해도 접수는 되므로 실패로 답하지 않고, 접수 번호의 durable 을 false 로 돌려줍니다.
+ * 하나의 flush 스레드가 큐에서 batch-size 개씩 꺼내 한 트랜잭션으로 넣고, 같은 트랜잭션에서 checkpoint 를 올립니다.
+ * <p>
+ * 큐가 가득 차면 offer-timeout 만큼 기다렸다가 BackpressureException(503)으로 거절합니다.
+ * 재시작하면 로그에서 checkpoint 뒤의 diary 를 다시 큐에 넣으므로, 죽기 전에 접수한 diary 는 잃지도 두 번 넣지도 않습니다.
+ */
+@Service
+@Slf4j
+public class DiaryWriteBehindService {
+    private final DiaryService diaryService;
+    private final DiaryWriter diaryWriter;
+    private final WriteBehindCheckpointRepository checkpointRepository;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final int capacity;
+    private final int batchSize;
+    private final Duration offerTimeout;
+    private final Duration retryAfter;
+    private final Duration flushInterval;
+    private final Duration retryBackoff;
+    private final boolean fsync;
+    private final Path logDirectory;
+    private final long segmentBytes;
+
+    // 큐 자리. 접수할 때 잡고 DB 에 반영된 뒤 돌려준다. start 에서 로그에 남은 diary 만큼 잡은 채로 다시 만든다.
+    private Semaphore permits;
+    private final BlockingQueue<DiaryAppendLog.Entry> queue = new LinkedBlockingQueue<>();
+
+    private DiaryAppendLog appendLog;
+    private Thread flusher;
+    private volatile boolean running;
+
+    @Autowired
+    public DiaryWriteBehindService(DiaryService diaryService,
+                                   DiaryWriter diaryWriter,
+                                   WriteBehindCheckpointRepository checkpointRepository,
+                                   ObjectMapper objectMapper,
+                                   @Value("${weather.diary.write-behind.enabled:false}") boolean enabled,
+                                   @Value("${weather.diary.write-behind.queue-capacity:10000}") int capacity,
+                                   @Value("${weather.diary.write-behind.batch-size:500}") int batchSize,
+                                   @Value("${weather.diary.write-behind.offer-timeout:50ms}") Duration offerTimeout,
+                                   @Value("${weather.diary.write-behind.retry-after:1s}") Duration retryAfter,
+                                   @Value("${weather.diary.write-behind.flush-interval:100ms}") Duration flushInterval,
+                                   @Value("${weather.diary.write-behind.fsync:true}") boolean fsync,
+                                   @Value("${weather.diary.write-behind.log-dir:./data/diary-write-behind}") Path logDirectory,
+                                   @Value("${weather.diary.write-behind.segment-size:16MB}") DataSize segmentSize) {
+        this(diaryService, diaryWriter, checkpointRepository, objectMapper, enabled, capacity, batchSize,
+                offerTimeout, retryAfter, flushInterval, Duration.ofSeconds(1), fsync, logDirectory, segmentSize.toBytes());
+    }
+
+    DiaryWriteBehindService(DiaryService diaryService,
+                            DiaryWriter diaryWriter,
+                            WriteBehindCheckpointRepository checkpointRepository,
+                            ObjectMapper objectMapper,
+                            boolean enabled,
+                            int capacity,
+                            int batchSize,
+                            Duration offerTimeout,
+                            Duration retryAfter,
+                            Duration flushInterval,
+                            Duration retryBackoff,
+                            boolean fsync,
+                            Path logDirectory,
+                            long segmentBytes) {
+        this.diaryService = diaryService;
+        this.diaryWriter = diaryWriter;
+        this.checkpointRepository = checkpointRepository;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.offerTimeout = offerTimeout;
+        this.retryAfter = retryAfter;
+        this.flushInterval = flushInterval;
+        this.retryBackoff = retryBackoff;
+        this.fsync = fsync;
+        this.logDirectory = logDirectory;
+        this.segmentBytes = segmentBytes;
+        this.permits = new Semaphore(capacity);
+    }
+
+    @PostConstruct
+    void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+
+        appendLog = new DiaryAppendLog(logDirectory, segmentBytes, objectMapper);
+        long checkpoint = checkpointRepository.find(appendLog.getLogId());
+        List<DiaryAppendLog.Entry> replayed = new ArrayList<>();
+        appendLog.open(checkpoint, replayed::add);
+        // 다시 넣는 diary 도 자리를 차지한다. capacity 를 줄이고 재시작해 자리보다 많으면, 모자란 만큼 반영된 뒤에 새 diary 를 받는다.
+        permits = new Semaphore(capacity - replayed.size());
+        queue.addAll(replayed);
+        if (!replayed.isEmpty()) {
+            log.info("replaying {} diaries from write-behind log {} after seq {}",
+                    replayed.size(), appendLog.getLogId(), checkpoint);
+        }
+
+        running = true;
+        flusher = new Thread(this::flushLoop, "diary-write-behind");
+        flusher.start();
+    }
+
+    public DiaryReceipt accept(LocalDate date, String city, String text) {
+        if (!running) {
+            throw new WeatherException(ErrorCode.WRITE_BEHIND_DISABLED);
+        }
+        DiaryService.validateDate(date);
+        // 반영할 때 diary 테이블에 들어가지 않을 text 는 접수 전에 거절한다. 접수한 뒤에는 클라이언트가 알 수 없다.
+        DiaryService.validateText(text);
+        DateWeather dateWeather = diaryService.getDateWeather(city, date);
+        Diary diary = DiaryService.newDiary(date, text, dateWeather);
+
+        acquirePermit();
+        long seq;
+        try {
+            // 로그 순번과 큐 순서가 같아야 checkpoint(여기까지 반영됨)가 맞는다.
+            synchronized (this) {
+                seq = appendLog.append(diary);
+                queue.add(DiaryAppendLog.Entry.of(seq, diary));
+            }
+        } catch (IOException e) {
+            permits.release();
+            throw new UncheckedIOException(e);
+        }
+
+        boolean durable = false;
+        if (fsync) {
+            try {
+                appendLog.sync(seq);
+                durable = true;
+            } catch (IOException e) {
+                // 큐에는 이미 들어갔으므로 DB 에는 반영된다. 실패로 답하면 클라이언트가 다시 보내 두 번 들어가므로,
+                // 접수는 하고 디스크에 남지 않았다는 것만 알린다.
+                log.atWarn().addKeyValue("seq", seq).setCause(e).log("failed to sync write-behind log");
+            }
+        }
+
+        return DiaryReceipt.builder()
+                .receiptId(appendLog.getLogId() + "-" + seq)
+                .date(date)
+                .city(diary.getCity())
+                .weatherStale(diary.isWeatherStale())
+                .durable(durable)
+                .build();
+    }
+
+    // 아직 DB 에 반영되지 않은 diary 수
+    public int getPendingCount() {
+        return capacity - permits.availablePermits();
+    }
+
+    private void acquirePermit() {
+        try {
+            if (!permits.tryAcquire(offerTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                throw new BackpressureException(ErrorCode.WRITE_BEHIND_QUEUE_FULL, retryAfter);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BackpressureException(ErrorCode.WRITE_BEHIND_QUEUE_FULL, retryAfter);
+        }
+    }
+
+    private void flushLoop() {
+        // 아직 반영하지 못한 diary. 반영된 것은 앞에서부터 빠진다.
+        List<DiaryAppendLog.Entry> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty() || !batch.isEmpty()) {
+            try {
+                if (batch.isEmpty()) {
+                    DiaryAppendLog.Entry first = queue.poll(flushInterval.toNanos(), TimeUnit.NANOSECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                // 남은 diary 는 로그에 있으므로 다음 시작 때 반영된다.
+                return;
+            } catch (RuntimeException e) {
+                // flush 스레드가 죽으면 대기열이 다시 비지 않는다. 남은 diary 를 잠시 뒤 다시 반영한다.
+                log.error("failed to flush {} write-behind diaries, retrying in {}", batch.size(), retryBackoff, e);
+                try {
+                    Thread.sleep(retryBackoff.toMillis());
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    // 반영될 때까지 다시 시도한다. 순서를 지켜야 하므로 다음 batch 로 넘어가지 않는다.
+    private void flush(List<DiaryAppendLog.Entry> batch) throws InterruptedException {
+        List<Diary> diaries = batch.stream().map(DiaryAppendLog.Entry::toDiary).toList();
+        long lastSeq = batch.get(batch.size() - 1).seq();
+        while (true) {
+            try {
+                diaryWriter.insertBuffered(diaries, appendLog.getLogId(), lastSeq);
+                applied(batch, batch.size());
+                return;
+            } catch (DataIntegrityViolationException e) {
+                flushOneByOne(batch);
+                return;
+            } catch (DataAccessException e) {
+                log.warn("failed to flush {} write-behind diaries, retrying in {} : {}",
+                        batch.size(), retryBackoff, e.getMessage());
+                Thread.sleep(retryBackoff.toMillis());
+            }
+        }
+    }
+
+    // 넣을 수 없는 diary 가 섞여 있으면 그것만 버리고(checkpoint 만 올린다) 나머지를 넣는다.
+    private void flushOneByOne(List<DiaryAppendLog.Entry> batch) throws InterruptedException {
+        while (!batch.isEmpty()) {
+            flushOne(batch.get(0));
+            applied(batch, 1);
+        }
+    }
+
+    private void flushOne(DiaryAppendLog.Entry entry) throws InterruptedException {
+        List<Diary> diaries = List.of(entry.toDiary());
+        while (true) {
+            try {
+                diaryWriter.insertBuffered(diaries, appendLog.getLogId(), entry.seq());
+                return;
+            } catch (DataIntegrityViolationException e) {
+                if (diaries.isEmpty()) {
+                    throw e;
+                }
+                // accept 에서 걸러내지 못한 무결성 오류. 다시 넣어도 같으므로 버린다.
+                log.error("dropped write-behind diary {}-{} : {}", appendLog.getLogId(), entry.seq(),
+                        e.getMostSpecificCause().getMessage());
+                diaries = List.of();
+            } catch (DataAccessException e) {
+                log.warn("failed to flush write-behind diary {}-{}, retrying in {} : {}",
+                        appendLog.getLogId(), entry.seq(), retryBackoff, e.getMessage());
+                Thread.sleep(retryBackoff.toMillis());
+            }
+        }
+    }
+
+    // batch 의 앞 count 개가 반영됐다. 로그와 큐 자리를 돌려준다.
+    private void applied(List<DiaryAppendLog.Entry> batch, int count) {
+        appendLog.release(batch.get(count - 1).seq());
+        permits.release(count);
+        batch.subList(0, count).clear();
+    }
+
+    @PreDestroy
+    void shutdown() throws IOException, InterruptedException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        // 남은 diary 를 반영할 시간을 준다. 다 못 하면 로그에 남아 다음 시작 때 반영된다.
+        flusher.join(Duration.ofSeconds(30).toMillis());
+        flusher.interrupt();
+        appendLog.close();
+    }
+}
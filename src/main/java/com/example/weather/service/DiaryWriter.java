@@ -0,0 +1,85 @@
+package com.example.weather.service;
+
+import com.example.weather.domain.DateWeather;
+import com.example.weather.domain.Diary;
+import com.example.weather.repository.DiaryRepository;
+import com.example.weather.repository.DiaryVersionRepository;
+import com.example.weather.repository.JdbcDiaryRepository;
+import com.example.weather.repository.WriteBehindCheckpointRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * diary 쓰기 트랜잭션.
+ * 날씨 조회(네트워크 호출)가 끝난 뒤에만 호출되므로 커넥션과 락을 잡는 시간이 짧습니다.
+ * diary 가 바뀐 날짜의 diary_version 도 같은 트랜잭션에서 올리고, 그 날짜를 DiaryCache 에서 빼고, 커밋 뒤에 DiaryTextIndex 에서 다시 색인합니다.
+ */
+@Component
+@RequiredArgsConstructor
+public class DiaryWriter {
+    private final DiaryRepository diaryRepository;
+    private final JdbcDiaryRepository jdbcDiaryRepository;
+    private final DiaryVersionRepository diaryVersionRepository;
+    private final WriteBehindCheckpointRepository writeBehindCheckpointRepository;
+    private final DiaryCache diaryCache;
+    private final DiaryTextIndex diaryTextIndex;
+
+    // 단일 row insert 는 다른 row 를 읽지 않으므로 READ_COMMITTED 로 충분하다.
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    public Diary insert(Diary diary) {
+        Diary saved = diaryRepository.save(diary);
+        changed(List.of(diary.getDate()));
+        return saved;
+    }
+
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    public void insertAll(List<Diary> diaries) {
+        jdbcDiaryRepository.batchInsert(diaries);
+        changed(diaries.stream().map(Diary::getDate).toList());
+    }
+
+    // write-behind 로그에서 꺼낸 diary 들을 넣고, 같은 트랜잭션에서 어디까지 넣었는지(flushedSeq) 남긴다.
+    // 그래서 재시작 후 replay 가 이미 넣은 diary 를 다시 넣지 않는다.
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    public void insertBuffered(List<Diary> diaries, String logId, long flushedSeq) {
+        if (!diaries.isEmpty()) {
+            insertAll(diaries);
+        }
+        writeBehindCheckpointRepository.save(logId, flushedSeq);
+    }
+
+    @Transactional
+    public int updateFirstText(LocalDate date, String text) {
+        return bumpIfChanged(date, diaryRepository.updateFirstTextByDate(date, text));
+    }
+
+    @Transactional
+    public int deleteAll(LocalDate date) {
+        return bumpIfChanged(date, diaryRepository.deleteAllByDate(date));
+    }
+
+    // (city, date) 의 stale 다이어리들을 새로 가져온 날씨로 고친다.
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    public int refreshStaleWeather(String city, LocalDate date, DateWeather dateWeather) {
+        return bumpIfChanged(date, diaryRepository.refreshStaleWeather(city, date,
+                dateWeather.getWeather(), dateWeather.getIcon(), dateWeather.getTemperature()));
+    }
+
+    private int bumpIfChanged(LocalDate date, int changedCount) {
+        if (changedCount > 0) {
+            changed(List.of(date));
+        }
+        return changedCount;
+    }
+
+    private void changed(List<LocalDate> dates) {
+        diaryVersionRepository.bump(dates);
+        diaryCache.write(dates);
+        diaryTextIndex.write(dates);
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.weather.service;
+
+import com.example.weather.domain.GeoCoordinate;
+import com.example.weather.dto.CacheStats;
+import com.example.weather.repository.GeoCoordinateRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * 도시 이름 -> 좌표 캐시.
+ * 메모리(1차)에 없으면 geo_coordinate 테이블(2차)을 보고, 둘 다 없을 때만 loader(geo api)를 호출합니다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class GeoCoordinateCache {
+    private final GeoCoordinateRepository geoCoordinateRepository;
+
+    private final Map<String, GeoCoordinate> coordinates = new ConcurrentHashMap<>();
+    private final SingleFlight<String, GeoCoordinate> loads = new SingleFlight<>();
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    public GeoCoordinate get(String city, Function<String, GeoCoordinate> loader) {
+        String key = normalize(city);
+
+        GeoCoordinate cached = coordinates.get(key);
+        if (cached != null) {
+            hitCount.incrementAndGet();
+            return cached;
+        }
+
+        // 같은 도시에 대한 동시 miss 는 SingleFlight 가 하나로 묶어준다.
+        // computeIfAbsent 로 묶으면 DB 조회와 geo api 호출 동안 map 의 bin 락을 잡고 있게 된다.
+        return loads.execute(key, () -> {
+            // 앞선 조회가 막 끝났으면 그 결과를 쓴다.
+            GeoCoordinate loaded = coordinates.get(key);
+            if (loaded == null) {
+                loaded = load(key, loader);
+                coordinates.put(key, loaded);
+            }
+            return loaded;
+        });
+    }
+
+    public CacheStats stats() {
+        return CacheStats.builder()
+                .name("geoCoordinate")
+                .hitCount(hitCount.get())
+                .missCount(missCount.get())
+                .size(coordinates.size())
+                .build();
+    }
+
+    static String normalize(String city) {
+        return city.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private GeoCoordinate load(String city, Function<String, GeoCoordinate> loader) {
+        GeoCoordinate stored = geoCoordinateRepository.findById(city).orElse(null);
+        if (stored != null) {
+            hitCount.incrementAndGet();
+            return stored;
+        }
+
+        missCount.incrementAndGet();
+        log.info("geo coordinate cache miss : {}", city);
+
+        GeoCoordinate loaded = loader.apply(city);
+        loaded.setCity(city);
+        return geoCoordinateRepository.save(loaded);
+    }
+}
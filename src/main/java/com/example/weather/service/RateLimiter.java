@@ -0,0 +1,43 @@
+package com.example.weather.service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * 호출 간격을 일정하게 맞추는 rate limiter.
+ * 초당 permitsPerSecond 번까지 허용하고, 넘치는 호출은 자기 차례가 올 때까지 기다립니다.
+ * 쉬고 있던 동안의 허용량은 모아 두지 않으므로 한꺼번에 몰리는 호출(burst)이 생기지 않습니다.
+ */
+class RateLimiter {
+    private final long intervalNanos;
+    private final LongSupplier ticker;
+    private long nextFreeNanos;
+
+    RateLimiter(double permitsPerSecond) {
+        this(permitsPerSecond, System::nanoTime);
+    }
+
+    RateLimiter(double permitsPerSecond, LongSupplier ticker) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("permitsPerSecond must be positive");
+        }
+        this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+        this.ticker = ticker;
+        this.nextFreeNanos = ticker.getAsLong();
+    }
+
+    void acquire() throws InterruptedException {
+        long waitNanos = reserve();
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    // 다음 빈 자리를 예약하고, 그 자리까지 기다려야 하는 시간을 돌려준다. 기다리는 동안 락은 잡지 않는다.
+    synchronized long reserve() {
+        long now = ticker.getAsLong();
+        long slot = Math.max(now, nextFreeNanos);
+        nextFreeNanos = slot + intervalNanos;
+        return slot - now;
+    }
+}
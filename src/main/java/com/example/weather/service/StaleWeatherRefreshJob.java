@@ -0,0 +1,100 @@
+package com.example.weather.service;
+
+import com.example.weather.client.CircuitBreaker;
+import com.example.weather.domain.DateWeather;
+import com.example.weather.domain.DateWeatherId;
+import com.example.weather.exception.WeatherException;
+import com.example.weather.repository.DiaryRepository;
+import com.example.weather.type.ErrorCode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 날씨 api 장애 중에 최근 날씨로 대신 채운(stale) 다이어리를 api 가 살아나면 그 날의 날씨로 고칩니다.
+ * 서킷이 열려 있으면 건너뛰고, 한 번에 batch-size 개의 (city, date) 까지만 처리합니다.
+ * 고치지 못한 (city, date) 는 failure-backoff 동안 건너뛰어, 계속 실패하는 날짜가 뒤의 날짜들을 막지 않도록 합니다.
+ */
+@Component
+@Slf4j
+public class StaleWeatherRefreshJob {
+    private final DiaryService diaryService;
+    private final DiaryRepository diaryRepository;
+    private final DiaryWriter diaryWriter;
+    private final CircuitBreaker circuitBreaker;
+    private final int batchSize;
+    private final long failureBackoffNanos;
+
+    // 고치지 못한 (city, date) -> 다시 시도할 시각 (System.nanoTime)
+    private final Map<DateWeatherId, Long> retryAt = new ConcurrentHashMap<>();
+
+    public StaleWeatherRefreshJob(DiaryService diaryService,
+                                  DiaryRepository diaryRepository,
+                                  DiaryWriter diaryWriter,
+                                  CircuitBreaker circuitBreaker,
+                                  @Value("${weather.stale-refresh.batch-size:100}") int batchSize,
+                                  @Value("${weather.stale-refresh.failure-backoff:PT1H}") Duration failureBackoff) {
+        this.diaryService = diaryService;
+        this.diaryRepository = diaryRepository;
+        this.diaryWriter = diaryWriter;
+        this.circuitBreaker = circuitBreaker;
+        this.batchSize = batchSize;
+        this.failureBackoffNanos = failureBackoff.toNanos();
+    }
+
+    // 고친 다이어리 수를 돌려준다.
+    @Scheduled(fixedDelayString = "${weather.stale-refresh.interval:PT1M}",
+            initialDelayString = "${weather.stale-refresh.interval:PT1M}")
+    public int refresh() {
+        if (circuitBreaker.getState() == CircuitBreaker.State.OPEN) {
+            return 0;
+        }
+
+        long now = System.nanoTime();
+        retryAt.values().removeIf(at -> at - now <= 0);
+        // 건너뛸 날짜만큼 더 읽어, 건너뛰고도 batch-size 개를 시도할 수 있게 한다.
+        List<DateWeatherId> keys = diaryRepository.findStaleWeatherKeys(PageRequest.of(0, batchSize + retryAt.size()));
+        int attemptedCount = 0;
+        int refreshedCount = 0;
+        for (DateWeatherId key : keys) {
+            if (attemptedCount == batchSize) {
+                break;
+            }
+            if (retryAt.containsKey(key)) {
+                continue;
+            }
+            attemptedCount++;
+
+            DateWeather dateWeather;
+            try {
+                dateWeather = diaryService.getDateWeather(key.getCity(), key.getDate());
+            } catch (WeatherException e) {
+                log.warn("failed to refresh stale weather of {} {} : {}", key.getCity(), key.getDate(), e.getMessage());
+                // api 가 다시 멈췄으면 다음 실행에서 이어서 고친다. 이 날짜만의 실패면 미뤄 두고 다음 날짜로 넘어간다.
+                if (e.getErrorCode() == ErrorCode.WEATHER_API_UNAVAILABLE
+                        || circuitBreaker.getState() == CircuitBreaker.State.OPEN) {
+                    break;
+                }
+                retryAt.put(key, System.nanoTime() + failureBackoffNanos);
+                continue;
+            }
+            // 그 사이 서킷이 다시 열렸다. 다음 실행에서 이어서 고친다.
+            if (dateWeather.isStale()) {
+                break;
+            }
+            refreshedCount += diaryWriter.refreshStaleWeather(key.getCity(), key.getDate(), dateWeather);
+        }
+
+        if (refreshedCount > 0) {
+            log.info("refreshed weather of {} stale diaries", refreshedCount);
+        }
+        return refreshedCount;
+    }
+}
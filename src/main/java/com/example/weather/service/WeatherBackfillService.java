@@ -0,0 +1,239 @@
+package com.example.weather.service;
+
+import com.example.weather.domain.BackfillJob;
+import com.example.weather.domain.DateWeather;
+import com.example.weather.domain.DateWeatherId;
+import com.example.weather.dto.BackfillProgress;
+import com.example.weather.exception.WeatherException;
+import com.example.weather.repository.BackfillJobRepository;
+import com.example.weather.repository.DateWeatherRepository;
+import com.example.weather.repository.JdbcDateWeatherRepository;
+import com.example.weather.type.BackfillStatus;
+import com.example.weather.type.ErrorCode;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * date_weather 에서 빈 (city, date) 를 찾아 그 날의 날씨를 채워 넣습니다.
+ * <p>
+ * 날짜별 api 호출은 concurrency 개의 스레드에서 병렬로 하되 rate limiter 로 초당 호출 수를 제한하고,
+ * 결과는 batch-size 개씩 모아 JDBC 배치로 저장합니다. 진행 상황은 배치마다 weather_backfill_job 에 기록합니다.
+ * <p>
+ * 매 실행은 빈 날짜를 다시 찾는 것에서 시작하므로, 중간에 멈춘 작업을 resume 하면 이미 채운 날짜는 건너뛰고
+ * 남은(또는 실패한) 날짜만 가져옵니다.
+ */
+@Service
+@Slf4j
+public class WeatherBackfillService {
+    private final DiaryService diaryService;
+    private final DateWeatherRepository dateWeatherRepository;
+    private final JdbcDateWeatherRepository jdbcDateWeatherRepository;
+    private final BackfillJobRepository backfillJobRepository;
+    private final DateWeatherCache dateWeatherCache;
+    private final RateLimiter rateLimiter;
+    private final int batchSize;
+    private final int maxDays;
+
+    // 작업은 한 번에 하나씩 실행한다. 여러 작업이 rate limit 을 나눠 쓰며 서로 늦추지 않도록.
+    private final ExecutorService jobExecutor = Executors.newSingleThreadExecutor();
+    private final ExecutorService fetchExecutor;
+    private final Set<Long> activeJobIds = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public WeatherBackfillService(DiaryService diaryService,
+                                  DateWeatherRepository dateWeatherRepository,
+                                  JdbcDateWeatherRepository jdbcDateWeatherRepository,
+                                  BackfillJobRepository backfillJobRepository,
+                                  DateWeatherCache dateWeatherCache,
+                                  @Value("${weather.backfill.concurrency:4}") int concurrency,
+                                  @Value("${weather.backfill.rate-per-second:5}") double ratePerSecond,
+                                  @Value("${weather.backfill.batch-size:100}") int batchSize,
+                                  @Value("${weather.backfill.max-days:3660}") int maxDays) {
+        this(diaryService, dateWeatherRepository, jdbcDateWeatherRepository, backfillJobRepository,
+                dateWeatherCache, concurrency, new RateLimiter(ratePerSecond), batchSize, maxDays);
+    }
+
+    WeatherBackfillService(DiaryService diaryService,
+                           DateWeatherRepository dateWeatherRepository,
+                           JdbcDateWeatherRepository jdbcDateWeatherRepository,
+                           BackfillJobRepository backfillJobRepository,
+                           DateWeatherCache dateWeatherCache,
+                           int concurrency,
+                           RateLimiter rateLimiter,
+                           int batchSize,
+                           int maxDays) {
+        this.diaryService = diaryService;
+        this.dateWeatherRepository = dateWeatherRepository;
+        this.jdbcDateWeatherRepository = jdbcDateWeatherRepository;
+        this.backfillJobRepository = backfillJobRepository;
+        this.dateWeatherCache = dateWeatherCache;
+        this.fetchExecutor = Executors.newFixedThreadPool(concurrency);
+        this.rateLimiter = rateLimiter;
+        this.batchSize = batchSize;
+        this.maxDays = maxDays;
+    }
+
+    public BackfillProgress start(String city, LocalDate startDate, LocalDate endDate) {
+        validateRange(startDate, endDate);
+
+        LocalDateTime now = LocalDateTime.now();
+        BackfillJob job = backfillJobRepository.save(BackfillJob.builder()
+                .city(diaryService.resolveCity(city))
+                .startDate(startDate)
+                .endDate(endDate)
+                .status(BackfillStatus.RUNNING)
+                .createdAt(now)
+                .updatedAt(now)
+                .build());
+        log.info("created weather backfill job {}", job);
+
+        submit(job.getId());
+        return BackfillProgress.from(job);
+    }
+
+    // 실패했거나, 실행 중에 노드가 내려가 RUNNING 으로 남은 작업을 이어서 실행한다.
+    public BackfillProgress resume(Long id) {
+        BackfillJob job = findJob(id);
+        if (job.getStatus() == BackfillStatus.COMPLETED) {
+            return BackfillProgress.from(job);
+        }
+        if (activeJobIds.contains(id)) {
+            throw new WeatherException(ErrorCode.BACKFILL_ALREADY_RUNNING);
+        }
+
+        job.setStatus(BackfillStatus.RUNNING);
+        job.setUpdatedAt(LocalDateTime.now());
+        backfillJobRepository.save(job);
+
+        submit(id);
+        return BackfillProgress.from(job);
+    }
+
+    public BackfillProgress getProgress(Long id) {
+        return BackfillProgress.from(findJob(id));
+    }
+
+    private BackfillJob findJob(Long id) {
+        return backfillJobRepository.findById(id)
+                .orElseThrow(() -> new WeatherException(ErrorCode.BACKFILL_JOB_NOT_FOUND));
+    }
+
+    private void validateRange(LocalDate startDate, LocalDate endDate) {
+        // history api 로는 지난 날짜만 가져올 수 있다. 오늘 날씨는 WeatherPrefetchJob 이 채운다.
+        if (startDate == null || endDate == null
+                || startDate.isAfter(endDate)
+                || !endDate.isBefore(LocalDate.now())
+                || ChronoUnit.DAYS.between(startDate, endDate) >= maxDays) {
+            throw new WeatherException(ErrorCode.INVALID_BACKFILL_RANGE);
+        }
+    }
+
+    private void submit(Long id) {
+        if (!activeJobIds.add(id)) {
+            throw new WeatherException(ErrorCode.BACKFILL_ALREADY_RUNNING);
+        }
+
+        jobExecutor.execute(() -> {
+            try {
+                run(id);
+            } finally {
+                activeJobIds.remove(id);
+            }
+        });
+    }
+
+    void run(Long id) {
+        BackfillJob job = findJob(id);
+        try {
+            List<LocalDate> gaps = findGaps(job.getCity(), job.getStartDate(), job.getEndDate());
+            log.info("weather backfill job {} found {} missing dates of {}", id, gaps.size(), job.getCity());
+
+            job.setTotalCount(gaps.size());
+            job.setCompletedCount(0);
+            job.setFailedCount(0);
+            saveProgress(job);
+
+            for (int from = 0; from < gaps.size(); from += batchSize) {
+                List<LocalDate> batch = gaps.subList(from, Math.min(from + batchSize, gaps.size()));
+                List<DateWeather> fetched = fetchAll(job.getCity(), batch);
+
+                jdbcDateWeatherRepository.batchInsertIgnore(fetched);
+                // 빈 날짜로 기억하고 있을 수 있으므로 캐시에서 지운다.
+                fetched.forEach(w -> dateWeatherCache.evict(new DateWeatherId(w.getCity(), w.getDate())));
+
+                job.setCompletedCount(job.getCompletedCount() + fetched.size());
+                job.setFailedCount(job.getFailedCount() + batch.size() - fetched.size());
+                saveProgress(job);
+            }
+
+            job.setStatus(job.getFailedCount() == 0 ? BackfillStatus.COMPLETED : BackfillStatus.FAILED);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.setStatus(BackfillStatus.FAILED);
+        } catch (RuntimeException e) {
+            log.error("weather backfill job {} stopped", id, e);
+            job.setStatus(BackfillStatus.FAILED);
+        }
+        saveProgress(job);
+        log.info("finished weather backfill job {} : {} completed, {} failed",
+                id, job.getCompletedCount(), job.getFailedCount());
+    }
+
+    private List<LocalDate> findGaps(String city, LocalDate startDate, LocalDate endDate) {
+        Set<LocalDate> filled = new HashSet<>(
+                dateWeatherRepository.findDatesByCityAndDateBetween(city, startDate, endDate));
+
+        List<LocalDate> gaps = new ArrayList<>();
+        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+            if (!filled.contains(date)) {
+                gaps.add(date);
+            }
+        }
+        return gaps;
+    }
+
+    // 가져오지 못한 날짜는 빼고 돌려준다. 다음 resume 때 다시 빈 날짜로 잡힌다.
+    private List<DateWeather> fetchAll(String city, List<LocalDate> dates) throws InterruptedException {
+        List<Future<DateWeather>> futures = new ArrayList<>(dates.size());
+        for (LocalDate date : dates) {
+            futures.add(fetchExecutor.submit(() -> {
+                rateLimiter.acquire();
+                return diaryService.fetchWeatherFromApi(city, date);
+            }));
+        }
+
+        List<DateWeather> fetched = new ArrayList<>(dates.size());
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                fetched.add(futures.get(i).get());
+            } catch (ExecutionException e) {
+                log.warn("failed to backfill weather of {} {} : {}", city, dates.get(i), e.getCause().getMessage());
+            } catch (InterruptedException e) {
+                futures.forEach(f -> f.cancel(true));
+                throw e;
+            }
+        }
+        return fetched;
+    }
+
+    private void saveProgress(BackfillJob job) {
+        job.setUpdatedAt(LocalDateTime.now());
+        backfillJobRepository.save(job);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        // 멈춘 작업은 재시작 후 resume 으로 이어서 실행할 수 있다.
+        jobExecutor.shutdownNow();
+        fetchExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.weather.service;
+
+import com.example.weather.dto.PrefetchResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * 매일 설정된 도시들의 오늘 날씨를 미리 가져와 date_weather 에 저장합니다.
+ * 도시들은 최대 concurrency 개씩 병렬로 처리하고, 한 도시의 실패는 다른 도시에 영향을 주지 않습니다.
+ */
+@Component
+@Slf4j
+public class WeatherPrefetchJob {
+    private final DiaryService diaryService;
+    private final List<String> cities;
+    private final int concurrency;
+    private final Duration timeout;
+
+    public WeatherPrefetchJob(DiaryService diaryService,
+                              @Value("${weather.prefetch.cities}") List<String> cities,
+                              @Value("${weather.prefetch.concurrency:16}") int concurrency,
+                              @Value("${weather.prefetch.timeout:30m}") Duration timeout) {
+        this.diaryService = diaryService;
+        this.cities = cities;
+        this.concurrency = concurrency;
+        this.timeout = timeout;
+    }
+
+    @Scheduled(cron = "${weather.prefetch.cron}")
+    public PrefetchResult prefetch() {
+        long started = System.nanoTime();
+        log.info("started to prefetch weather of {} cities", cities.size());
+
+        List<Callable<Boolean>> tasks = new ArrayList<>(cities.size());
+        for (String city : cities) {
+            tasks.add(() -> {
+                try {
+                    diaryService.saveWeatherDate(city);
+                    return true;
+                } catch (Exception e) {
+                    log.warn("failed to prefetch weather of {} : {}", city, e.getMessage());
+                    return false;
+                }
+            });
+        }
+
+        List<String> failedCities = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(concurrency, cities.size())));
+        try {
+            // timeout 안에 끝나지 않은 도시는 취소되고 실패로 센다.
+            List<Future<Boolean>> results = executor.invokeAll(tasks, timeout.toMillis(), TimeUnit.MILLISECONDS);
+            for (int i = 0; i < results.size(); i++) {
+                if (!succeeded(results.get(i))) {
+                    failedCities.add(cities.get(i));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failedCities.addAll(cities);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        PrefetchResult result = PrefetchResult.builder()
+                .succeededCount(cities.size() - failedCities.size())
+                .failedCities(failedCities)
+                .elapsedMillis(Duration.ofNanos(System.nanoTime() - started).toMillis())
+                .build();
+        log.atInfo()
+                .addKeyValue("succeeded", result.getSucceededCount())
+                .addKeyValue("failedCities", failedCities)
+                .addKeyValue("elapsedMillis", result.getElapsedMillis())
+                .log("finished to prefetch weather");
+        return result;
+    }
+
+    private static boolean succeeded(Future<Boolean> future) {
+        if (future.isCancelled()) {
+            return false;
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException | ExecutionException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.weather.type;
+
+public enum BackfillStatus {
+    // 실행 중이거나, 실행 중에 노드가 내려가 멈춘 상태
+    RUNNING,
+    // 범위 안의 빈 날짜를 모두 채운 상태
+    COMPLETED,
+    // 일부 날짜를 가져오지 못한 상태 (resume 으로 남은 날짜만 다시 시도)
+    FAILED
+}
@@ -7,7 +7,21 @@ import lombok.Getter;
 @AllArgsConstructor
 public enum ErrorCode {
     INTERNAL_SERVER_ERROR("내부 서버 오류가 발생했습니다."),
-    INVALIDED_DATE("유효하지 않은 날짜입니다.");
+    INVALIDED_DATE("유효하지 않은 날짜입니다."),
+    INVALID_DIARY_TEXT("다이어리 내용이 없거나 500자를 넘습니다."),
+    WEATHER_API_FAILED("날씨 정보를 가져오지 못했습니다."),
+    WEATHER_API_TIMEOUT("날씨 정보 요청 시간이 초과되었습니다."),
+    WEATHER_API_UNAVAILABLE("날씨 api 장애로 잠시 요청을 보내지 않습니다."),
+    INVALID_WEATHER_RESPONSE("날씨 api 응답을 해석할 수 없습니다."),
+    INVALID_CURSOR("유효하지 않은 페이지 커서입니다."),
+    INVALID_DATE_RANGE("유효하지 않은 날짜 범위입니다."),
+    INVALID_SEARCH_QUERY("검색할 단어가 없습니다."),
+    INVALID_SEARCH_PAGE("검색 결과는 앞에서 10000 건까지만 볼 수 있습니다."),
+    INVALID_BACKFILL_RANGE("채울 수 없는 날짜 범위입니다."),
+    BACKFILL_JOB_NOT_FOUND("날씨 채우기 작업이 없습니다."),
+    BACKFILL_ALREADY_RUNNING("이미 실행 중인 날씨 채우기 작업입니다."),
+    WRITE_BEHIND_DISABLED("write-behind 모드가 꺼져 있습니다."),
+    WRITE_BEHIND_QUEUE_FULL("다이어리 쓰기 대기열이 가득 찼습니다. 잠시 후 다시 시도해 주세요.");
 
     private final String description;
 }
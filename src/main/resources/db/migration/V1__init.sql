@@ -0,0 +1,32 @@
+-- 기존에 README 의 쿼리로 만든 스키마와 같은 초기 스키마.
+-- 이미 테이블이 있는 DB 는 baseline(V1) 처리되어 이 파일을 건너뜁니다.
+CREATE TABLE IF NOT EXISTS diary (
+    id          INT          NOT NULL AUTO_INCREMENT,
+    weather     VARCHAR(50)  NOT NULL,
+    icon        VARCHAR(50)  NOT NULL,
+    temperature DOUBLE       NOT NULL,
+    text        VARCHAR(500) NOT NULL,
+    date        DATE         NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS date_weather (
+    date        DATE        NOT NULL,
+    weather     VARCHAR(50) NOT NULL,
+    icon        VARCHAR(50) NOT NULL,
+    temperature DOUBLE      NOT NULL,
+    PRIMARY KEY (date)
+);
+
+CREATE TABLE IF NOT EXISTS geo_coordinate (
+    city VARCHAR(100) NOT NULL,
+    lat  DOUBLE       NOT NULL,
+    lon  DOUBLE       NOT NULL,
+    PRIMARY KEY (city)
+);
+
+CREATE TABLE IF NOT EXISTS memo (
+    id   INT          NOT NULL AUTO_INCREMENT,
+    text VARCHAR(500),
+    PRIMARY KEY (id)
+);
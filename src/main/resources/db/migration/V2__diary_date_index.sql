@@ -0,0 +1,4 @@
+-- findAllByDate, findAllByDateBetween, deleteAllByDate, updateFirstTextByDate,
+-- 키셋 페이지네이션/스트리밍 조회가 모두 date 로 거르고 (date, id) 로 정렬한다.
+-- date_weather, geo_coordinate 는 조회 키가 PK 라 추가 인덱스가 필요 없다.
+CREATE INDEX idx_diary_date_id ON diary (date, id);
@@ -0,0 +1,4 @@
+-- date_weather 를 (city, date) 단위로 저장한다. 기존 row 는 모두 seoul 날씨였다.
+ALTER TABLE date_weather ADD COLUMN city VARCHAR(100) NOT NULL DEFAULT 'seoul';
+ALTER TABLE date_weather DROP PRIMARY KEY;
+ALTER TABLE date_weather ADD PRIMARY KEY (city, date);
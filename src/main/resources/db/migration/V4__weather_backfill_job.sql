@@ -0,0 +1,14 @@
+-- date_weather 빈 날짜 채우기 작업의 진행 상황. 노드가 재시작되어도 이어서 실행할 수 있도록 DB 에 남긴다.
+CREATE TABLE weather_backfill_job (
+    id              BIGINT       NOT NULL AUTO_INCREMENT,
+    city            VARCHAR(100) NOT NULL,
+    start_date      DATE         NOT NULL,
+    end_date        DATE         NOT NULL,
+    status          VARCHAR(20)  NOT NULL,
+    total_count     INT          NOT NULL,
+    completed_count INT          NOT NULL,
+    failed_count    INT          NOT NULL,
+    created_at      DATETIME     NOT NULL,
+    updated_at      DATETIME     NOT NULL,
+    PRIMARY KEY (id)
+);
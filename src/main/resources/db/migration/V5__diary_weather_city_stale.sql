@@ -0,0 +1,5 @@
+-- 어느 도시의 날씨를 썼는지와, 날씨 api 장애 중에 최근 날씨로 대신 채운(stale) 다이어리인지를 남긴다.
+-- stale 다이어리는 StaleWeatherRefreshJob 이 api 가 살아나면 그 날의 날씨로 고친다.
+ALTER TABLE diary ADD COLUMN city VARCHAR(100) NULL;
+ALTER TABLE diary ADD COLUMN weather_stale BOOLEAN NOT NULL DEFAULT FALSE;
+CREATE INDEX idx_diary_weather_stale ON diary (weather_stale, date);
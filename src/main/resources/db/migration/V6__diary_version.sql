@@ -0,0 +1,8 @@
+-- 날짜별 diary 변경 표시. diary 를 쓰는 트랜잭션에서 그 날짜의 version 을 함께 올린다.
+-- /read/diary, /read/diaries 는 이 값으로 ETag / Last-Modified 를 만들고, 바뀌지 않았으면 diary 를 읽지 않고 304 로 답한다.
+CREATE TABLE diary_version (
+    date       DATE        NOT NULL,
+    version    BIGINT      NOT NULL,
+    updated_at DATETIME(3) NOT NULL,
+    PRIMARY KEY (date)
+);
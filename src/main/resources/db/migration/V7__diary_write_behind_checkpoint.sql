@@ -0,0 +1,8 @@
+-- write-behind 로그(노드별 log_id)에서 diary 에 반영된 마지막 순번. diary insert 와 같은 트랜잭션에서 올린다.
+-- 재시작 후 로그를 replay 할 때 이 순번 이하는 건너뛰므로 같은 diary 가 두 번 들어가지 않는다.
+CREATE TABLE diary_write_behind_checkpoint (
+    log_id      VARCHAR(36) NOT NULL,
+    flushed_seq BIGINT      NOT NULL,
+    updated_at  DATETIME(3) NOT NULL,
+    PRIMARY KEY (log_id)
+);
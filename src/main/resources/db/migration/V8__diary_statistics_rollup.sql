@@ -0,0 +1,43 @@
+-- /read/statistics 가 diary 를 훑지 않고 읽는 날짜별 / 월별 집계.
+-- DiaryStatisticsRollupJob 이 diary_version 이 바뀐 날짜만 다시 집계하고(version 에 어느 version 까지 반영했는지 남긴다),
+-- 그 날짜가 속한 달의 집계를 날짜별 집계(최대 31 row)로 다시 만든다.
+CREATE TABLE diary_stats_daily (
+    date            DATE   NOT NULL,
+    version         BIGINT NOT NULL,
+    diary_count     BIGINT NOT NULL,
+    temperature_sum DOUBLE NOT NULL,
+    temperature_min DOUBLE NULL,
+    temperature_max DOUBLE NULL,
+    PRIMARY KEY (date)
+);
+
+CREATE TABLE diary_stats_daily_weather (
+    date        DATE        NOT NULL,
+    weather     VARCHAR(50) NOT NULL,
+    diary_count BIGINT      NOT NULL,
+    PRIMARY KEY (date, weather)
+);
+
+-- month_start 는 그 달의 1일
+CREATE TABLE diary_stats_monthly (
+    month_start     DATE   NOT NULL,
+    diary_count     BIGINT NOT NULL,
+    temperature_sum DOUBLE NOT NULL,
+    temperature_min DOUBLE NULL,
+    temperature_max DOUBLE NULL,
+    PRIMARY KEY (month_start)
+);
+
+CREATE TABLE diary_stats_monthly_weather (
+    month_start DATE        NOT NULL,
+    weather     VARCHAR(50) NOT NULL,
+    diary_count BIGINT      NOT NULL,
+    PRIMARY KEY (month_start, weather)
+);
+
+-- diary_version 이 생기기 전에 쓰인 diary 도 집계되도록 version 을 만들어 둔다.
+INSERT INTO diary_version (date, version, updated_at)
+SELECT d.date, 1, CURRENT_TIMESTAMP(3)
+FROM diary d
+WHERE NOT EXISTS (SELECT 1 FROM diary_version v WHERE v.date = d.date)
+GROUP BY d.date;
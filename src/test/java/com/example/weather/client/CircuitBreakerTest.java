@@ -0,0 +1,151 @@
+package com.example.weather.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+    private final AtomicLong now = new AtomicLong();
+    private final CircuitBreaker circuitBreaker =
+            new CircuitBreaker(4, 4, 0.5, Duration.ofSeconds(30), now::get);
+
+    @Test
+    void opensWhenFailureRateReachesThreshold() {
+        // given
+        record(false, true, false);
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+
+        // when
+        record(true);
+
+        // then
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertEquals(CircuitBreaker.REJECTED, circuitBreaker.tryAcquire());
+    }
+
+    @Test
+    void oldOutcomesLeaveTheWindow() {
+        // given
+        record(true, false, false, false);
+
+        // when : 가장 오래된 실패가 창 밖으로 밀려난다.
+        record(false, true);
+
+        // then
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void allowsSingleTrialAfterOpenDuration() {
+        // given
+        record(true, true, true, true);
+
+        // when
+        now.addAndGet(Duration.ofSeconds(30).toNanos());
+
+        // then
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        assertNotEquals(CircuitBreaker.REJECTED, circuitBreaker.tryAcquire());
+        assertEquals(CircuitBreaker.REJECTED, circuitBreaker.tryAcquire());
+    }
+
+    @Test
+    void closesWhenTrialSucceeds() {
+        // given
+        record(true, true, true, true);
+        now.addAndGet(Duration.ofSeconds(30).toNanos());
+        long trial = circuitBreaker.tryAcquire();
+
+        // when
+        circuitBreaker.onSuccess(trial);
+
+        // then
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        // 창이 비워졌으므로 실패 한 번으로는 다시 열리지 않는다.
+        record(true);
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void reopensWhenTrialFails() {
+        // given
+        record(true, true, true, true);
+        now.addAndGet(Duration.ofSeconds(30).toNanos());
+        long trial = circuitBreaker.tryAcquire();
+
+        // when
+        circuitBreaker.onFailure(trial);
+
+        // then
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        now.addAndGet(Duration.ofSeconds(29).toNanos());
+        assertEquals(CircuitBreaker.REJECTED, circuitBreaker.tryAcquire());
+    }
+
+    @Test
+    void lateSuccessFromClosedCallDoesNotCloseHalfOpen() {
+        // given : CLOSED 때 나간 느린 호출이 돌아오기 전에 열렸다가 HALF_OPEN 이 된다.
+        long slow = circuitBreaker.tryAcquire();
+        record(true, true, true, true);
+        now.addAndGet(Duration.ofSeconds(30).toNanos());
+        long trial = circuitBreaker.tryAcquire();
+
+        // when
+        circuitBreaker.onSuccess(slow);
+
+        // then : 시험 호출의 결과만 상태를 바꾼다.
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        assertEquals(CircuitBreaker.REJECTED, circuitBreaker.tryAcquire());
+        circuitBreaker.onFailure(trial);
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+    }
+
+    @Test
+    void lateFailureFromClosedCallDoesNotReopenHalfOpen() {
+        // given
+        long slow = circuitBreaker.tryAcquire();
+        record(true, true, true, true);
+        now.addAndGet(Duration.ofSeconds(30).toNanos());
+        long trial = circuitBreaker.tryAcquire();
+
+        // when
+        circuitBreaker.onFailure(slow);
+
+        // then
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        circuitBreaker.onSuccess(trial);
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void lateFailureFromBeforeCloseIsNotCounted() {
+        // given : 지난 CLOSED 때 나간 호출이 다시 닫힌 뒤에 돌아온다.
+        long slow = circuitBreaker.tryAcquire();
+        record(true, true, true, true);
+        now.addAndGet(Duration.ofSeconds(30).toNanos());
+        circuitBreaker.onSuccess(circuitBreaker.tryAcquire());
+        record(true, false, false);
+
+        // when
+        circuitBreaker.onFailure(slow);
+
+        // then : 반영됐다면 4번 중 2번 실패로 열렸을 것이다.
+        record(false);
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    private void record(boolean... failures) {
+        for (boolean failure : failures) {
+            long permit = circuitBreaker.tryAcquire();
+            assertNotEquals(CircuitBreaker.REJECTED, permit);
+            if (failure) {
+                circuitBreaker.onFailure(permit);
+            } else {
+                circuitBreaker.onSuccess(permit);
+            }
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.weather.client;
+
+import com.example.weather.exception.WeatherApiException;
+import com.example.weather.type.ErrorCode;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WeatherHttpClientTest {
+    private HttpServer server;
+    private String baseUrl;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CircuitBreaker circuitBreaker = new CircuitBreaker(2, 2, 0.5, Duration.ofMinutes(1));
+    private final WeatherHttpClient weatherHttpClient =
+            new WeatherHttpClient(Duration.ofSeconds(1), Duration.ofMillis(300), false, meterRegistry, circuitBreaker);
+    private final AtomicInteger unavailableCalls = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/ok", exchange -> {
+            byte[] body = "{\"cod\":200}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(body);
+            }
+        });
+        server.createContext("/unauthorized", exchange -> {
+            exchange.sendResponseHeaders(401, -1);
+            exchange.close();
+        });
+        server.createContext("/unavailable", exchange -> {
+            unavailableCalls.incrementAndGet();
+            exchange.sendResponseHeaders(503, -1);
+            exchange.close();
+        });
+        server.createContext("/slow", exchange -> {
+            try {
+                Thread.sleep(2000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        baseUrl = "http://localhost:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void returnBodyOnSuccess() {
+        // when
+        String body = weatherHttpClient.getAsync(baseUrl + "/ok").join();
+
+        // then
+        assertEquals("{\"cod\":200}", body);
+    }
+
+    @Test
+    void reportStatusCodeOnError() {
+        // when
+        WeatherApiException exception = assertThrows(
+                WeatherApiException.class,
+                () -> weatherHttpClient.get(baseUrl + "/unauthorized"));
+
+        // then
+        assertEquals(ErrorCode.WEATHER_API_FAILED, exception.getErrorCode());
+        assertEquals(401, exception.getStatusCode());
+    }
+
+    @Test
+    void recordLatencyByPathAndStatus() {
+        // when
+        weatherHttpClient.get(baseUrl + "/ok?appid=secret");
+        assertThrows(WeatherApiException.class, () -> weatherHttpClient.get(baseUrl + "/unauthorized"));
+
+        // then
+        assertEquals(1, meterRegistry.get("http.client.requests")
+                .tags("uri", "/ok", "status", "200", "outcome", "SUCCESS").timer().count());
+        assertEquals(1, meterRegistry.get("http.client.requests")
+                .tags("uri", "/unauthorized", "status", "401", "outcome", "CLIENT_ERROR").timer().count());
+    }
+
+    @Test
+    void timeoutOnSlowUpstream() {
+        // when
+        long started = System.nanoTime();
+        WeatherApiException exception = assertThrows(
+                WeatherApiException.class,
+                () -> weatherHttpClient.get(baseUrl + "/slow"));
+
+        // then
+        assertEquals(ErrorCode.WEATHER_API_TIMEOUT, exception.getErrorCode());
+        assertTrue(Duration.ofNanos(System.nanoTime() - started).toMillis() < 1500);
+    }
+
+    @Test
+    void failFastWhileCircuitIsOpen() {
+        // given
+        assertThrows(WeatherApiException.class, () -> weatherHttpClient.get(baseUrl + "/unavailable"));
+        assertThrows(WeatherApiException.class, () -> weatherHttpClient.get(baseUrl + "/unavailable"));
+
+        // when
+        WeatherApiException exception = assertThrows(
+                WeatherApiException.class,
+                () -> weatherHttpClient.get(baseUrl + "/unavailable"));
+
+        // then
+        assertEquals(ErrorCode.WEATHER_API_UNAVAILABLE, exception.getErrorCode());
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertEquals(2, unavailableCalls.get());
+    }
+
+    @Test
+    void clientErrorDoesNotOpenCircuit() {
+        // when
+        for (int i = 0; i < 3; i++) {
+            assertThrows(WeatherApiException.class, () -> weatherHttpClient.get(baseUrl + "/unauthorized"));
+        }
+
+        // then
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void invalidUrlDoesNotHoldHalfOpenTrial() {
+        // given : 서킷이 열렸고 바로 시험 호출을 받을 수 있다.
+        CircuitBreaker halfOpen = new CircuitBreaker(2, 2, 0.5, Duration.ZERO);
+        WeatherHttpClient client =
+                new WeatherHttpClient(Duration.ofSeconds(1), Duration.ofMillis(300), false, meterRegistry, halfOpen);
+        assertThrows(WeatherApiException.class, () -> client.get(baseUrl + "/unavailable"));
+        assertThrows(WeatherApiException.class, () -> client.get(baseUrl + "/unavailable"));
+
+        // when
+        WeatherApiException invalid = assertThrows(WeatherApiException.class, () -> client.get(baseUrl + "/bad path"));
+        String body = client.get(baseUrl + "/ok");
+
+        // then
+        assertEquals(ErrorCode.WEATHER_API_FAILED, invalid.getErrorCode());
+        assertEquals("{\"cod\":200}", body);
+        assertEquals(CircuitBreaker.State.CLOSED, halfOpen.getState());
+    }
+}
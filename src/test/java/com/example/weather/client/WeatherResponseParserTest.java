@@ -0,0 +1,68 @@
+package com.example.weather.client;
+
+import com.example.weather.domain.GeoCoordinate;
+import com.example.weather.exception.WeatherException;
+import com.example.weather.type.ErrorCode;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WeatherResponseParserTest {
+    @Test
+    void parseWeatherSkipsUnrelatedFields() {
+        // given
+        String json = "{\"coord\":{\"lon\":126.97,\"lat\":37.56},"
+                + "\"weather\":[{\"id\":500,\"main\":\"Rain\",\"description\":\"light rain\",\"icon\":\"10d\"},"
+                + "{\"id\":701,\"main\":\"Mist\",\"icon\":\"50d\"}],"
+                + "\"main\":{\"feels_like\":280.5,\"temp\":282,\"pressure\":1023},\"name\":\"Seoul\"}";
+
+        // when
+        WeatherObservation observation = WeatherResponseParser.parseWeather(json);
+
+        // then
+        assertEquals(282.0, observation.temperature());
+        assertEquals("Rain", observation.weather());
+        assertEquals("10d", observation.icon());
+    }
+
+    @Test
+    void parseHistoricalWeatherReadsFirstDataPoint() {
+        // given
+        String json = "{\"lat\":37.56,\"lon\":126.97,\"timezone\":\"Asia/Seoul\",\"timezone_offset\":32400,"
+                + "\"data\":[{\"dt\":1698202800,\"sunrise\":1698184116,\"temp\":288.55,\"humidity\":40,"
+                + "\"weather\":[{\"id\":800,\"main\":\"Clear\",\"description\":\"clear sky\",\"icon\":\"01d\"}]},"
+                + "{\"dt\":1698206400,\"temp\":290.1,\"weather\":[{\"main\":\"Clouds\",\"icon\":\"02d\"}]}]}";
+
+        // when
+        WeatherObservation observation = WeatherResponseParser.parseHistoricalWeather(json);
+
+        // then
+        assertEquals(288.55, observation.temperature());
+        assertEquals("Clear", observation.weather());
+        assertEquals("01d", observation.icon());
+    }
+
+    @Test
+    void parseCoordinate() {
+        // given
+        String json = "[{\"name\":\"Seoul\",\"local_names\":{\"ko\":\"서울\"},\"lat\":37.5666791,\"lon\":126.9782914}]";
+
+        // when
+        GeoCoordinate coordinate = WeatherResponseParser.parseCoordinate(json);
+
+        // then
+        assertEquals(37.5666791, coordinate.getLat());
+        assertEquals(126.9782914, coordinate.getLon());
+    }
+
+    @Test
+    void invalidResponse() {
+        // when
+        WeatherException exception = assertThrows(
+                WeatherException.class,
+                () -> WeatherResponseParser.parseCoordinate("[]"));
+
+        // then
+        assertEquals(ErrorCode.INVALID_WEATHER_RESPONSE, exception.getErrorCode());
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.weather.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LogSamplingTurboFilterTest {
+    private final LoggerContext loggerContext = new LoggerContext();
+    private final LogSamplingTurboFilter filter = new LogSamplingTurboFilter();
+
+    @BeforeEach
+    void setUp() {
+        filter.setLoggerName("org.hibernate.SQL");
+        filter.setEvery(3);
+        filter.start();
+    }
+
+    @Test
+    void keepOneOfEveryEvents() {
+        // given
+        Logger logger = loggerContext.getLogger("org.hibernate.SQL");
+
+        // when
+        int kept = 0;
+        for (int i = 0; i < 9; i++) {
+            if (filter.decide(null, logger, Level.DEBUG, "select 1", null, null) == FilterReply.NEUTRAL) {
+                kept++;
+            }
+        }
+
+        // then
+        assertEquals(3, kept);
+    }
+
+    @Test
+    void levelChecksAndOtherLoggersAreNotSampled() {
+        // given
+        Logger sqlLogger = loggerContext.getLogger("org.hibernate.SQL");
+        Logger otherLogger = loggerContext.getLogger("org.hibernate.SQLQuery");
+
+        // when, then
+        for (int i = 0; i < 5; i++) {
+            assertEquals(FilterReply.NEUTRAL, filter.decide(null, sqlLogger, Level.DEBUG, null, null, null));
+            assertEquals(FilterReply.NEUTRAL, filter.decide(null, otherLogger, Level.DEBUG, "select 1", null, null));
+            assertEquals(FilterReply.NEUTRAL, filter.decide(null, sqlLogger, Level.WARN, "slow", null, null));
+        }
+    }
+}
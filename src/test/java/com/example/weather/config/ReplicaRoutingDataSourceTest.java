@@ -0,0 +1,189 @@
+package com.example.weather.config;
+
+import com.example.weather.domain.Diary;
+import com.example.weather.dto.DiaryVersion;
+import com.example.weather.repository.DiaryVersionRepository;
+import com.example.weather.repository.JdbcDiaryRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * primary 와 복제본을 각각 다른 메모리 H2 로 띄우고, 어느 DB 에서 읽었는지를 node 테이블의 이름으로 확인합니다.
+ */
+class ReplicaRoutingDataSourceTest {
+    private final List<HikariDataSource> pools = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        pools.forEach(HikariDataSource::close);
+    }
+
+    @Test
+    void readOnlyTransactionsGoToReplicasInTurn() {
+        // given
+        Routing routing = routing(ReplicaRoutingDataSource.Selection.ROUND_ROBIN, "replica-a", "replica-b");
+
+        // when
+        List<String> reads = List.of(routing.read(), routing.read(), routing.read());
+        String written = routing.write();
+        String outsideTransaction = routing.jdbcTemplate.queryForObject("select name from node", String.class);
+
+        // then
+        assertEquals(List.of("replica-a", "replica-b", "replica-a"), reads);
+        assertEquals("primary", written);
+        assertEquals("primary", outsideTransaction);
+    }
+
+    @Test
+    void leastConnectionsSkipsBusyReplica() throws Exception {
+        // given : replica-a 의 커넥션 하나를 잡고 있다.
+        Routing routing = routing(ReplicaRoutingDataSource.Selection.LEAST_CONNECTIONS, "replica-a", "replica-b");
+        try (Connection busy = pools.get(1).getConnection()) {
+            // when
+            List<String> reads = List.of(routing.read(), routing.read());
+
+            // then
+            assertEquals(List.of("replica-b", "replica-b"), reads);
+        }
+    }
+
+    @Test
+    void onPrimaryReadsPrimaryInsideReadOnlyTransaction() {
+        // given
+        Routing routing = routing(ReplicaRoutingDataSource.Selection.ROUND_ROBIN, "replica-a");
+
+        // when
+        String read = ReplicaRoutingDataSource.onPrimary(routing::read);
+
+        // then
+        assertEquals("primary", read);
+        assertEquals("replica-a", routing.read());
+    }
+
+    @Test
+    void readYourWritesCookieRoutesReadsToPrimary() throws Exception {
+        // given
+        Routing routing = routing(ReplicaRoutingDataSource.Selection.ROUND_ROBIN, "replica-a");
+        ReadYourWritesFilter filter = new ReadYourWritesFilter(Duration.ofSeconds(5));
+        MockHttpServletResponse writeResponse = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("POST", "/create/diary"), writeResponse, (request, response) -> {
+        });
+        Cookie cookie = writeResponse.getCookie(ReadYourWritesFilter.COOKIE_NAME);
+
+        // when
+        List<String> reads = new ArrayList<>();
+        MockHttpServletRequest readAfterWrite = new MockHttpServletRequest("GET", "/read/diaries");
+        readAfterWrite.setCookies(cookie);
+        filter.doFilter(readAfterWrite, new MockHttpServletResponse(), (request, response) -> reads.add(routing.read()));
+        MockHttpServletRequest expired = new MockHttpServletRequest("GET", "/read/diaries");
+        expired.setCookies(new Cookie(ReadYourWritesFilter.COOKIE_NAME, String.valueOf(System.currentTimeMillis() - 1)));
+        filter.doFilter(expired, new MockHttpServletResponse(), (request, response) -> reads.add(routing.read()));
+
+        // then
+        assertNotNull(cookie);
+        assertEquals(5, cookie.getMaxAge());
+        assertEquals(List.of("primary", "replica-a"), reads);
+    }
+
+    @Test
+    void versionAndDiariesAreReadFromSameDatabase() {
+        // given : primary 에는 고친 다이어리(version 2)가 있고, 복제본은 아직 고치기 전(version 1)이다.
+        LocalDate date = LocalDate.of(2023, 10, 25);
+        DataSource primary = diaryDatabase("primary", 2, "고친 일기");
+        DataSource replica = diaryDatabase("replica-a", 1, "처음 일기");
+        Routing routing = new Routing(new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(
+                primary, List.of(replica), ReplicaRoutingDataSource.Selection.ROUND_ROBIN)));
+        DiaryVersionRepository versionRepository = new DiaryVersionRepository(routing.dataSource);
+        JdbcDiaryRepository diaryRepository = new JdbcDiaryRepository(routing.dataSource, 500, 1000);
+
+        // when : DiaryService.readDiaries 처럼 한 readOnly 트랜잭션에서 version 과 diary 를 읽는다.
+        List<String> read = routing.readOnly.execute(status -> {
+            DiaryVersion version = versionRepository.findBetween(date, date);
+            Diary diary = diaryRepository.findAllByDateIn(List.of(date)).get(0);
+            return List.of(version.etag(), diary.getText());
+        });
+        DiaryVersion outsideTransaction = versionRepository.findBetween(date, date);
+
+        // then : 복제본의 version 과 복제본의 diary. 트랜잭션 밖에서 읽은 version 은 primary 의 것이라 짝이 맞지 않는다.
+        assertEquals(List.of("\"1\"", "처음 일기"), read);
+        assertEquals("\"2\"", outsideTransaction.etag());
+    }
+
+    private Routing routing(ReplicaRoutingDataSource.Selection selection, String... replicaNames) {
+        DataSource primary = database("primary");
+        List<DataSource> replicas = new ArrayList<>();
+        for (String name : replicaNames) {
+            replicas.add(database(name));
+        }
+        return new Routing(new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(primary, replicas, selection)));
+    }
+
+    // 이름이 든 node 테이블 하나만 있는 DB
+    private HikariDataSource database(String name) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:routing-" + name + "-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+        dataSource.setMaximumPoolSize(2);
+        pools.add(dataSource);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table node (name varchar(20))");
+        jdbcTemplate.update("insert into node (name) values (?)", name);
+        return dataSource;
+    }
+
+    // 하루치 diary 한 건과 그 날짜의 diary_version 이 있는 DB
+    private HikariDataSource diaryDatabase(String name, long version, String text) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:routing-" + name + "-" + System.nanoTime()
+                + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        dataSource.setMaximumPoolSize(2);
+        pools.add(dataSource);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table diary (id int primary key, weather varchar(50), icon varchar(50),"
+                + " temperature double, text varchar(500), date date, city varchar(100), weather_stale boolean)");
+        jdbcTemplate.execute("create table diary_version (date date primary key, version bigint, updated_at timestamp(3))");
+        jdbcTemplate.update("insert into diary values (1, 'Clear', '01d', 288.0, ?, '2023-10-25', 'seoul', false)", text);
+        jdbcTemplate.update("insert into diary_version values ('2023-10-25', ?, current_timestamp(3))", version);
+        return dataSource;
+    }
+
+    private static final class Routing {
+        private final DataSource dataSource;
+        private final JdbcTemplate jdbcTemplate;
+        private final TransactionTemplate readOnly;
+        private final TransactionTemplate readWrite;
+
+        private Routing(DataSource dataSource) {
+            this.dataSource = dataSource;
+            DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+            jdbcTemplate = new JdbcTemplate(dataSource);
+            readOnly = new TransactionTemplate(transactionManager);
+            readOnly.setReadOnly(true);
+            readWrite = new TransactionTemplate(transactionManager);
+        }
+
+        private String read() {
+            return readOnly.execute(status -> jdbcTemplate.queryForObject("select name from node", String.class));
+        }
+
+        private String write() {
+            return readWrite.execute(status -> jdbcTemplate.queryForObject("select name from node", String.class));
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.weather.controller;
+
+import com.example.weather.client.FakeOpenWeatherMap;
+import com.example.weather.domain.Diary;
+import com.example.weather.dto.DeleteDiaryResponse;
+import com.example.weather.dto.DiarySearchPage;
+import com.example.weather.dto.UpdateDiaryResponse;
+import com.example.weather.dto.WeatherStatistics;
+import com.example.weather.service.DiaryStatisticsRollupJob;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.time.Duration;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 실제 컨트롤러부터 DB 까지 그대로 띄우고, openweathermap 은 FakeOpenWeatherMap, MySQL 은 H2(MySQL 모드)로 바꿔
+ * 외부 네트워크 없이 다이어리 api 를 확인합니다.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class DiaryApiOfflineTest {
+    private static final FakeOpenWeatherMap openWeatherMap = FakeOpenWeatherMap.start();
+
+    @Autowired
+    TestRestTemplate restTemplate;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    DiaryStatisticsRollupJob diaryStatisticsRollupJob;
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> "jdbc:h2:mem:diary-api;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        registry.add("spring.datasource.driver-class-name", () -> "org.h2.Driver");
+        registry.add("spring.jpa.database", () -> "h2");
+        openWeatherMap.properties().forEach((key, value) -> registry.add(key, () -> value));
+    }
+
+    @AfterAll
+    static void stopFake() {
+        openWeatherMap.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        openWeatherMap.latency(Duration.ZERO, Duration.ZERO).errorRate(0, 500);
+        jdbcTemplate.update("delete from diary");
+    }
+
+    @Test
+    void createReadUpdateDelete() {
+        // given
+        LocalDate date = LocalDate.of(2023, 10, 25);
+        long historyCalls = openWeatherMap.calls(FakeOpenWeatherMap.HISTORY_PATH);
+
+        // when
+        Diary created = restTemplate.postForObject("/create/diary?date={date}&city=seoul", "첫번째 일기", Diary.class, date);
+        restTemplate.postForObject("/create/diary?date={date}&city=seoul", "두번째 일기", Diary.class, date);
+        Diary[] read = restTemplate.getForObject(
+                "/read/diaries?start-date={start}&end-date={end}", Diary[].class, date, date);
+        UpdateDiaryResponse updated = restTemplate.exchange("/update/diary?date={date}", HttpMethod.PUT,
+                new HttpEntity<>("수정한 일기"), UpdateDiaryResponse.class, date).getBody();
+        DeleteDiaryResponse deleted = restTemplate.exchange("/delete/diary?date={date}", HttpMethod.DELETE,
+                null, DeleteDiaryResponse.class, date).getBody();
+
+        // then
+        assertEquals("Clouds", created.getWeather());
+        assertEquals(2, read.length);
+        assertEquals(1, updated.getUpdatedCount());
+        assertEquals(2, deleted.getDeletedCount());
+        // 같은 (도시, 날짜) 의 두번째 생성은 저장된 날씨를 쓴다.
+        assertEquals(historyCalls + 1, openWeatherMap.calls(FakeOpenWeatherMap.HISTORY_PATH));
+    }
+
+    @Test
+    void cachedDiaryReflectsCommittedWrites() {
+        // given
+        LocalDate date = LocalDate.of(2023, 10, 27);
+        restTemplate.postForObject("/create/diary?date={date}&city=seoul", "일기", Diary.class, date);
+        Diary[] created = restTemplate.getForObject("/read/diary?date={date}", Diary[].class, date);
+
+        // when
+        restTemplate.exchange("/update/diary?date={date}", HttpMethod.PUT, new HttpEntity<>("수정한 일기"),
+                UpdateDiaryResponse.class, date);
+        Diary[] updated = restTemplate.getForObject("/read/diary?date={date}", Diary[].class, date);
+        restTemplate.exchange("/delete/diary?date={date}", HttpMethod.DELETE, null, DeleteDiaryResponse.class, date);
+        Diary[] deleted = restTemplate.getForObject("/read/diary?date={date}", Diary[].class, date);
+
+        // then
+        assertEquals("일기", created[0].getText());
+        assertEquals("수정한 일기", updated[0].getText());
+        assertEquals(0, deleted.length);
+    }
+
+    @Test
+    void statisticsReflectDiariesAfterRollup() {
+        // given
+        LocalDate date = LocalDate.of(2023, 10, 28);
+        restTemplate.postForObject("/create/diary?date={date}&city=seoul", "첫번째 일기", Diary.class, date);
+        restTemplate.postForObject("/create/diary?date={date}&city=seoul", "두번째 일기", Diary.class, date);
+
+        // when
+        diaryStatisticsRollupJob.rollup();
+        WeatherStatistics statistics = restTemplate.getForObject(
+                "/read/statistics?start-date={start}&end-date={end}", WeatherStatistics.class,
+                date.withDayOfMonth(1), date);
+        ResponseEntity<String> invalidRange = restTemplate.getForEntity(
+                "/read/statistics?start-date={start}&end-date={end}", String.class, date, date.minusDays(1));
+
+        // then
+        assertEquals(2, statistics.getDiaryCount());
+        assertEquals(2L, statistics.getWeatherCounts().get("Clouds"));
+        assertEquals(statistics.getMinTemperature(), statistics.getAverageTemperature());
+        assertTrue(invalidRange.getBody().contains("INVALID_DATE_RANGE"));
+    }
+
+    @Test
+    void searchReflectsCommittedWrites() {
+        // given
+        LocalDate date = LocalDate.of(2023, 10, 29);
+        restTemplate.postForObject("/create/diary?date={date}&city=seoul", "한강에서 자전거를 탔다", Diary.class, date);
+        restTemplate.postForObject("/create/diary?date={date}&city=seoul", "집에서 쉬었다", Diary.class, date.plusDays(1));
+
+        // when
+        DiarySearchPage created = search("자전거", date, date);
+        restTemplate.exchange("/update/diary?date={date}", HttpMethod.PUT,
+                new HttpEntity<>("한강에서 달리기를 했다"), UpdateDiaryResponse.class, date);
+        DiarySearchPage updated = search("자전거", date, date);
+        DiarySearchPage outOfRange = search("쉬었다", date, date);
+        ResponseEntity<String> emptyQuery = restTemplate.getForEntity("/read/diary/search?query={query}", String.class, " ");
+
+        // then
+        assertEquals(1, created.getTotalCount());
+        assertEquals("한강에서 자전거를 탔다", created.getHits().get(0).getDiary().getText());
+        assertEquals(0, updated.getTotalCount());
+        assertEquals(0, outOfRange.getTotalCount());
+        assertTrue(emptyQuery.getBody().contains("INVALID_SEARCH_QUERY"));
+    }
+
+    private DiarySearchPage search(String query, LocalDate startDate, LocalDate endDate) {
+        return restTemplate.getForObject("/read/diary/search?query={query}&start-date={start}&end-date={end}",
+                DiarySearchPage.class, query, startDate, endDate);
+    }
+
+    @Test
+    void unchangedDiariesAreNotModified() {
+        // given
+        LocalDate date = LocalDate.of(2023, 10, 26);
+        restTemplate.postForObject("/create/diary?date={date}&city=seoul", "일기", Diary.class, date);
+        ResponseEntity<Diary[]> first = restTemplate.getForEntity(
+                "/read/diaries?start-date={start}&end-date={end}", Diary[].class, date.minusDays(3), date);
+        String etag = first.getHeaders().getETag();
+
+        // when
+        ResponseEntity<Diary[]> unchanged = readWithEtag(date, etag);
+        restTemplate.exchange("/update/diary?date={date}", HttpMethod.PUT,
+                new HttpEntity<>("수정한 일기"), UpdateDiaryResponse.class, date);
+        ResponseEntity<Diary[]> changed = readWithEtag(date, etag);
+
+        // then
+        assertEquals(HttpStatus.NOT_MODIFIED, unchanged.getStatusCode());
+        assertEquals(HttpStatus.OK, changed.getStatusCode());
+        assertNotEquals(etag, changed.getHeaders().getETag());
+        assertEquals("수정한 일기", changed.getBody()[0].getText());
+    }
+
+    private ResponseEntity<Diary[]> readWithEtag(LocalDate date, String etag) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(etag);
+        return restTemplate.exchange("/read/diaries?start-date={start}&end-date={end}", HttpMethod.GET,
+                new HttpEntity<>(headers), Diary[].class, date.minusDays(3), date);
+    }
+
+    @Test
+    void upstreamFailureIsBadGateway() {
+        // given
+        openWeatherMap.errorRate(1.0, 503);
+
+        // when
+        ResponseEntity<String> response = restTemplate.postForEntity(
+                "/create/diary?date={date}&city=busan", "일기", String.class, LocalDate.of(2023, 10, 20));
+
+        // then
+        assertEquals(HttpStatus.BAD_GATEWAY, response.getStatusCode());
+    }
+}
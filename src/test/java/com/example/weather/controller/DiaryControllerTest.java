@@ -1,8 +1,19 @@
 package com.example.weather.controller;
 
 import com.example.weather.domain.Diary;
+import com.example.weather.dto.BulkCreateDiaryResponse;
+import com.example.weather.dto.CreateDiaryResult;
+import com.example.weather.dto.DiaryReceipt;
+import com.example.weather.dto.DiaryVersion;
+import com.example.weather.dto.UpdateDiaryResponse;
+import com.example.weather.dto.VersionedDiaries;
+import com.example.weather.exception.BackpressureException;
+import com.example.weather.exception.WeatherException;
 import com.example.weather.service.DiaryService;
+import com.example.weather.service.DiaryWriteBehindService;
+import com.example.weather.type.ErrorCode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,17 +21,30 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 
@@ -29,17 +53,25 @@ class DiaryControllerTest {
     @MockBean
     private DiaryService diaryService;
 
+    @MockBean
+    private DiaryWriteBehindService diaryWriteBehindService;
+
     @Autowired
     private MockMvc mockMvc;
 
     @Autowired
     private ObjectMapper objectMapper;
 
+    @BeforeEach
+    void setUp() {
+        given(diaryService.getDiaryVersion(any())).willReturn(DiaryVersion.NONE);
+    }
+
     @Test
     @DisplayName("다이어리 생성 요청")
     void createDiarySuccess() throws Exception {
         // given
-        given(diaryService.createDiary(any(), anyString()))
+        given(diaryService.createDiary(any(), any(), anyString()))
                 .willReturn(Diary.builder()
                         .text("테스트입니다.")
                         .date(LocalDate.of(2023, 10, 30))
@@ -58,20 +90,108 @@ class DiaryControllerTest {
                 .andDo(print());
     }
 
+    @Test
+    @DisplayName("write-behind 다이어리 생성 요청은 접수 번호와 202 를 전송")
+    void createDiaryWriteBehindAccepted() throws Exception {
+        // given
+        given(diaryWriteBehindService.accept(any(), any(), anyString()))
+                .willReturn(DiaryReceipt.builder()
+                        .receiptId("log-1")
+                        .date(LocalDate.of(2023, 10, 30))
+                        .city("seoul")
+                        .build());
+
+        // when
+
+        // then
+        mockMvc.perform(post("/create/diary/write-behind")
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .param("date", "2023-10-30")
+                        .content("테스트입니다."))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.receiptId").value("log-1"))
+                .andExpect(jsonPath("$.city").value("seoul"));
+    }
+
+    @Test
+    @DisplayName("write-behind 대기열이 가득 차면 503 과 Retry-After 를 전송")
+    void createDiaryWriteBehindQueueFull() throws Exception {
+        // given
+        given(diaryWriteBehindService.accept(any(), any(), anyString()))
+                .willThrow(new BackpressureException(ErrorCode.WRITE_BEHIND_QUEUE_FULL, Duration.ofMillis(1500)));
+
+        // when
+
+        // then
+        mockMvc.perform(post("/create/diary/write-behind")
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .param("date", "2023-10-30")
+                        .content("테스트입니다."))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "2"))
+                .andExpect(jsonPath("$.errorCode").value("WRITE_BEHIND_QUEUE_FULL"));
+    }
+
+    @Test
+    @DisplayName("write-behind 로 넣을 수 없는 내용은 접수하지 않고 400 을 전송")
+    void createDiaryWriteBehindInvalidText() throws Exception {
+        // given
+        given(diaryWriteBehindService.accept(any(), any(), anyString()))
+                .willThrow(new WeatherException(ErrorCode.INVALID_DIARY_TEXT));
+
+        // when
+
+        // then
+        mockMvc.perform(post("/create/diary/write-behind")
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .param("date", "2023-10-30")
+                        .content("가".repeat(501)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode").value("INVALID_DIARY_TEXT"));
+    }
+
+    @Test
+    @DisplayName("다이어리 일괄 생성 요청")
+    void createDiariesSuccess() throws Exception {
+        // given
+        given(diaryService.createDiaries(any()))
+                .willReturn(BulkCreateDiaryResponse.builder()
+                        .createdCount(1)
+                        .failedCount(1)
+                        .results(List.of(
+                                CreateDiaryResult.builder().index(0).success(true).build(),
+                                CreateDiaryResult.builder().index(1).success(false)
+                                        .errorCode(ErrorCode.INVALIDED_DATE).build()))
+                        .build());
+
+        // when
+
+        // then
+        mockMvc.perform(post("/create/diaries")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"date\":\"2023-10-30\",\"text\":\"첫번째\"},"
+                                + "{\"date\":\"5000-10-30\",\"text\":\"두번째\"}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.createdCount").value(1))
+                .andExpect(jsonPath("$.results[1].errorCode").value("INVALIDED_DATE"))
+                .andDo(print());
+    }
+
     @Test
     @DisplayName("다이어리 생성 후 수정 요청")
     void updateDiarySuccess() throws Exception {
         // given
-        given(diaryService.createDiary(any(), anyString()))
+        given(diaryService.createDiary(any(), any(), anyString()))
                 .willReturn(Diary.builder()
                         .text("수정 전 텍스트입니다.")
                         .date(LocalDate.of(2023, 10, 30))
                         .build());
 
         given(diaryService.updateDiary(any(), anyString()))
-                .willReturn(Diary.builder()
+                .willReturn(UpdateDiaryResponse.builder()
                         .text("수정 후 텍스트입니다.")
                         .date(LocalDate.of(2023, 10, 30))
+                        .updatedCount(1)
                         .build());
 
         // when
@@ -93,6 +213,7 @@ class DiaryControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.date").value("2023-10-30"))
                 .andExpect(jsonPath("$.text").value("수정 후 텍스트입니다."))
+                .andExpect(jsonPath("$.updatedCount").value(1))
                 .andDo(print());
     }
 
@@ -160,8 +281,8 @@ class DiaryControllerTest {
                         .build()
         );
 
-        given(diaryService.readDiaries(any(), any()))
-                .willReturn(diaryList);
+        given(diaryService.readDiaries(any(), any(), any()))
+                .willReturn(new VersionedDiaries(DiaryVersion.NONE, diaryList));
 
         // when
         // then
@@ -175,4 +296,69 @@ class DiaryControllerTest {
                 .andDo(print());
     }
 
+    @Test
+    @DisplayName("바뀌지 않은 날짜는 다이어리를 읽지 않고 304")
+    void readDiaryNotModified() throws Exception {
+        // given
+        DiaryVersion version = new DiaryVersion(3, Instant.parse("2023-10-02T10:15:30Z"));
+        given(diaryService.getDiaryVersion(LocalDate.of(2023, 10, 2))).willReturn(version);
+
+        // when
+        // then
+        mockMvc.perform(get("/read/diary?date=2023-10-02").header("If-None-Match", "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"3\""));
+        mockMvc.perform(get("/read/diary?date=2023-10-02").header("If-None-Match", "\"2\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3\""))
+                .andExpect(header().exists("Last-Modified"));
+        verify(diaryService, times(1)).readDiary(LocalDate.of(2023, 10, 2));
+    }
+
+    @Test
+    @DisplayName("바뀌지 않은 기간은 다이어리 없이 304")
+    void readDiariesNotModified() throws Exception {
+        // given
+        DiaryVersion version = new DiaryVersion(7, Instant.parse("2023-10-02T10:15:30Z"));
+        given(diaryService.readDiaries(any(), any(), any())).willAnswer(invocation -> {
+            Predicate<DiaryVersion> notModified = invocation.getArgument(2);
+            return new VersionedDiaries(version, notModified.test(version) ? null : List.of());
+        });
+
+        // when
+        // then
+        mockMvc.perform(get("/read/diaries?start-date=2023-10-01&end-date=2023-10-05").header("If-None-Match", "\"7\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"7\""));
+        mockMvc.perform(get("/read/diaries?start-date=2023-10-01&end-date=2023-10-05").header("If-None-Match", "\"6\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"7\""));
+    }
+
+    @Test
+    @DisplayName("다이어리 기간 스트리밍 조회")
+    void streamDiariesSuccess() throws Exception {
+        // given
+        willAnswer(invocation -> {
+            Consumer<Diary> consumer = invocation.getArgument(2);
+            consumer.accept(Diary.builder().id(1).text("1번 테스트").date(LocalDate.of(2023, 10, 2)).build());
+            consumer.accept(Diary.builder().id(2).text("2번 테스트").date(LocalDate.of(2023, 10, 3)).build());
+            return null;
+        }).given(diaryService).streamDiaries(any(), any(), any());
+
+        // when
+        MvcResult result = mockMvc.perform(get("/read/diaries/stream?start-date=2023-10-01&end-date=2023-10-05"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // then
+        String[] lines = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8)
+                .split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("1번 테스트", objectMapper.readValue(lines[0], Diary.class).getText());
+        assertEquals("2번 테스트", objectMapper.readValue(lines[1], Diary.class).getText());
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,76 @@
+package com.example.weather.repository;
+
+import com.example.weather.domain.DateWeather;
+import com.example.weather.domain.DateWeatherId;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * insert ignore 는 MySQL 문법이라 H2 를 MySQL 모드로 띄워 확인합니다.
+ */
+@DataJpaTest
+@Import(JdbcDateWeatherRepository.class)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.url=jdbc:h2:mem:date_weather;MODE=MySQL;DATABASE_TO_LOWER=TRUE",
+        "spring.jpa.database=h2"
+})
+class DateWeatherRepositoryTest {
+    @Autowired
+    DateWeatherRepository dateWeatherRepository;
+
+    @Autowired
+    JdbcDateWeatherRepository jdbcDateWeatherRepository;
+
+    @Test
+    void findDatesOfCityInRange() {
+        // given
+        LocalDate start = LocalDate.of(2023, 10, 1);
+        jdbcDateWeatherRepository.batchInsertIgnore(List.of(
+                dateWeather("seoul", start, "Clear"),
+                dateWeather("seoul", start.plusDays(2), "Clear"),
+                dateWeather("busan", start.plusDays(1), "Rain")));
+
+        // when
+        List<LocalDate> dates = dateWeatherRepository.findDatesByCityAndDateBetween("seoul", start, start.plusDays(3));
+
+        // then
+        assertEquals(List.of(start, start.plusDays(2)), dates.stream().sorted().toList());
+    }
+
+    @Test
+    void batchInsertIgnoreKeepsExistingRow() {
+        // given
+        LocalDate date = LocalDate.of(2023, 10, 1);
+        jdbcDateWeatherRepository.batchInsertIgnore(List.of(dateWeather("seoul", date, "Clear")));
+
+        // when
+        jdbcDateWeatherRepository.batchInsertIgnore(List.of(
+                dateWeather("seoul", date, "Rain"),
+                dateWeather("seoul", date.plusDays(1), "Rain")));
+
+        // then
+        assertEquals(2, dateWeatherRepository.count());
+        assertEquals("Clear", dateWeatherRepository.findById(new DateWeatherId("seoul", date)).get().getWeather());
+    }
+
+    private static DateWeather dateWeather(String city, LocalDate date, String weather) {
+        return DateWeather.builder()
+                .city(city)
+                .date(date)
+                .weather(weather)
+                .icon("01d")
+                .temperature(280.5)
+                .build();
+    }
+}
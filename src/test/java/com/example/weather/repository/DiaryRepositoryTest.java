@@ -0,0 +1,122 @@
+package com.example.weather.repository;
+
+import com.example.weather.domain.DateWeatherId;
+import com.example.weather.domain.Diary;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@TestPropertySource(properties = "spring.jpa.database=h2")
+class DiaryRepositoryTest {
+    @Autowired
+    DiaryRepository diaryRepository;
+
+    @Test
+    void keysetPagesCoverRangeInOrder() {
+        // given
+        LocalDate start = LocalDate.of(2023, 10, 1);
+        for (int day = 0; day < 4; day++) {
+            for (int n = 0; n < 3; n++) {
+                diaryRepository.save(Diary.builder()
+                        .weather("Clear")
+                        .icon("01d")
+                        .text(day + "-" + n)
+                        .date(start.plusDays(day))
+                        .build());
+            }
+        }
+        LocalDate end = start.plusDays(2);
+
+        // when
+        List<Diary> read = new ArrayList<>();
+        LocalDate cursorDate = start;
+        int cursorId = Integer.MIN_VALUE;
+        while (true) {
+            List<Diary> page = diaryRepository.findPageAfter(start, end, cursorDate, cursorId, PageRequest.of(0, 4));
+            if (page.isEmpty()) {
+                break;
+            }
+            read.addAll(page);
+            Diary last = page.get(page.size() - 1);
+            cursorDate = last.getDate();
+            cursorId = last.getId();
+        }
+
+        // then
+        assertEquals(9, read.size());
+        for (int i = 1; i < read.size(); i++) {
+            Diary before = read.get(i - 1);
+            Diary after = read.get(i);
+            int order = before.getDate().compareTo(after.getDate());
+            assertEquals(true, order < 0 || (order == 0 && before.getId() < after.getId()));
+        }
+    }
+
+    @Test
+    void bulkUpdateAndDeleteReturnCounts() {
+        // given
+        LocalDate date = LocalDate.of(2023, 10, 1);
+        for (int n = 0; n < 3; n++) {
+            diaryRepository.save(Diary.builder()
+                    .weather("Clear")
+                    .icon("01d")
+                    .text("before " + n)
+                    .date(date)
+                    .build());
+        }
+
+        // when
+        int updatedCount = diaryRepository.updateFirstTextByDate(date, "after");
+        List<Diary> updated = diaryRepository.findAllByDate(date);
+        int deletedCount = diaryRepository.deleteAllByDate(date);
+
+        // then
+        assertEquals(1, updatedCount);
+        assertEquals("after", updated.stream().min(Comparator.comparingInt(Diary::getId)).get().getText());
+        assertEquals(3, deletedCount);
+        assertEquals(0, diaryRepository.findAllByDate(date).size());
+    }
+
+    @Test
+    void refreshOnlyStaleDiariesOfCityAndDate() {
+        // given
+        LocalDate date = LocalDate.of(2023, 10, 1);
+        diaryRepository.save(staleDiary("seoul", date, true));
+        diaryRepository.save(staleDiary("seoul", date, true));
+        diaryRepository.save(staleDiary("seoul", date, false));
+        diaryRepository.save(staleDiary("busan", date, true));
+
+        // when
+        List<DateWeatherId> keys = diaryRepository.findStaleWeatherKeys(PageRequest.of(0, 10));
+        int refreshedCount = diaryRepository.refreshStaleWeather("seoul", date, "Snow", "13d", 270.0);
+
+        // then
+        assertEquals(2, keys.size());
+        assertEquals(2, refreshedCount);
+        assertEquals(List.of(new DateWeatherId("busan", date)),
+                diaryRepository.findStaleWeatherKeys(PageRequest.of(0, 10)));
+        assertEquals(2, diaryRepository.findAllByDate(date).stream()
+                .filter(d -> d.getWeather().equals("Snow")).count());
+    }
+
+    private static Diary staleDiary(String city, LocalDate date, boolean stale) {
+        return Diary.builder()
+                .weather("Clear")
+                .icon("01d")
+                .text("text")
+                .date(date)
+                .city(city)
+                .weatherStale(stale)
+                .build();
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.weather.repository;
+
+import com.example.weather.dto.WeatherStatistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 날짜별 / 월별 집계와, 그 둘을 섞어 읽는 기간 통계를 H2(MySQL 모드)에서 확인합니다.
+ */
+@JdbcTest
+@Import({DiaryStatisticsRepository.class, DiaryVersionRepository.class})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.url=jdbc:h2:mem:diary_stats;MODE=MySQL;DATABASE_TO_LOWER=TRUE"
+})
+class DiaryStatisticsRepositoryTest {
+    @Autowired
+    DiaryStatisticsRepository diaryStatisticsRepository;
+
+    @Autowired
+    DiaryVersionRepository diaryVersionRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    void summarizeRangeFromMonthlyAndDailyRollups() {
+        // given : 9/30, 10 월 한 달, 11/1 (10 월은 월별 집계, 앞뒤 날짜는 날짜별 집계에서 읽는다)
+        insert(LocalDate.of(2023, 9, 30), "Rain", 280.0);
+        insert(LocalDate.of(2023, 10, 1), "Clear", 290.0);
+        insert(LocalDate.of(2023, 10, 31), "Clear", 300.0);
+        insert(LocalDate.of(2023, 11, 1), "Snow", 270.0);
+        insert(LocalDate.of(2023, 11, 2), "Snow", 260.0);
+        rollup();
+
+        // when
+        WeatherStatistics statistics = diaryStatisticsRepository.summarize(
+                LocalDate.of(2023, 9, 30), LocalDate.of(2023, 11, 1));
+
+        // then
+        assertEquals(4, statistics.getDiaryCount());
+        assertEquals(270.0, statistics.getMinTemperature());
+        assertEquals(300.0, statistics.getMaxTemperature());
+        assertEquals(285.0, statistics.getAverageTemperature());
+        assertEquals(List.of("Clear", "Rain", "Snow"), List.copyOf(statistics.getWeatherCounts().keySet()));
+        assertEquals(Map.of("Clear", 2L, "Rain", 1L, "Snow", 1L), statistics.getWeatherCounts());
+    }
+
+    @Test
+    void rollupOnlyChangedDaysAndRecomputeTheirMonth() {
+        // given
+        LocalDate date = LocalDate.of(2023, 10, 10);
+        insert(date, "Clear", 300.0);
+        insert(date, "Rain", 280.0);
+        insert(date.plusDays(1), "Clear", 290.0);
+        rollup();
+        assertTrue(diaryStatisticsRepository.findStaleDays(10).isEmpty());
+
+        // when : 가장 더운 diary 를 지웠다.
+        jdbcTemplate.update("delete from diary where date = ? and temperature = 300", Date.valueOf(date));
+        diaryVersionRepository.bump(List.of(date));
+        Map<LocalDate, Long> staleDays = diaryStatisticsRepository.findStaleDays(10);
+        rollup();
+
+        // then
+        assertEquals(List.of(date), List.copyOf(staleDays.keySet()));
+        WeatherStatistics month = diaryStatisticsRepository.summarize(LocalDate.of(2023, 10, 1), LocalDate.of(2023, 10, 31));
+        assertEquals(2, month.getDiaryCount());
+        assertEquals(290.0, month.getMaxTemperature());
+        assertEquals(Map.of("Clear", 1L, "Rain", 1L), month.getWeatherCounts());
+    }
+
+    @Test
+    void emptyRangeHasNoTemperature() {
+        // when
+        WeatherStatistics statistics = diaryStatisticsRepository.summarize(
+                LocalDate.of(2013, 1, 1), LocalDate.of(2022, 12, 31));
+
+        // then
+        assertEquals(0, statistics.getDiaryCount());
+        assertNull(statistics.getAverageTemperature());
+        assertTrue(statistics.getWeatherCounts().isEmpty());
+    }
+
+    private void insert(LocalDate date, String weather, double temperature) {
+        jdbcTemplate.update("insert into diary (weather, icon, temperature, text, date) values (?, '01d', ?, 'diary', ?)",
+                weather, temperature, Date.valueOf(date));
+        diaryVersionRepository.bump(List.of(date));
+    }
+
+    private void rollup() {
+        Map<LocalDate, Long> staleDays = diaryStatisticsRepository.findStaleDays(100);
+        diaryStatisticsRepository.rollupDays(staleDays);
+        diaryStatisticsRepository.rollupMonths(staleDays.keySet().stream().map(YearMonth::from).toList());
+    }
+}
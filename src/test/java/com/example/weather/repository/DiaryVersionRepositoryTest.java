@@ -0,0 +1,60 @@
+package com.example.weather.repository;
+
+import com.example.weather.dto.DiaryVersion;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * on duplicate key update 는 MySQL 문법이라 H2 를 MySQL 모드로 띄워 확인합니다.
+ */
+@JdbcTest
+@Import(DiaryVersionRepository.class)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.url=jdbc:h2:mem:diary_version;MODE=MySQL;DATABASE_TO_LOWER=TRUE"
+})
+class DiaryVersionRepositoryTest {
+    @Autowired
+    DiaryVersionRepository diaryVersionRepository;
+
+    private final LocalDate date = LocalDate.of(2023, 10, 1);
+
+    @Test
+    void bumpIncreasesVersionOfEachDate() {
+        // given
+        diaryVersionRepository.bump(List.of(date));
+
+        // when
+        diaryVersionRepository.bump(List.of(date, date, date.plusDays(1)));
+
+        // then
+        assertEquals(2, diaryVersionRepository.find(date).version());
+        assertEquals(1, diaryVersionRepository.find(date.plusDays(1)).version());
+        assertNotNull(diaryVersionRepository.find(date).lastModified());
+    }
+
+    @Test
+    void rangeVersionChangesWhenAnyDateChanges() {
+        // given
+        diaryVersionRepository.bump(List.of(date, date.plusDays(2)));
+        DiaryVersion before = diaryVersionRepository.findBetween(date, date.plusDays(6));
+
+        // when
+        diaryVersionRepository.bump(List.of(date.plusDays(5)));
+        DiaryVersion after = diaryVersionRepository.findBetween(date, date.plusDays(6));
+
+        // then
+        assertNotEquals(before.etag(), after.etag());
+        assertEquals(DiaryVersion.NONE, diaryVersionRepository.findBetween(date.minusDays(9), date.minusDays(1)));
+    }
+}
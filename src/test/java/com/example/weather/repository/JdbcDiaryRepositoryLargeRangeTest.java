@@ -0,0 +1,56 @@
+package com.example.weather.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 백만 건 범위를 작은 힙(largeRangeTest 태스크, -Xmx64m)에서 스트리밍으로 읽습니다.
+ * 전부 List 로 읽으면 OutOfMemoryError 가 나는 크기입니다.
+ */
+@Tag("large-range")
+class JdbcDiaryRepositoryLargeRangeTest {
+    private static final int ROWS = 1_000_000;
+
+    @TempDir
+    Path tempDir;
+
+    private JdbcDiaryRepository jdbcDiaryRepository;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:file:" + tempDir.resolve("diary") + ";MODE=MySQL;CACHE_SIZE=4096;LAZY_QUERY_EXECUTION=1");
+        // 애플리케이션과 같은 스키마가 되도록 Flyway 마이그레이션으로 만든다.
+        Flyway.configure().dataSource(dataSource).load().migrate();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("insert into diary (weather, icon, temperature, text, date)"
+                + " select 'Clear', '01d', 280.5, concat('diary number ', x), dateadd('DAY', mod(x, 3650), date '2015-01-01')"
+                + " from system_range(1, " + ROWS + ")");
+
+        jdbcDiaryRepository = new JdbcDiaryRepository(dataSource, 500, 1000);
+    }
+
+    @Test
+    void streamMillionRowRange() {
+        // given
+        AtomicLong count = new AtomicLong();
+
+        // when
+        jdbcDiaryRepository.streamByDateBetween(LocalDate.of(2015, 1, 1), LocalDate.of(2025, 1, 1),
+                diary -> count.incrementAndGet());
+
+        // then
+        assertEquals(ROWS, count.get());
+    }
+}
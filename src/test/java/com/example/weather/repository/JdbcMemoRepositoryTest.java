@@ -6,8 +6,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -59,4 +62,40 @@ class JdbcMemoRepositoryTest {
         });
         assertNotNull(memoList);
     }
-}
\ No newline at end of file
+
+    @Test
+    void saveAllMemoTest() {
+        // given : batch-size(500) 를 넘는 수
+        List<Memo> memos = IntStream.rangeClosed(1, 1200)
+                .mapToObj(id -> Memo.builder().id(id).text("memo " + id).build())
+                .toList();
+
+        // when
+        jdbcMemoRepository.saveAll(memos);
+        Optional<Memo> last = jdbcMemoRepository.findById(1200);
+
+        // then
+        assertEquals(1200, jdbcMemoRepository.findAll().size());
+        assertEquals("memo 1200", last.get().getText());
+    }
+
+    @Test
+    void streamMemoTest() {
+        // given
+        jdbcMemoRepository.saveAll(List.of(
+                Memo.builder().id(2).text("second").build(),
+                Memo.builder().id(1).text("first").build()));
+
+        // when
+        List<Memo> visited = new ArrayList<>();
+        jdbcMemoRepository.forEach(visited::add);
+        List<String> streamed;
+        try (Stream<Memo> memos = jdbcMemoRepository.streamAll()) {
+            streamed = memos.map(Memo::getText).toList();
+        }
+
+        // then : id 순서
+        assertEquals(List.of(1, 2), visited.stream().map(Memo::getId).toList());
+        assertEquals(List.of("first", "second"), streamed);
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.weather.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Flyway 마이그레이션으로 만든 스키마(H2)에서 diary 의 날짜 조회 경로가 인덱스를 타는지 EXPLAIN 으로 확인합니다.
+ * 쿼리는 DiaryRepository / JdbcDiaryRepository 의 쿼리와 같은 모양입니다.
+ */
+@JdbcTest
+class QueryPlanTest {
+    private static final String DATE_INDEX = "IDX_DIARY_DATE_ID";
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("insert into diary (weather, icon, temperature, text, date)"
+                + " select 'Clear', '01d', 280.5, concat('diary ', x), dateadd('DAY', mod(x, 365), date '2023-01-01')"
+                + " from system_range(1, 5000)");
+        jdbcTemplate.execute("analyze");
+    }
+
+    @Test
+    void findAllByDateUsesDateIndex() {
+        assertUsesDateIndex("select * from diary where date = date '2023-10-01'");
+    }
+
+    @Test
+    void findAllByDateBetweenUsesDateIndex() {
+        assertUsesDateIndex("select * from diary where date between date '2023-10-01' and date '2023-10-31'");
+    }
+
+    @Test
+    void keysetPageUsesDateIndex() {
+        assertUsesDateIndex("select * from diary where date between date '2023-10-01' and date '2023-10-31'"
+                + " and (date > date '2023-10-05' or (date = date '2023-10-05' and id > 10))"
+                + " order by date, id limit 100");
+    }
+
+    @Test
+    void deleteAllByDateUsesDateIndex() {
+        assertUsesDateIndex("delete from diary where date = date '2023-10-01'");
+    }
+
+    @Test
+    void updateFirstTextByDateUsesDateIndex() {
+        assertUsesDateIndex("update diary set text = 'updated' where date = date '2023-10-01' order by id limit 1");
+    }
+
+    private void assertUsesDateIndex(String sql) {
+        String plan = String.join("\n", jdbcTemplate.queryForList("explain " + sql, String.class));
+        assertTrue(plan.contains(DATE_INDEX), plan);
+        assertFalse(plan.contains("tableScan"), plan);
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.weather.service;
+
+import com.example.weather.domain.DateWeather;
+import com.example.weather.domain.DateWeatherId;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DateWeatherCacheTest {
+    private final AtomicLong now = new AtomicLong();
+    private final DateWeatherCache dateWeatherCache =
+            new DateWeatherCache(2, Duration.ofHours(1), Duration.ofMinutes(1), now::get);
+
+    @Test
+    void hitAfterLoad() {
+        // given
+        DateWeatherId id = new DateWeatherId("seoul", LocalDate.of(2023, 10, 25));
+        AtomicInteger loads = new AtomicInteger();
+
+        // when
+        dateWeatherCache.get(id, d -> {
+            loads.incrementAndGet();
+            return Optional.of(DateWeather.builder().city(d.getCity()).date(d.getDate()).weather("Clear").build());
+        });
+        Optional<DateWeather> cached = dateWeatherCache.get(id, d -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        });
+
+        // then
+        assertEquals(1, loads.get());
+        assertEquals("Clear", cached.get().getWeather());
+        assertEquals(1, dateWeatherCache.stats().getHitCount());
+    }
+
+    @Test
+    void negativeEntryExpiresEarly() {
+        // given
+        DateWeatherId id = new DateWeatherId("seoul", LocalDate.of(2023, 10, 25));
+        AtomicInteger loads = new AtomicInteger();
+
+        // when
+        dateWeatherCache.get(id, d -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        });
+        Optional<DateWeather> remembered = dateWeatherCache.get(id, d -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        });
+        now.addAndGet(Duration.ofMinutes(2).toNanos());
+        dateWeatherCache.get(id, d -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        });
+
+        // then
+        assertTrue(remembered.isEmpty());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void staleMissDoesNotOverwriteWeatherPutDuringLoad() {
+        // given
+        DateWeatherId id = new DateWeatherId("seoul", LocalDate.of(2023, 10, 25));
+        DateWeather saved = DateWeather.builder().city(id.getCity()).date(id.getDate()).weather("Clear").build();
+
+        // when : DB 에서 "없음" 을 읽는 사이 다른 요청이 날씨를 저장했다.
+        Optional<DateWeather> loaded = dateWeatherCache.get(id, d -> {
+            dateWeatherCache.put(saved);
+            return Optional.empty();
+        });
+        Optional<DateWeather> cached = dateWeatherCache.get(id, d -> Optional.empty());
+
+        // then
+        assertEquals("Clear", loaded.get().getWeather());
+        assertEquals("Clear", cached.get().getWeather());
+        assertEquals(1, dateWeatherCache.stats().getHitCount());
+    }
+
+    @Test
+    void citiesAreCachedSeparately() {
+        // given
+        LocalDate date = LocalDate.of(2023, 10, 25);
+        dateWeatherCache.put(DateWeather.builder().city("seoul").date(date).weather("Clear").build());
+        AtomicInteger loads = new AtomicInteger();
+
+        // when
+        Optional<DateWeather> busan = dateWeatherCache.get(new DateWeatherId("busan", date), d -> {
+            loads.incrementAndGet();
+            return Optional.of(DateWeather.builder().city(d.getCity()).date(d.getDate()).weather("Rain").build());
+        });
+
+        // then
+        assertEquals(1, loads.get());
+        assertEquals("Rain", busan.get().getWeather());
+    }
+
+    @Test
+    void evictLeastRecentlyUsed() {
+        // given
+        DateWeatherId first = new DateWeatherId("seoul", LocalDate.of(2023, 10, 1));
+        DateWeatherId second = new DateWeatherId("seoul", LocalDate.of(2023, 10, 2));
+        DateWeatherId third = new DateWeatherId("seoul", LocalDate.of(2023, 10, 3));
+
+        // when
+        dateWeatherCache.put(DateWeather.builder().city(first.getCity()).date(first.getDate()).build());
+        dateWeatherCache.put(DateWeather.builder().city(second.getCity()).date(second.getDate()).build());
+        dateWeatherCache.get(first, d -> Optional.empty());
+        dateWeatherCache.put(DateWeather.builder().city(third.getCity()).date(third.getDate()).build());
+        AtomicInteger loads = new AtomicInteger();
+        dateWeatherCache.get(second, d -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        });
+
+        // then
+        assertEquals(2, dateWeatherCache.stats().getSize());
+        assertEquals(1, loads.get());
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.weather.service;
+
+import com.example.weather.domain.Diary;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DiaryAppendLogTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void ignoreTornLastLineOnReplay() throws Exception {
+        // given : 두 건을 쓰고 세 번째 줄을 쓰다가 죽었다.
+        try (DiaryAppendLog appendLog = new DiaryAppendLog(directory, 1024 * 1024, objectMapper)) {
+            appendLog.open(0, entry -> {
+            });
+            appendLog.append(diary("하나"));
+            appendLog.sync(appendLog.append(diary("둘")));
+        }
+        Path segment = segments().get(0);
+        Files.writeString(segment, "{\"seq\":3,\"date\":\"2023-", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        // when
+        List<DiaryAppendLog.Entry> replayed = new ArrayList<>();
+        try (DiaryAppendLog appendLog = new DiaryAppendLog(directory, 1024 * 1024, objectMapper)) {
+            appendLog.open(0, replayed::add);
+
+            // then : 잘린 줄은 버리고 순번은 이어진다.
+            assertEquals(List.of("하나", "둘"), replayed.stream().map(DiaryAppendLog.Entry::text).toList());
+            assertEquals(3, appendLog.append(diary("셋")));
+        }
+    }
+
+    @Test
+    void releaseSegmentsUpToFlushedSeq() throws Exception {
+        // given : 한 줄마다 새 segment 로 넘어간다.
+        try (DiaryAppendLog appendLog = new DiaryAppendLog(directory, 1, objectMapper)) {
+            appendLog.open(0, entry -> {
+            });
+            for (String text : List.of("하나", "둘", "셋")) {
+                appendLog.append(diary(text));
+            }
+            assertEquals(3, segments().size());
+
+            // when
+            appendLog.release(2);
+
+            // then : 아직 쓰고 있는 segment 만 남는다.
+            assertEquals(1, segments().size());
+        }
+
+        List<DiaryAppendLog.Entry> replayed = new ArrayList<>();
+        try (DiaryAppendLog appendLog = new DiaryAppendLog(directory, 1, objectMapper)) {
+            appendLog.open(2, replayed::add);
+        }
+        assertEquals(List.of(3L), replayed.stream().map(DiaryAppendLog.Entry::seq).toList());
+    }
+
+    private List<Path> segments() throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".log")).sorted().toList();
+        }
+    }
+
+    private Diary diary(String text) {
+        return Diary.builder()
+                .date(LocalDate.of(2023, 10, 25))
+                .city("seoul")
+                .weather("Clear")
+                .icon("01d")
+                .temperature(288.5)
+                .text(text)
+                .build();
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.weather.service;
+
+import com.example.weather.domain.Diary;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DiaryCacheTest {
+    private final DiaryCache diaryCache = new DiaryCache(3);
+    private final LocalDate date = LocalDate.of(2023, 10, 25);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void hitReturnsSnapshotOfLoadedDiaries() {
+        // given
+        Diary loaded = diary(date, "일기");
+        diaryCache.get(date, d -> {
+            loads.incrementAndGet();
+            return List.of(loaded);
+        });
+
+        // when
+        loaded.setText("엔티티를 고침");
+        List<Diary> cached = diaryCache.get(date, this::load);
+
+        // then
+        assertEquals(1, loads.get());
+        assertEquals("일기", cached.get(0).getText());
+        assertThrows(UnsupportedOperationException.class, () -> cached.add(loaded));
+        assertEquals(0.5, diaryCache.stats().getHitRatio());
+    }
+
+    @Test
+    void writeOutsideTransactionEvictsImmediately() {
+        // given
+        diaryCache.get(date, this::load);
+
+        // when
+        diaryCache.write(List.of(date));
+        diaryCache.get(date, this::load);
+
+        // then
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void bypassCacheUntilWritingTransactionCompletes() {
+        // given
+        diaryCache.get(date, this::load);
+        TransactionSynchronizationManager.initSynchronization();
+
+        // when : 쓰기 트랜잭션이 커밋되기 전에는 읽을 때마다 DB 에서 읽고 담지 않는다.
+        diaryCache.write(List.of(date));
+        diaryCache.get(date, this::load);
+        diaryCache.get(date, this::load);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        diaryCache.get(date, this::load);
+        diaryCache.get(date, this::load);
+
+        // then
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void discardLoadThatStartedBeforeWrite() {
+        // given : 읽는 도중에 다른 트랜잭션이 쓰고 커밋했다.
+        List<Diary> stale = diaryCache.get(date, d -> {
+            diaryCache.write(List.of(d));
+            return load(d);
+        });
+
+        // when
+        List<Diary> read = diaryCache.get(date, this::load);
+
+        // then : 읽던 목록은 돌려주되 담지 않았으므로 다시 읽는다.
+        assertEquals(1, stale.size());
+        assertNotSame(stale, read);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void evictLeastRecentlyReadDatesOverCapacity() {
+        // given : capacity 3 에 하루 2 건씩
+        LocalDate other = date.plusDays(1);
+        diaryCache.get(date, d -> List.of(diary(d, "하나"), diary(d, "둘")));
+        diaryCache.get(other, d -> List.of(diary(d, "하나"), diary(d, "둘")));
+
+        // when
+        long size = diaryCache.stats().getSize();
+        diaryCache.get(other, this::load);
+        diaryCache.get(date, this::load);
+
+        // then : 먼저 읽은 날짜가 빠졌다.
+        assertEquals(1, size);
+        assertEquals(1, loads.get());
+    }
+
+    private List<Diary> load(LocalDate date) {
+        loads.incrementAndGet();
+        return List.of(diary(date, "일기"));
+    }
+
+    private Diary diary(LocalDate date, String text) {
+        return Diary.builder()
+                .date(date)
+                .city("seoul")
+                .weather("Clear")
+                .icon("01d")
+                .temperature(288.5)
+                .text(text)
+                .build();
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.weather.service;
+
+import com.example.weather.client.CircuitBreaker;
+import com.example.weather.client.WeatherHttpClient;
+import com.example.weather.domain.DateWeather;
+import com.example.weather.repository.DateWeatherRepository;
+import com.example.weather.repository.DiaryRepository;
+import com.example.weather.repository.DiaryVersionRepository;
+import com.example.weather.repository.JdbcDiaryRepository;
+import com.example.weather.repository.GeoCoordinateRepository;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+class DiaryServiceConcurrencyTest {
+    private static final String GEO_RESPONSE =
+            "[{\"name\":\"Seoul\",\"lat\":37.5666791,\"lon\":126.9782914,\"country\":\"KR\"}]";
+    private static final String WEATHER_RESPONSE =
+            "{\"weather\":[{\"id\":800,\"main\":\"Clear\",\"description\":\"clear sky\",\"icon\":\"01d\"}],"
+                    + "\"main\":{\"temp\":288.55,\"humidity\":40},\"name\":\"Seoul\"}";
+
+    private final AtomicInteger geoCalls = new AtomicInteger();
+    private final AtomicInteger weatherCalls = new AtomicInteger();
+
+    private HttpServer server;
+    private DateWeatherRepository dateWeatherRepository;
+    private DiaryService diaryService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/geo", exchange -> respond(exchange, geoCalls, GEO_RESPONSE));
+        server.createContext("/weather", exchange -> respond(exchange, weatherCalls, WEATHER_RESPONSE));
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+
+        GeoCoordinateRepository geoCoordinateRepository = mock(GeoCoordinateRepository.class);
+        given(geoCoordinateRepository.findById(any())).willReturn(Optional.empty());
+        given(geoCoordinateRepository.save(any())).willAnswer(invocation -> invocation.getArgument(0));
+
+        dateWeatherRepository = mock(DateWeatherRepository.class);
+        given(dateWeatherRepository.findById(any())).willReturn(Optional.empty());
+        given(dateWeatherRepository.save(any())).willAnswer(invocation -> invocation.getArgument(0));
+
+        diaryService = new DiaryService(
+                mock(DiaryRepository.class),
+                mock(DiaryWriter.class),
+                mock(JdbcDiaryRepository.class),
+                dateWeatherRepository,
+                mock(DiaryVersionRepository.class),
+                new DiaryCache(100),
+                new GeoCoordinateCache(geoCoordinateRepository),
+                new DateWeatherCache(16, Duration.ofHours(1), Duration.ofMinutes(1)),
+                new WeatherHttpClient(Duration.ofSeconds(2), Duration.ofSeconds(5), false, new SimpleMeterRegistry(),
+                        new CircuitBreaker(20, 10, 0.5, Duration.ofSeconds(30))),
+                new SimpleMeterRegistry());
+
+        String baseUrl = "http://localhost:" + server.getAddress().getPort();
+        ReflectionTestUtils.setField(diaryService, "apiKey", "test");
+        ReflectionTestUtils.setField(diaryService, "defaultCity", "seoul");
+        ReflectionTestUtils.setField(diaryService, "geoUrl", baseUrl + "/geo?q={city}&appid={key}");
+        ReflectionTestUtils.setField(diaryService, "weatherUrl", baseUrl + "/weather?lat={lat}&lon={lon}&appid={key}");
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void concurrentMissesShareOneFetch() throws Exception {
+        // given
+        int callers = 32;
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<DateWeather>> results = new ArrayList<>();
+
+        // when
+        for (int i = 0; i < callers; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                return diaryService.getDateWeather("seoul", LocalDate.now());
+            }));
+        }
+        start.countDown();
+        for (Future<DateWeather> result : results) {
+            assertEquals("Clear", result.get(10, TimeUnit.SECONDS).getWeather());
+        }
+        executor.shutdown();
+
+        // later requests are served from date_weather / cache
+        diaryService.getDateWeather("seoul", LocalDate.now());
+
+        // then
+        assertEquals(1, geoCalls.get());
+        assertEquals(1, weatherCalls.get());
+        verify(dateWeatherRepository, times(1)).save(any());
+    }
+
+    private static void respond(HttpExchange exchange, AtomicInteger counter, String body) throws IOException {
+        counter.incrementAndGet();
+        try {
+            // 요청들이 겹치도록 upstream 지연을 흉내낸다.
+            Thread.sleep(200);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(bytes);
+        }
+    }
+}
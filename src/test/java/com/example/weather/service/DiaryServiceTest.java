@@ -1,27 +1,41 @@
 package com.example.weather.service;
 
+import com.example.weather.client.WeatherHttpClient;
 import com.example.weather.domain.DateWeather;
+import com.example.weather.domain.DateWeatherId;
 import com.example.weather.domain.Diary;
+import com.example.weather.domain.GeoCoordinate;
+import com.example.weather.dto.BulkCreateDiaryResponse;
+import com.example.weather.dto.CreateDiaryItem;
+import com.example.weather.exception.WeatherApiException;
 import com.example.weather.exception.WeatherException;
 import com.example.weather.repository.DateWeatherRepository;
 import com.example.weather.repository.DiaryRepository;
+import com.example.weather.repository.JdbcDiaryRepository;
 import com.example.weather.type.ErrorCode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDate;
-import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -33,28 +47,48 @@ class DiaryServiceTest {
     @Mock
     private DiaryRepository diaryRepository;
 
+    @Mock
+    private DiaryWriter diaryWriter;
+
+    @Mock
+    private JdbcDiaryRepository jdbcDiaryRepository;
+
     @Mock
     private DateWeatherRepository dateWeatherRepository;
 
+    @Mock
+    private GeoCoordinateCache geoCoordinateCache;
+
+    @Mock
+    private WeatherHttpClient weatherHttpClient;
+
+    @Spy
+    private DateWeatherCache dateWeatherCache =
+            new DateWeatherCache(16, Duration.ofHours(1), Duration.ofMinutes(1));
+
+    @Spy
+    private DiaryCache diaryCache = new DiaryCache(100);
+
+    @Spy
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     private DiaryService diaryService;
 
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(diaryService, "defaultCity", "seoul");
+    }
+
     @Test
     void diaryCreationSuccess() {
         // given
-        List<DateWeather> weatherList = Arrays.asList(
-                DateWeather.builder()
+        given(dateWeatherRepository.findById(any()))
+                .willReturn(Optional.of(DateWeather.builder()
                         .date(LocalDate.of(2023, 10, 25))
-                        .build(),
-                DateWeather.builder()
-                        .date(LocalDate.of(2023, 10, 26))
-                        .build()
-        );
-
-        given(dateWeatherRepository.findAllByDate(any()))
-                .willReturn(weatherList);
+                        .build()));
 
-        given(diaryRepository.save(any()))
+        given(diaryWriter.insert(any()))
                 .willReturn(Diary.builder()
                         .text("오늘의 일기")
                         .date(LocalDate.of(2023, 10, 25))
@@ -63,12 +97,134 @@ class DiaryServiceTest {
         ArgumentCaptor<Diary> captor = ArgumentCaptor.forClass(Diary.class);
 
         // when
-        Diary diary = diaryService.createDiary(LocalDate.of(2023, 10, 25), "오늘의 일기");
+        Diary diary = diaryService.createDiary(LocalDate.of(2023, 10, 25), null, "오늘의 일기");
 
 
         // then
-        verify(diaryRepository, times(1)).save(captor.capture());
+        verify(diaryWriter, times(1)).insert(captor.capture());
         assertEquals(captor.getValue().getDate().toString(), "2023-10-25");
+        assertEquals(1, meterRegistry.get("weather.date_weather.lookups").tag("source", "db").counter().count());
+    }
+
+    @Test
+    void bulkCreationReportsFailuresPerItem() {
+        // given
+        given(dateWeatherRepository.findById(any()))
+                .willReturn(Optional.of(DateWeather.builder()
+                        .date(LocalDate.of(2023, 10, 25))
+                        .weather("Clear")
+                        .build()));
+
+        List<CreateDiaryItem> items = List.of(
+                new CreateDiaryItem(LocalDate.of(2023, 10, 25), null, "첫번째 일기"),
+                new CreateDiaryItem(LocalDate.of(5000, 5, 13), "seoul", "잘못된 날짜"),
+                new CreateDiaryItem(LocalDate.of(2023, 10, 25), "Seoul", "두번째 일기"));
+
+        // when
+        BulkCreateDiaryResponse response = diaryService.createDiaries(items);
+
+        // then
+        verify(dateWeatherRepository, times(1)).findById(new DateWeatherId("seoul", LocalDate.of(2023, 10, 25)));
+        verify(diaryWriter, times(1)).insertAll(argThat(diaries -> diaries.size() == 2));
+        assertEquals(2, response.getCreatedCount());
+        assertEquals(1, response.getFailedCount());
+        assertEquals(ErrorCode.INVALIDED_DATE, response.getResults().get(1).getErrorCode());
+    }
+
+    @Test
+    void pastDateWithoutWeatherFetchesThatDay() {
+        // given
+        LocalDate date = LocalDate.of(2023, 10, 25);
+        ReflectionTestUtils.setField(diaryService, "apiKey", "key");
+        ReflectionTestUtils.setField(diaryService, "historyUrl", "history?lat={lat}&lon={lon}&dt={dt}&appid={key}");
+        given(dateWeatherRepository.findById(any())).willReturn(Optional.empty());
+        given(geoCoordinateCache.get(eq("seoul"), any()))
+                .willReturn(GeoCoordinate.builder().city("seoul").lat(37.56).lon(126.97).build());
+        given(weatherHttpClient.get(startsWith("history?")))
+                .willReturn("{\"data\":[{\"temp\":288.5,\"weather\":[{\"main\":\"Clear\",\"icon\":\"01d\"}]}]}");
+        given(dateWeatherRepository.save(any())).willAnswer(invocation -> invocation.getArgument(0));
+
+        // when
+        DateWeather dateWeather = diaryService.getDateWeather(null, date);
+
+        // then
+        assertEquals(date, dateWeather.getDate());
+        assertEquals("Clear", dateWeather.getWeather());
+        verify(dateWeatherRepository, times(1)).save(dateWeather);
+        assertEquals(1, meterRegistry.get("weather.date_weather.lookups").tag("source", "api").counter().count());
+    }
+
+    @Test
+    void weatherSavedWhileMissingIsReadFromDbInsteadOfApi() {
+        // given : 캐시를 채울 때는 없었지만, api 를 부르기 전에 다른 요청이 저장했다.
+        LocalDate date = LocalDate.of(2023, 10, 25);
+        DateWeather stored = DateWeather.builder()
+                .city("seoul")
+                .date(date)
+                .weather("Clear")
+                .build();
+        given(dateWeatherRepository.findById(any()))
+                .willReturn(Optional.empty())
+                .willReturn(Optional.of(stored));
+
+        // when
+        DateWeather dateWeather = diaryService.getDateWeather(null, date);
+        DateWeather cached = diaryService.getDateWeather(null, date);
+
+        // then
+        assertEquals("Clear", dateWeather.getWeather());
+        assertEquals("Clear", cached.getWeather());
+        verify(dateWeatherRepository, times(2)).findById(any());
+        verify(weatherHttpClient, never()).get(any());
+        verify(dateWeatherRepository, never()).save(any());
+    }
+
+    @Test
+    void createWithStaleWeatherWhileCircuitIsOpen() {
+        // given
+        LocalDate date = LocalDate.of(2023, 10, 25);
+        given(dateWeatherRepository.findById(any())).willReturn(Optional.empty());
+        given(geoCoordinateCache.get(eq("seoul"), any())).willThrow(new WeatherApiException(
+                ErrorCode.WEATHER_API_UNAVAILABLE, WeatherApiException.NO_RESPONSE, "circuit is open"));
+        given(dateWeatherRepository.findFirstByCityOrderByDateDesc("seoul"))
+                .willReturn(Optional.of(DateWeather.builder()
+                        .city("seoul")
+                        .date(LocalDate.of(2023, 10, 20))
+                        .weather("Rain")
+                        .icon("10d")
+                        .temperature(280.5)
+                        .build()));
+        ArgumentCaptor<Diary> captor = ArgumentCaptor.forClass(Diary.class);
+
+        // when
+        diaryService.createDiary(date, null, "오늘의 일기");
+
+        // then
+        verify(diaryWriter, times(1)).insert(captor.capture());
+        assertEquals("Rain", captor.getValue().getWeather());
+        assertEquals("seoul", captor.getValue().getCity());
+        assertEquals(date, captor.getValue().getDate());
+        assertTrue(captor.getValue().isWeatherStale());
+        verify(dateWeatherRepository, never()).save(any());
+        assertEquals(1, meterRegistry.get("weather.date_weather.lookups").tag("source", "stale").counter().count());
+    }
+
+    @Test
+    void failWhenCircuitIsOpenAndNoWeatherIsStored() {
+        // given
+        given(dateWeatherRepository.findById(any())).willReturn(Optional.empty());
+        given(geoCoordinateCache.get(eq("seoul"), any())).willThrow(new WeatherApiException(
+                ErrorCode.WEATHER_API_UNAVAILABLE, WeatherApiException.NO_RESPONSE, "circuit is open"));
+        given(dateWeatherRepository.findFirstByCityOrderByDateDesc("seoul")).willReturn(Optional.empty());
+
+        // when
+        WeatherApiException exception = assertThrows(
+                WeatherApiException.class,
+                () -> diaryService.createDiary(LocalDate.of(2023, 10, 25), null, "오늘의 일기"));
+
+        // then
+        assertEquals(ErrorCode.WEATHER_API_UNAVAILABLE, exception.getErrorCode());
+        verify(diaryWriter, never()).insert(any());
     }
 
     @Test
@@ -77,7 +233,7 @@ class DiaryServiceTest {
         // when
         WeatherException exception = assertThrows(
                 WeatherException.class,
-                () -> diaryService.createDiary(LocalDate.of(5000, 5, 13), "오늘의 일기")
+                () -> diaryService.createDiary(LocalDate.of(5000, 5, 13), null, "오늘의 일기")
         );
 
         // then
@@ -0,0 +1,195 @@
+package com.example.weather.service;
+
+import com.example.weather.domain.Diary;
+import com.example.weather.repository.DiaryVersionRepository;
+import com.example.weather.repository.JdbcDiaryRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DiaryTextIndexTest {
+    private final JdbcDiaryRepository jdbcDiaryRepository = mock(JdbcDiaryRepository.class);
+    private final DiaryVersionRepository diaryVersionRepository = mock(DiaryVersionRepository.class);
+    // worker 대신 호출한 스레드에서 바로 다시 색인한다.
+    private final DiaryTextIndex diaryTextIndex = new DiaryTextIndex(
+            jdbcDiaryRepository, diaryVersionRepository, mock(PlatformTransactionManager.class), Runnable::run);
+    // DB 에 있는 diary 와 diary_version
+    private final List<Diary> diaries = new ArrayList<>();
+    private final Map<LocalDate, Long> versions = new HashMap<>();
+    // true 면 diary 를 다시 읽을 커넥션을 얻지 못한다.
+    private final AtomicBoolean poolExhausted = new AtomicBoolean();
+    private final LocalDate date = LocalDate.of(2023, 10, 25);
+
+    @BeforeEach
+    void setUp() {
+        doAnswer(invocation -> {
+            Consumer<Diary> consumer = invocation.getArgument(0);
+            List.copyOf(diaries).forEach(consumer);
+            return null;
+        }).when(jdbcDiaryRepository).forEach(any());
+        when(jdbcDiaryRepository.findAllByDateIn(anyCollection())).thenAnswer(invocation -> {
+            if (poolExhausted.get()) {
+                throw new CannotCreateTransactionException("Connection is not available");
+            }
+            Collection<LocalDate> dates = invocation.getArgument(0);
+            return diaries.stream().filter(diary -> dates.contains(diary.getDate())).toList();
+        });
+        when(diaryVersionRepository.findAllVersions()).thenAnswer(invocation -> new HashMap<>(versions));
+        when(diaryVersionRepository.findVersions(anyCollection())).thenAnswer(invocation -> {
+            Map<LocalDate, Long> found = new HashMap<>(versions);
+            found.keySet().retainAll(invocation.getArgument(0));
+            return found;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void tokenizeSplitsHangulIntoBigrams() {
+        assertEquals(List.of("오늘", "늘은", "맑음", "sunny", "23"), DiaryTextIndex.tokenize("오늘은 맑음! Sunny, 23"));
+        assertTrue(DiaryTextIndex.tokenize(" ?! ").isEmpty());
+    }
+
+    @Test
+    void searchRanksByRelevanceWithinDateRange() {
+        // given
+        diaries.add(diary(1, date, "비가 왔다 비가 많이 왔다"));
+        diaries.add(diary(2, date, "오후에 비가 그쳤다 산책을 했다 바람이 불었다"));
+        diaries.add(diary(3, date, "맑음"));
+        diaries.add(diary(4, date.minusDays(10), "비가 왔다"));
+        diaryTextIndex.rebuild();
+
+        // when
+        DiaryTextIndex.Result result = diaryTextIndex.search(DiaryTextIndex.tokenize("비가"), date.minusDays(1), date, 0, 10);
+        DiaryTextIndex.Result secondPage = diaryTextIndex.search(DiaryTextIndex.tokenize("비가"), null, null, 2, 2);
+
+        // then
+        assertEquals(2, result.totalCount());
+        assertEquals(List.of(1, 2), result.hits().stream().map(DiaryTextIndex.Hit::id).toList());
+        assertTrue(result.hits().get(0).score() > result.hits().get(1).score());
+        assertEquals(3, secondPage.totalCount());
+        assertEquals(1, secondPage.hits().size());
+    }
+
+    @Test
+    void writeReindexesChangedDatesAfterCommit() {
+        // given
+        diaries.add(diary(1, date, "첫번째 일기"));
+        diaries.add(diary(2, date, "두번째 일기"));
+        diaryTextIndex.rebuild();
+
+        // when : 한 건을 고치고 한 건을 지운 트랜잭션
+        TransactionSynchronizationManager.initSynchronization();
+        diaries.set(0, diary(1, date, "수정한 메모"));
+        diaries.remove(1);
+        diaryTextIndex.write(List.of(date));
+        int beforeCommit = diaryTextIndex.search(List.of("일기"), null, null, 0, 10).hits().size();
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        // then
+        assertEquals(2, beforeCommit);
+        assertEquals(0, diaryTextIndex.search(List.of("일기"), null, null, 0, 10).totalCount());
+        assertEquals(List.of(1), diaryTextIndex.search(List.of("메모"), null, null, 0, 10).hits().stream()
+                .map(DiaryTextIndex.Hit::id).toList());
+        assertEquals(1, diaryTextIndex.size());
+    }
+
+    @Test
+    void repeatedUpdatesKeepDocumentFrequencyAccurate() {
+        // given
+        diaries.add(diary(1, date, "rain"));
+        diaries.add(diary(2, date, "rain"));
+        diaryTextIndex.rebuild();
+
+        // when : 같은 diary 를 여러 번 고친다. (지난 posting 항목이 쌓였다가 정리된다)
+        for (int i = 0; i < 10; i++) {
+            diaries.set(0, diary(1, date, "rain " + i));
+            diaryTextIndex.write(List.of(date));
+        }
+        DiaryTextIndex.Result result = diaryTextIndex.search(List.of("rain"), null, null, 0, 10);
+
+        // then
+        assertEquals(2, result.totalCount());
+        assertEquals(1, diaryTextIndex.search(List.of("9"), null, null, 0, 10).totalCount());
+        assertEquals(0, diaryTextIndex.search(List.of("8"), null, null, 0, 10).totalCount());
+    }
+
+    @Test
+    void failedReindexDoesNotFailCommitAndIsRetriedOnPoll() {
+        // given
+        diaries.add(diary(1, date, "첫번째 일기"));
+        versions.put(date, 1L);
+        diaryTextIndex.rebuild();
+
+        // when : 커밋 뒤 다시 읽을 커넥션이 없다.
+        TransactionSynchronizationManager.initSynchronization();
+        diaries.set(0, diary(1, date, "수정한 메모"));
+        versions.put(date, 2L);
+        diaryTextIndex.write(List.of(date));
+        poolExhausted.set(true);
+        assertDoesNotThrow(() -> TransactionSynchronizationManager.getSynchronizations()
+                .forEach(TransactionSynchronization::afterCommit));
+        int beforePoll = diaryTextIndex.search(List.of("메모"), null, null, 0, 10).hits().size();
+        poolExhausted.set(false);
+        diaryTextIndex.poll();
+
+        // then
+        assertEquals(0, beforePoll);
+        assertEquals(1, diaryTextIndex.search(List.of("메모"), null, null, 0, 10).totalCount());
+    }
+
+    @Test
+    void pollReindexesDatesChangedByOtherNodes() {
+        // given
+        diaries.add(diary(1, date, "첫번째 일기"));
+        versions.put(date, 1L);
+        diaryTextIndex.rebuild();
+
+        // when : 다른 노드가 diary 를 고치고 하나를 더 썼다. 이 노드의 write 는 불리지 않는다.
+        diaries.set(0, diary(1, date, "수정한 메모"));
+        diaries.add(diary(2, date.plusDays(1), "다른 노드의 메모"));
+        versions.put(date, 2L);
+        versions.put(date.plusDays(1), 1L);
+        diaryTextIndex.poll();
+
+        // then
+        assertEquals(0, diaryTextIndex.search(List.of("일기"), null, null, 0, 10).totalCount());
+        assertEquals(2, diaryTextIndex.search(List.of("메모"), null, null, 0, 10).totalCount());
+    }
+
+    private static Diary diary(int id, LocalDate date, String text) {
+        return Diary.builder()
+                .id(id)
+                .weather("Rain")
+                .icon("10d")
+                .temperature(280.0)
+                .text(text)
+                .date(date)
+                .build();
+    }
+}
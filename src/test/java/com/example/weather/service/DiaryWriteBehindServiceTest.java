@@ -0,0 +1,294 @@
+package com.example.weather.service;
+
+import com.example.weather.domain.DateWeather;
+import com.example.weather.domain.Diary;
+import com.example.weather.dto.DiaryReceipt;
+import com.example.weather.exception.BackpressureException;
+import com.example.weather.exception.WeatherException;
+import com.example.weather.repository.WriteBehindCheckpointRepository;
+import com.example.weather.type.ErrorCode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.*;
+
+class DiaryWriteBehindServiceTest {
+    private final DiaryService diaryService = mock(DiaryService.class);
+    private final DiaryWriter diaryWriter = mock(DiaryWriter.class);
+    private final WriteBehindCheckpointRepository checkpointRepository = mock(WriteBehindCheckpointRepository.class);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final LocalDate date = LocalDate.of(2023, 10, 25);
+
+    @TempDir
+    Path logDirectory;
+
+    private DiaryWriteBehindService service;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void acceptedDiariesAreFlushedWithCheckpoint() throws Exception {
+        // given
+        given(diaryService.getDateWeather("seoul", date)).willReturn(weather());
+        service = start(100);
+
+        // when
+        DiaryReceipt first = service.accept(date, "seoul", "하나");
+        service.accept(date, "seoul", "둘");
+        DiaryReceipt third = service.accept(date, "seoul", "셋");
+
+        // then
+        String logId = first.getReceiptId().substring(0, first.getReceiptId().lastIndexOf('-'));
+        assertEquals(logId + "-3", third.getReceiptId());
+        assertEquals("seoul", third.getCity());
+        assertTrue(third.isDurable());
+        verify(diaryWriter, timeout(5000)).insertBuffered(anyList(), eq(logId), eq(3L));
+        assertTrue(waitUntilFlushed());
+    }
+
+    @Test
+    void replayOnlyDiariesAfterCheckpoint() throws Exception {
+        // given : 3 건을 로그에 남기고 1 건만 DB 에 반영된 채 죽었다.
+        String logId;
+        try (DiaryAppendLog appendLog = new DiaryAppendLog(logDirectory, 1024 * 1024, objectMapper)) {
+            appendLog.open(0, entry -> {
+            });
+            for (String text : List.of("하나", "둘", "셋")) {
+                appendLog.sync(appendLog.append(diary(text)));
+            }
+            logId = appendLog.getLogId();
+        }
+        given(checkpointRepository.find(logId)).willReturn(1L);
+
+        // when
+        service = start(100);
+
+        // then
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Diary>> captor = ArgumentCaptor.forClass(List.class);
+        verify(diaryWriter, timeout(5000)).insertBuffered(captor.capture(), eq(logId), eq(3L));
+        assertEquals(List.of("둘", "셋"), captor.getValue().stream().map(Diary::getText).toList());
+        assertEquals(date, captor.getValue().get(0).getDate());
+    }
+
+    @Test
+    void replayMoreDiariesThanCapacity() throws Exception {
+        // given : capacity 를 2 로 줄이고 재시작했는데 로그에는 3 건이 남아 있다.
+        CountDownLatch blocked = new CountDownLatch(1);
+        willAnswer(invocation -> {
+            blocked.await();
+            return null;
+        }).given(diaryWriter).insertBuffered(anyList(), anyString(), anyLong());
+        try (DiaryAppendLog appendLog = new DiaryAppendLog(logDirectory, 1024 * 1024, objectMapper)) {
+            appendLog.open(0, entry -> {
+            });
+            for (String text : List.of("하나", "둘", "셋")) {
+                appendLog.sync(appendLog.append(diary(text)));
+            }
+        }
+        given(diaryService.getDateWeather("seoul", date)).willReturn(weather());
+
+        // when
+        service = start(2);
+        int pendingAfterReplay = service.getPendingCount();
+        assertThrows(BackpressureException.class, () -> service.accept(date, "seoul", "넷"));
+        blocked.countDown();
+
+        // then
+        assertEquals(3, pendingAfterReplay);
+        assertTrue(waitUntilFlushed());
+        service.accept(date, "seoul", "넷");
+        assertTrue(waitUntilFlushed());
+    }
+
+    @Test
+    void acceptEvenIfSyncFails() throws Exception {
+        // given : 로그는 썼지만 fsync 가 실패한다.
+        given(diaryService.getDateWeather("seoul", date)).willReturn(weather());
+        service = start(100);
+        DiaryAppendLog appendLog = spy((DiaryAppendLog) ReflectionTestUtils.getField(service, "appendLog"));
+        doThrow(new IOException("disk error")).when(appendLog).sync(anyLong());
+        ReflectionTestUtils.setField(service, "appendLog", appendLog);
+
+        // when
+        DiaryReceipt receipt = service.accept(date, "seoul", "하나");
+
+        // then : 실패로 답하지 않는다. (다시 보내면 두 번 들어간다) DB 에는 그대로 반영된다.
+        assertFalse(receipt.isDurable());
+        verify(diaryWriter, timeout(5000)).insertBuffered(anyList(), anyString(), eq(1L));
+        assertTrue(waitUntilFlushed());
+    }
+
+    @Test
+    void transientFailureDuringOneByOneFallbackIsRetried() throws Exception {
+        // given : batch 에 넣을 수 없는 diary 가 섞여 있고, 하나씩 넣는 도중 커넥션이 한 번 끊긴다.
+        List<String> inserted = new CopyOnWriteArrayList<>();
+        AtomicInteger singleInserts = new AtomicInteger();
+        CountDownLatch accepted = new CountDownLatch(1);
+        willAnswer(invocation -> {
+            accepted.await();
+            List<Diary> diaries = invocation.getArgument(0);
+            if (diaries.size() > 1) {
+                throw new DataIntegrityViolationException("Data too long for column 'text'");
+            }
+            if (singleInserts.incrementAndGet() == 2) {
+                throw new TransientDataAccessResourceException("Communications link failure");
+            }
+            diaries.forEach(diary -> inserted.add(diary.getText()));
+            return null;
+        }).given(diaryWriter).insertBuffered(anyList(), anyString(), anyLong());
+        given(diaryService.getDateWeather("seoul", date)).willReturn(weather());
+        service = start(100);
+
+        // when
+        for (String text : List.of("하나", "둘", "셋")) {
+            service.accept(date, "seoul", text);
+        }
+        accepted.countDown();
+
+        // then : 끊긴 diary 도 다시 넣고, 두 번 넣지 않는다.
+        assertTrue(waitUntilFlushed());
+        assertEquals(List.of("하나", "둘", "셋"), inserted);
+    }
+
+    @Test
+    void flusherSurvivesUnexpectedException() throws Exception {
+        // given : 첫 반영에서 예상하지 못한 예외가 난다.
+        AtomicInteger calls = new AtomicInteger();
+        willAnswer(invocation -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new IllegalStateException("unexpected");
+            }
+            return null;
+        }).given(diaryWriter).insertBuffered(anyList(), anyString(), anyLong());
+        given(diaryService.getDateWeather("seoul", date)).willReturn(weather());
+        service = start(100);
+
+        // when
+        service.accept(date, "seoul", "하나");
+        assertTrue(waitUntilFlushed());
+        service.accept(date, "seoul", "둘");
+
+        // then : flush 스레드가 살아 있어 다음 diary 도 반영한다.
+        assertTrue(waitUntilFlushed());
+        verify(diaryWriter, timeout(5000)).insertBuffered(anyList(), anyString(), eq(2L));
+    }
+
+    @Test
+    void rejectTextThatDoesNotFitBeforeAccepting() throws Exception {
+        // given
+        service = start(100);
+
+        // when
+        WeatherException tooLong = assertThrows(WeatherException.class,
+                () -> service.accept(date, "seoul", "가".repeat(501)));
+        WeatherException missing = assertThrows(WeatherException.class,
+                () -> service.accept(date, "seoul", null));
+
+        // then
+        assertEquals(ErrorCode.INVALID_DIARY_TEXT, tooLong.getErrorCode());
+        assertEquals(ErrorCode.INVALID_DIARY_TEXT, missing.getErrorCode());
+        assertEquals(0, service.getPendingCount());
+        verifyNoInteractions(diaryService, diaryWriter);
+    }
+
+    @Test
+    void rejectWhenQueueIsFull() throws Exception {
+        // given : DB 반영이 멈춰 있다.
+        CountDownLatch blocked = new CountDownLatch(1);
+        willAnswer(invocation -> {
+            blocked.await();
+            return null;
+        }).given(diaryWriter).insertBuffered(anyList(), anyString(), anyLong());
+        given(diaryService.getDateWeather("seoul", date)).willReturn(weather());
+        service = start(1);
+        service.accept(date, "seoul", "하나");
+
+        // when
+        BackpressureException exception = assertThrows(BackpressureException.class,
+                () -> service.accept(date, "seoul", "둘"));
+
+        // then
+        assertEquals(ErrorCode.WRITE_BEHIND_QUEUE_FULL, exception.getErrorCode());
+        assertEquals(Duration.ofSeconds(1), exception.getRetryAfter());
+        assertEquals(1, service.getPendingCount());
+        blocked.countDown();
+    }
+
+    @Test
+    void rejectWhenDisabled() throws Exception {
+        // given
+        DiaryWriteBehindService disabled = new DiaryWriteBehindService(diaryService, diaryWriter, checkpointRepository,
+                objectMapper, false, 100, 10, Duration.ofMillis(10), Duration.ofSeconds(1), Duration.ofMillis(10),
+                Duration.ofMillis(10), true, logDirectory, 1024 * 1024);
+        disabled.start();
+
+        // when
+        WeatherException exception = assertThrows(WeatherException.class,
+                () -> disabled.accept(date, "seoul", "하나"));
+
+        // then
+        assertEquals(ErrorCode.WRITE_BEHIND_DISABLED, exception.getErrorCode());
+        verifyNoInteractions(diaryService, checkpointRepository);
+    }
+
+    private DiaryWriteBehindService start(int capacity) throws Exception {
+        DiaryWriteBehindService started = new DiaryWriteBehindService(diaryService, diaryWriter, checkpointRepository,
+                objectMapper, true, capacity, 10, Duration.ofMillis(10), Duration.ofSeconds(1), Duration.ofMillis(10),
+                Duration.ofMillis(10), true, logDirectory, 1024 * 1024);
+        started.start();
+        return started;
+    }
+
+    private boolean waitUntilFlushed() throws InterruptedException {
+        for (int i = 0; i < 500 && service.getPendingCount() > 0; i++) {
+            Thread.sleep(10);
+        }
+        return service.getPendingCount() == 0;
+    }
+
+    private DateWeather weather() {
+        return DateWeather.builder()
+                .city("seoul")
+                .date(date)
+                .weather("Clear")
+                .icon("01d")
+                .temperature(288.5)
+                .build();
+    }
+
+    private Diary diary(String text) {
+        return Diary.builder()
+                .date(date)
+                .city("seoul")
+                .weather("Clear")
+                .icon("01d")
+                .temperature(288.5)
+                .text(text)
+                .build();
+    }
+}
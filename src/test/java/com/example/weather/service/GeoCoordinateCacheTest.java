@@ -0,0 +1,104 @@
+package com.example.weather.service;
+
+import com.example.weather.domain.GeoCoordinate;
+import com.example.weather.repository.GeoCoordinateRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class GeoCoordinateCacheTest {
+    @Mock
+    private GeoCoordinateRepository geoCoordinateRepository;
+
+    @InjectMocks
+    private GeoCoordinateCache geoCoordinateCache;
+
+    @Test
+    void loadOnceThenHitMemory() {
+        // given
+        AtomicInteger apiCalls = new AtomicInteger();
+        given(geoCoordinateRepository.findById("seoul"))
+                .willReturn(Optional.empty());
+        given(geoCoordinateRepository.save(any()))
+                .willAnswer(invocation -> invocation.getArgument(0));
+
+        // when
+        GeoCoordinate first = geoCoordinateCache.get("Seoul ", c -> {
+            apiCalls.incrementAndGet();
+            return GeoCoordinate.builder().lat(37.56).lon(126.97).build();
+        });
+        GeoCoordinate second = geoCoordinateCache.get("seoul", c -> {
+            apiCalls.incrementAndGet();
+            return null;
+        });
+
+        // then
+        assertEquals(1, apiCalls.get());
+        assertEquals("seoul", first.getCity());
+        assertEquals(first, second);
+        assertEquals(1, geoCoordinateCache.stats().getHitCount());
+        assertEquals(1, geoCoordinateCache.stats().getMissCount());
+        verify(geoCoordinateRepository, times(1)).save(any());
+    }
+
+    @Test
+    void loadFromTableWithoutApiCall() {
+        // given
+        given(geoCoordinateRepository.findById("seoul"))
+                .willReturn(Optional.of(new GeoCoordinate("seoul", 37.56, 126.97)));
+
+        // when
+        GeoCoordinate coordinate = geoCoordinateCache.get("seoul", c -> {
+            throw new IllegalStateException("geo api should not be called");
+        });
+
+        // then
+        assertEquals(37.56, coordinate.getLat());
+        assertEquals(1, geoCoordinateCache.stats().getHitCount());
+        assertEquals(0, geoCoordinateCache.stats().getMissCount());
+    }
+
+    @Test
+    void slowLoadDoesNotBlockOtherCities() throws Exception {
+        // given : seoul 의 geo api 호출이 끝나지 않고 있다.
+        given(geoCoordinateRepository.findById(any())).willReturn(Optional.empty());
+        given(geoCoordinateRepository.save(any())).willAnswer(invocation -> invocation.getArgument(0));
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<GeoCoordinate> seoul = CompletableFuture.supplyAsync(() -> geoCoordinateCache.get("seoul", c -> {
+            loading.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return GeoCoordinate.builder().lat(37.56).lon(126.97).build();
+        }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        // when
+        GeoCoordinate busan = geoCoordinateCache.get("busan", c -> GeoCoordinate.builder().lat(35.17).lon(129.07).build());
+        release.countDown();
+
+        // then
+        assertEquals("busan", busan.getCity());
+        assertEquals("seoul", seoul.get(5, TimeUnit.SECONDS).getCity());
+        assertEquals(2, geoCoordinateCache.stats().getSize());
+    }
+}
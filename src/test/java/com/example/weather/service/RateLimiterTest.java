@@ -0,0 +1,41 @@
+package com.example.weather.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RateLimiterTest {
+    private final AtomicLong now = new AtomicLong();
+    private final RateLimiter rateLimiter = new RateLimiter(4, now::get);
+
+    @Test
+    void callsAreSpacedByInterval() {
+        // when
+        long first = rateLimiter.reserve();
+        long second = rateLimiter.reserve();
+        long third = rateLimiter.reserve();
+
+        // then
+        assertEquals(0, first);
+        assertEquals(Duration.ofMillis(250).toNanos(), second);
+        assertEquals(Duration.ofMillis(500).toNanos(), third);
+    }
+
+    @Test
+    void idleTimeIsNotSavedForBurst() {
+        // given
+        rateLimiter.reserve();
+
+        // when
+        now.addAndGet(Duration.ofSeconds(10).toNanos());
+        long afterIdle = rateLimiter.reserve();
+        long next = rateLimiter.reserve();
+
+        // then
+        assertEquals(0, afterIdle);
+        assertEquals(Duration.ofMillis(250).toNanos(), next);
+    }
+}
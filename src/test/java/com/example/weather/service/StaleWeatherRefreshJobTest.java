@@ -0,0 +1,130 @@
+package com.example.weather.service;
+
+import com.example.weather.client.CircuitBreaker;
+import com.example.weather.domain.DateWeather;
+import com.example.weather.domain.DateWeatherId;
+import com.example.weather.exception.WeatherApiException;
+import com.example.weather.repository.DiaryRepository;
+import com.example.weather.type.ErrorCode;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+class StaleWeatherRefreshJobTest {
+    private final DiaryService diaryService = mock(DiaryService.class);
+    private final DiaryRepository diaryRepository = mock(DiaryRepository.class);
+    private final DiaryWriter diaryWriter = mock(DiaryWriter.class);
+    private final CircuitBreaker circuitBreaker = mock(CircuitBreaker.class);
+    private final StaleWeatherRefreshJob job =
+            new StaleWeatherRefreshJob(diaryService, diaryRepository, diaryWriter, circuitBreaker, 10, Duration.ofHours(1));
+
+    private final LocalDate date = LocalDate.of(2023, 10, 25);
+
+    @Test
+    void refreshStaleDiariesWithFetchedWeather() {
+        // given
+        given(circuitBreaker.getState()).willReturn(CircuitBreaker.State.CLOSED);
+        given(diaryRepository.findStaleWeatherKeys(any())).willReturn(List.of(
+                new DateWeatherId("seoul", date), new DateWeatherId("busan", date)));
+        DateWeather seoul = weather("seoul", false);
+        DateWeather busan = weather("busan", false);
+        given(diaryService.getDateWeather("seoul", date)).willReturn(seoul);
+        given(diaryService.getDateWeather("busan", date)).willReturn(busan);
+        given(diaryWriter.refreshStaleWeather("seoul", date, seoul)).willReturn(3);
+        given(diaryWriter.refreshStaleWeather("busan", date, busan)).willReturn(1);
+
+        // when
+        int refreshedCount = job.refresh();
+
+        // then
+        assertEquals(4, refreshedCount);
+    }
+
+    @Test
+    void stopWhenWeatherIsStillStale() {
+        // given
+        given(circuitBreaker.getState()).willReturn(CircuitBreaker.State.HALF_OPEN);
+        given(diaryRepository.findStaleWeatherKeys(any())).willReturn(List.of(
+                new DateWeatherId("seoul", date), new DateWeatherId("busan", date)));
+        given(diaryService.getDateWeather("seoul", date)).willReturn(weather("seoul", true));
+
+        // when
+        int refreshedCount = job.refresh();
+
+        // then
+        assertEquals(0, refreshedCount);
+        verify(diaryService, never()).getDateWeather("busan", date);
+        verify(diaryWriter, never()).refreshStaleWeather(any(), any(), any());
+    }
+
+    @Test
+    void failingKeyDoesNotBlockOthersAndIsRetriedLater() {
+        // given : seoul 의 그 날 날씨는 api 가 계속 거절한다.
+        given(circuitBreaker.getState()).willReturn(CircuitBreaker.State.CLOSED);
+        given(diaryRepository.findStaleWeatherKeys(any())).willReturn(List.of(
+                new DateWeatherId("seoul", date), new DateWeatherId("busan", date)));
+        given(diaryService.getDateWeather("seoul", date)).willThrow(new WeatherApiException(
+                ErrorCode.WEATHER_API_FAILED, 400, "weather api responded with status 400"));
+        DateWeather busan = weather("busan", false);
+        given(diaryService.getDateWeather("busan", date)).willReturn(busan);
+        given(diaryWriter.refreshStaleWeather("busan", date, busan)).willReturn(2);
+
+        // when
+        int first = job.refresh();
+        int second = job.refresh();
+
+        // then : 두번째 실행은 seoul 을 미뤄 두고 busan 만 다시 본다.
+        assertEquals(2, first);
+        assertEquals(2, second);
+        verify(diaryService, times(1)).getDateWeather("seoul", date);
+        verify(diaryService, times(2)).getDateWeather("busan", date);
+    }
+
+    @Test
+    void stopWhenApiBecomesUnavailable() {
+        // given
+        given(circuitBreaker.getState()).willReturn(CircuitBreaker.State.CLOSED);
+        given(diaryRepository.findStaleWeatherKeys(any())).willReturn(List.of(
+                new DateWeatherId("seoul", date), new DateWeatherId("busan", date)));
+        given(diaryService.getDateWeather("seoul", date)).willThrow(new WeatherApiException(
+                ErrorCode.WEATHER_API_UNAVAILABLE, WeatherApiException.NO_RESPONSE, "circuit is open"));
+
+        // when
+        int refreshedCount = job.refresh();
+
+        // then
+        assertEquals(0, refreshedCount);
+        verify(diaryService, never()).getDateWeather("busan", date);
+    }
+
+    @Test
+    void skipWhileCircuitIsOpen() {
+        // given
+        given(circuitBreaker.getState()).willReturn(CircuitBreaker.State.OPEN);
+
+        // when
+        int refreshedCount = job.refresh();
+
+        // then
+        assertEquals(0, refreshedCount);
+        verifyNoInteractions(diaryRepository, diaryService);
+    }
+
+    private DateWeather weather(String city, boolean stale) {
+        return DateWeather.builder()
+                .city(city)
+                .date(date)
+                .weather("Clear")
+                .icon("01d")
+                .temperature(288.5)
+                .stale(stale)
+                .build();
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.weather.service;
+
+import com.example.weather.domain.BackfillJob;
+import com.example.weather.domain.DateWeather;
+import com.example.weather.exception.WeatherApiException;
+import com.example.weather.exception.WeatherException;
+import com.example.weather.repository.BackfillJobRepository;
+import com.example.weather.repository.DateWeatherRepository;
+import com.example.weather.repository.JdbcDateWeatherRepository;
+import com.example.weather.type.BackfillStatus;
+import com.example.weather.type.ErrorCode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+class WeatherBackfillServiceTest {
+    private static final LocalDate START = LocalDate.of(2023, 10, 1);
+    private static final LocalDate END = LocalDate.of(2023, 10, 5);
+
+    private final DiaryService diaryService = mock(DiaryService.class);
+    private final DateWeatherRepository dateWeatherRepository = mock(DateWeatherRepository.class);
+    private final JdbcDateWeatherRepository jdbcDateWeatherRepository = mock(JdbcDateWeatherRepository.class);
+    private final BackfillJobRepository backfillJobRepository = mock(BackfillJobRepository.class);
+    private final List<List<DateWeather>> insertedBatches = new ArrayList<>();
+
+    private WeatherBackfillService weatherBackfillService;
+    private BackfillJob job;
+
+    @BeforeEach
+    void setUp() {
+        job = BackfillJob.builder()
+                .id(1L)
+                .city("seoul")
+                .startDate(START)
+                .endDate(END)
+                .status(BackfillStatus.RUNNING)
+                .build();
+        given(backfillJobRepository.findById(1L)).willReturn(Optional.of(job));
+        given(jdbcDateWeatherRepository.batchInsertIgnore(anyList())).willAnswer(invocation -> {
+            insertedBatches.add(List.copyOf(invocation.getArgument(0)));
+            return new int[0];
+        });
+        given(diaryService.fetchWeatherFromApi(eq("seoul"), any())).willAnswer(invocation ->
+                DateWeather.builder().city("seoul").date(invocation.getArgument(1)).weather("Clear").build());
+
+        weatherBackfillService = new WeatherBackfillService(diaryService, dateWeatherRepository,
+                jdbcDateWeatherRepository, backfillJobRepository,
+                new DateWeatherCache(16, Duration.ofHours(1), Duration.ofMinutes(1)),
+                2, new RateLimiter(1000), 2, 3660);
+    }
+
+    @AfterEach
+    void tearDown() {
+        weatherBackfillService.shutdown();
+    }
+
+    @Test
+    void fetchOnlyMissingDatesInBatches() {
+        // given
+        given(dateWeatherRepository.findDatesByCityAndDateBetween("seoul", START, END))
+                .willReturn(List.of(START.plusDays(1), START.plusDays(3)));
+
+        // when
+        weatherBackfillService.run(1L);
+
+        // then
+        verify(diaryService, times(3)).fetchWeatherFromApi(eq("seoul"), any());
+        verify(diaryService, never()).fetchWeatherFromApi("seoul", START.plusDays(1));
+        assertEquals(List.of(2, 1), insertedBatches.stream().map(List::size).toList());
+        assertEquals(BackfillStatus.COMPLETED, job.getStatus());
+        assertEquals(3, job.getTotalCount());
+        assertEquals(3, job.getCompletedCount());
+    }
+
+    @Test
+    void failedDatesAreLeftForResume() {
+        // given
+        given(dateWeatherRepository.findDatesByCityAndDateBetween("seoul", START, END))
+                .willReturn(List.of());
+        given(diaryService.fetchWeatherFromApi("seoul", START.plusDays(2)))
+                .willThrow(new WeatherApiException(ErrorCode.WEATHER_API_FAILED, 429, "too many requests"));
+
+        // when
+        weatherBackfillService.run(1L);
+
+        // then
+        assertEquals(BackfillStatus.FAILED, job.getStatus());
+        assertEquals(5, job.getTotalCount());
+        assertEquals(4, job.getCompletedCount());
+        assertEquals(1, job.getFailedCount());
+        assertEquals(4, insertedBatches.stream().mapToInt(List::size).sum());
+    }
+
+    @Test
+    void rejectRangeIncludingToday() {
+        // when
+        WeatherException exception = assertThrows(WeatherException.class,
+                () -> weatherBackfillService.start("seoul", LocalDate.now().minusDays(3), LocalDate.now()));
+
+        // then
+        assertEquals(ErrorCode.INVALID_BACKFILL_RANGE, exception.getErrorCode());
+        verify(backfillJobRepository, never()).save(any());
+    }
+}
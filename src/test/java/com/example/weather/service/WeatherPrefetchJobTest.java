@@ -0,0 +1,53 @@
+package com.example.weather.service;
+
+import com.example.weather.dto.PrefetchResult;
+import com.example.weather.exception.WeatherApiException;
+import com.example.weather.type.ErrorCode;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+class WeatherPrefetchJobTest {
+    private final DiaryService diaryService = mock(DiaryService.class);
+
+    @Test
+    void failureOfOneCityDoesNotStopOthers() {
+        // given
+        given(diaryService.saveWeatherDate("busan"))
+                .willThrow(new WeatherApiException(ErrorCode.WEATHER_API_FAILED, 500, "boom"));
+        WeatherPrefetchJob job = new WeatherPrefetchJob(
+                diaryService, List.of("seoul", "busan", "jeju"), 2, Duration.ofSeconds(10));
+
+        // when
+        PrefetchResult result = job.prefetch();
+
+        // then
+        verify(diaryService, times(1)).saveWeatherDate("seoul");
+        verify(diaryService, times(1)).saveWeatherDate("jeju");
+        assertEquals(2, result.getSucceededCount());
+        assertEquals(List.of("busan"), result.getFailedCities());
+    }
+
+    @Test
+    void slowCityIsCancelledAfterTimeout() {
+        // given
+        given(diaryService.saveWeatherDate("seoul")).willAnswer(invocation -> {
+            Thread.sleep(5_000);
+            return null;
+        });
+        WeatherPrefetchJob job = new WeatherPrefetchJob(
+                diaryService, List.of("seoul", "busan"), 2, Duration.ofMillis(200));
+
+        // when
+        PrefetchResult result = job.prefetch();
+
+        // then
+        assertEquals(1, result.getSucceededCount());
+        assertEquals(List.of("seoul"), result.getFailedCities());
+    }
+}
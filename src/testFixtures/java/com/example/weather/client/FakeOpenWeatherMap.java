@@ -0,0 +1,145 @@
+package com.example.weather.client;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 테스트/부하 테스트용 openweathermap 대역 서버.
+ * geo, 현재 날씨, timemachine(과거 날씨) api 를 같은 경로로 흉내 내며,
+ * 응답 지연(기본 + 랜덤 jitter), 오류 비율, 응답 본문을 실행 중에도 바꿀 수 있습니다.
+ * 요청은 가상 스레드에서 처리하므로 지연을 길게 줘도 동시 요청 수에 제한이 없습니다.
+ */
+public final class FakeOpenWeatherMap implements AutoCloseable {
+    public static final String GEO_PATH = "/geo/1.0/direct";
+    public static final String WEATHER_PATH = "/data/2.5/weather";
+    public static final String HISTORY_PATH = "/data/3.0/onecall/timemachine";
+
+    public static final String GEO_RESPONSE =
+            "[{\"name\":\"Seoul\",\"local_names\":{\"ko\":\"서울\"},\"lat\":37.5666791,\"lon\":126.9782914,\"country\":\"KR\"}]";
+    public static final String WEATHER_RESPONSE = "{\"coord\":{\"lon\":126.9783,\"lat\":37.5667},"
+            + "\"weather\":[{\"id\":800,\"main\":\"Clear\",\"description\":\"clear sky\",\"icon\":\"01d\"}],"
+            + "\"main\":{\"temp\":288.55,\"feels_like\":287.46,\"pressure\":1021,\"humidity\":52},\"name\":\"Seoul\",\"cod\":200}";
+    public static final String HISTORY_RESPONSE = "{\"lat\":37.5667,\"lon\":126.9783,\"timezone\":\"Asia/Seoul\","
+            + "\"data\":[{\"dt\":1698202800,\"temp\":285.3,\"humidity\":60,"
+            + "\"weather\":[{\"id\":803,\"main\":\"Clouds\",\"description\":\"broken clouds\",\"icon\":\"04d\"}]}]}";
+
+    private final HttpServer server;
+    private final Map<String, byte[]> payloads = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> calls = new ConcurrentHashMap<>();
+    private volatile Duration latency = Duration.ZERO;
+    private volatile Duration jitter = Duration.ZERO;
+    private volatile double errorRate;
+    private volatile int errorStatus = 500;
+
+    private FakeOpenWeatherMap(HttpServer server) {
+        this.server = server;
+        payload(GEO_PATH, GEO_RESPONSE);
+        payload(WEATHER_PATH, WEATHER_RESPONSE);
+        payload(HISTORY_PATH, HISTORY_RESPONSE);
+        for (String path : new String[]{GEO_PATH, WEATHER_PATH, HISTORY_PATH}) {
+            calls.put(path, new LongAdder());
+            server.createContext(path, this::handle);
+        }
+    }
+
+    public static FakeOpenWeatherMap start() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 1024);
+            FakeOpenWeatherMap fake = new FakeOpenWeatherMap(server);
+            server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+            server.start();
+            return fake;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // 모든 응답을 latency + [0, jitter) 만큼 늦춘다.
+    public FakeOpenWeatherMap latency(Duration latency, Duration jitter) {
+        this.latency = latency;
+        this.jitter = jitter;
+        return this;
+    }
+
+    // 요청의 errorRate(0 ~ 1) 비율만큼 status 로 실패한다. (429, 500, 503 등)
+    public FakeOpenWeatherMap errorRate(double errorRate, int status) {
+        this.errorRate = errorRate;
+        this.errorStatus = status;
+        return this;
+    }
+
+    public FakeOpenWeatherMap payload(String path, String json) {
+        payloads.put(path, json.getBytes(StandardCharsets.UTF_8));
+        return this;
+    }
+
+    public long calls(String path) {
+        return calls.get(path).sum();
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    // 애플리케이션이 이 서버를 보도록 하는 프로퍼티들
+    public Map<String, String> properties() {
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("openweathermap.geo-url", baseUrl() + GEO_PATH + "?q={city}&limit=1&appid={key}");
+        properties.put("openweathermap.weather-url", baseUrl() + WEATHER_PATH + "?lat={lat}&lon={lon}&appid={key}");
+        properties.put("openweathermap.history-url",
+                baseUrl() + HISTORY_PATH + "?lat={lat}&lon={lon}&dt={dt}&appid={key}");
+        return properties;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String path = exchange.getHttpContext().getPath();
+        calls.get(path).increment();
+        try (exchange) {
+            delay();
+            if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+                exchange.sendResponseHeaders(errorStatus, -1);
+                return;
+            }
+
+            byte[] body = payloads.get(path);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(body);
+            }
+        }
+    }
+
+    private void delay() {
+        long nanos = latency.toNanos();
+        if (!jitter.isZero()) {
+            nanos += ThreadLocalRandom.current().nextLong(jitter.toNanos());
+        }
+        if (nanos <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(Duration.ofNanos(nanos));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}